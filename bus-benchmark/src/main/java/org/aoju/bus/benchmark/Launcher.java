@@ -0,0 +1,65 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试入口
+ * 未指定结果格式时默认以JSON输出到 {@code jmh-result.json}, 便于在版本之间对比回归
+ *
+ * <pre>
+ *     java -jar target/benchmarks.jar                      // 全部
+ *     java -jar target/benchmarks.jar ManageBenchmark      // 按名称过滤
+ *     java -jar target/benchmarks.jar -rff 6.0.6.json      // 指定结果文件
+ * </pre>
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class Launcher {
+
+    private static final String RESULT_FORMAT = "-rf";
+    private static final String RESULT_FILE = "-rff";
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains(RESULT_FORMAT)) {
+            options.add(RESULT_FORMAT);
+            options.add("json");
+        }
+        if (!options.contains(RESULT_FILE)) {
+            options.add(RESULT_FILE);
+            options.add("jmh-result.json");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+
+}
@@ -0,0 +1,143 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.MapBinder;
+import com.google.inject.name.Names;
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.Complex;
+import org.aoju.bus.cache.Context;
+import org.aoju.bus.cache.Manage;
+import org.aoju.bus.cache.annotation.Cached;
+import org.aoju.bus.cache.annotation.CachedGet;
+import org.aoju.bus.cache.magic.AbstractReader;
+import org.aoju.bus.cache.magic.MultiCacheReader;
+import org.aoju.bus.cache.magic.SingleCacheReader;
+import org.aoju.bus.cache.metric.MemoryCache;
+import org.aoju.bus.cache.metric.NoOpCache;
+import org.aoju.bus.proxy.Factory;
+import org.aoju.bus.proxy.Interceptor;
+import org.aoju.bus.proxy.invoker.JoinPointInvoker;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+/**
+ * 基准测试使用的缓存装配
+ * 与 {@link org.aoju.bus.cache.Module} 的装配方式一致, 但每次创建独立的 {@link Injector},
+ * 以便同一JVM内对不同的缓存实现分别测试
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class CacheFixture {
+
+    public static final String CACHE = "benchmark";
+
+    private final Context config;
+
+    private final Injector injector;
+
+    public CacheFixture(CacheX cache) {
+        this(Context.newConfig(Collections.singletonMap(CACHE, cache)));
+    }
+
+    public CacheFixture(Context config) {
+        this.config = config;
+        this.injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Context.class).toInstance(config);
+
+                MapBinder<String, CacheX> mapBinder = MapBinder.newMapBinder(binder(), String.class, CacheX.class);
+                config.getCaches().forEach((name, cache) -> mapBinder.addBinding(name).toInstance(cache));
+
+                bind(AbstractReader.class).annotatedWith(Names.named("singleCacheReader")).to(SingleCacheReader.class);
+                bind(AbstractReader.class).annotatedWith(Names.named("multiCacheReader")).to(MultiCacheReader.class);
+            }
+        });
+    }
+
+    /**
+     * 按名称创建缓存实现
+     *
+     * @param name memory/noop
+     * @return 缓存实现
+     */
+    public static CacheX newCache(String name) {
+        switch (name) {
+            case "memory":
+                return new MemoryCache(1_000_000);
+            case "noop":
+                return new NoOpCache();
+            default:
+                throw new IllegalArgumentException("unknown cache: " + name);
+        }
+    }
+
+    public CacheX getCache() {
+        return config.getCaches().get(CACHE);
+    }
+
+    public Manage getManage() {
+        return injector.getInstance(Manage.class);
+    }
+
+    public Complex getComplex() {
+        return injector.getInstance(Complex.class);
+    }
+
+    /**
+     * 创建与 CacheXProxy 相同方式的JDK代理, 覆盖 {@link Cached}/{@link CachedGet} 的完整调用链路
+     *
+     * @param target 目标对象
+     * @param type   代理接口
+     * @param <T>    接口类型
+     * @return 代理对象
+     */
+    public <T> T proxy(T target, Class<T> type) {
+        Complex complex = getComplex();
+        Interceptor interceptor = invocation -> {
+            Method method = invocation.getMethod();
+            Cached cached;
+            if ((cached = method.getAnnotation(Cached.class)) != null) {
+                return complex.readWrite(cached, method, new JoinPointInvoker(target, invocation));
+            }
+
+            CachedGet cachedGet;
+            if ((cachedGet = method.getAnnotation(CachedGet.class)) != null) {
+                return complex.read(cachedGet, method, new JoinPointInvoker(target, invocation));
+            }
+
+            return invocation.proceed();
+        };
+        return type.cast(new Factory().createInterceptorProxy(target, interceptor, new Class[]{type}));
+    }
+
+}
@@ -0,0 +1,100 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 经由代理的 {@code @Cached} 单key方法完整调用链路:
+ * 代理拦截、开关判断、key生成、缓存读取及未命中回源写入
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedProxyBenchmark {
+
+    private static final int KEYS = 1 << 10;
+
+    private static final int MASK = KEYS - 1;
+
+    /**
+     * memory: 预热后全部命中; noop: 每次都回源并写入
+     */
+    @Param({"memory", "noop"})
+    public String cache;
+
+    private UserService target;
+
+    private UserService proxy;
+
+    private User[] users;
+
+    @Setup
+    public void setup() {
+        target = new UserService.Impl();
+        proxy = new CacheFixture(CacheFixture.newCache(cache)).proxy(target, UserService.class);
+
+        users = new User[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            users[i] = new User(i);
+            proxy.getById(i);
+            proxy.getByUser(users[i]);
+            proxy.getByTenant("tenant", users[i]);
+        }
+    }
+
+    /**
+     * 无代理的直接调用, 作为基线
+     */
+    @Benchmark
+    public User direct(ManageBenchmark.Cursor cursor) {
+        return target.getById(cursor.next() & MASK);
+    }
+
+    @Benchmark
+    public User byValue(ManageBenchmark.Cursor cursor) {
+        return proxy.getById(cursor.next() & MASK);
+    }
+
+    @Benchmark
+    public User byProperty(ManageBenchmark.Cursor cursor) {
+        return proxy.getByUser(users[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public User bySpel(ManageBenchmark.Cursor cursor) {
+        return proxy.getByTenant("tenant", users[cursor.next() & MASK]);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.magic.AnnoHolder;
+import org.aoju.bus.cache.support.CacheInfoContainer;
+import org.aoju.bus.cache.support.KeyGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link KeyGenerator} 生成单key与批量key的开销
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyGeneratorBenchmark {
+
+    private AnnoHolder byId;
+    private AnnoHolder byUser;
+    private AnnoHolder byTenant;
+    private AnnoHolder byIds;
+
+    private Object[] idArgs;
+    private Object[] userArgs;
+    private Object[] tenantArgs;
+
+    static AnnoHolder holder(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return CacheInfoContainer.getCacheInfo(UserService.class.getMethod(name, parameterTypes)).getLeft();
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        byId = holder("getById", long.class);
+        byUser = holder("getByUser", User.class);
+        byTenant = holder("getByTenant", String.class, User.class);
+        byIds = holder("getByIds", List.class);
+
+        User user = new User(10086);
+        idArgs = new Object[]{10086L};
+        userArgs = new Object[]{user};
+        tenantArgs = new Object[]{"tenant", user};
+    }
+
+    @Benchmark
+    public String singleValue() {
+        return KeyGenerator.generateSingleKey(byId, idArgs);
+    }
+
+    @Benchmark
+    public String singleProperty() {
+        return KeyGenerator.generateSingleKey(byUser, userArgs);
+    }
+
+    @Benchmark
+    public String singleSpel() {
+        return KeyGenerator.generateSingleKey(byTenant, tenantArgs);
+    }
+
+    @Benchmark
+    public Map[] multi(Batch batch) {
+        return KeyGenerator.generateMultiKey(byIds, batch.args);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({"10", "100", "1000"})
+        public int batchSize;
+
+        private Object[] args;
+
+        @Setup
+        public void setup() {
+            List<Long> ids = new ArrayList<>(batchSize);
+            for (long i = 0; i < batchSize; ++i) {
+                ids.add(i);
+            }
+            args = new Object[]{ids};
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.Manage;
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.cache.magic.CacheKeys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Manage#readSingle}/{@link Manage#readBatch} 在不同缓存实现下的开销
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManageBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    private static final int MASK = KEYS - 1;
+
+    @Param({"memory", "noop"})
+    public String cache;
+
+    private Manage manage;
+
+    private String[] hitKeys;
+
+    private String[] missKeys;
+
+    /**
+     * 预置 {@link #KEYS} 个缓存key, 并为批量读取准备按命中率混合的key列表
+     */
+    @Setup
+    public void setup() {
+        CacheFixture fixture = new CacheFixture(CacheFixture.newCache(cache));
+        manage = fixture.getManage();
+
+        hitKeys = new String[KEYS];
+        missKeys = new String[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            hitKeys[i] = "user:" + i;
+            missKeys[i] = "miss:" + i;
+            manage.writeSingle(CacheFixture.CACHE, hitKeys[i], new User(i), CacheExpire.ONE_HOUR);
+        }
+    }
+
+    @Benchmark
+    public Object readSingleHit(Cursor cursor) {
+        return manage.readSingle(CacheFixture.CACHE, hitKeys[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public Object readSingleMiss(Cursor cursor) {
+        return manage.readSingle(CacheFixture.CACHE, missKeys[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public CacheKeys readBatch(Batch batch, Cursor cursor) {
+        return manage.readBatch(CacheFixture.CACHE, batch.next(cursor));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        int next() {
+            return index++;
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        private static final int GROUPS = 16;
+
+        @Param({"10", "100", "1000"})
+        public int batchSize;
+
+        @Param({"0.0", "0.5", "0.9", "1.0"})
+        public double hitRatio;
+
+        private List<List<String>> groups;
+
+        @Setup
+        public void setup(ManageBenchmark benchmark) {
+            groups = new ArrayList<>(GROUPS);
+            Random random = new Random(GROUPS);
+            for (int group = 0; group < GROUPS; ++group) {
+                groups.add(keys(benchmark.hitKeys, benchmark.missKeys, group * batchSize, batchSize, hitRatio, random));
+            }
+        }
+
+        List<String> next(Cursor cursor) {
+            return groups.get(cursor.next() & (GROUPS - 1));
+        }
+
+        /**
+         * 生成一组key, 其中 {@code hitRatio} 比例的key已在缓存中, 命中与未命中的key随机交错
+         */
+        static List<String> keys(String[] hitKeys, String[] missKeys, int from, int size, double hitRatio, Random random) {
+            int hits = (int) Math.round(size * hitRatio);
+            List<String> keys = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                int index = (from + i) & MASK;
+                keys.add(i < hits ? hitKeys[index] : missKeys[index]);
+            }
+            Collections.shuffle(keys, random);
+            return keys;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.cache.metric.MemoryCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 经由代理的批量方法调用, 覆盖 MultiCacheReader 在不同批量大小与命中率下
+ * 拆分未命中参数、回源及合并结果的开销
+ * 方法使用 {@code @CachedGet} 声明, 回源结果不写回缓存, 因此每次调用的命中率保持不变
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiCacheReaderBenchmark {
+
+    private static final int GROUPS = 16;
+
+    @Param({"1", "10", "100", "1000"})
+    public int batchSize;
+
+    @Param({"0.0", "0.5", "0.9", "1.0"})
+    public double hitRatio;
+
+    private UserService proxy;
+
+    private List<List<Long>> groups;
+
+    @Setup
+    public void setup() {
+        MemoryCache cache = new MemoryCache(1_000_000);
+        proxy = new CacheFixture(cache).proxy(new UserService.Impl(), UserService.class);
+
+        // 每组中随机 hitRatio 比例的id预先写入缓存
+        int hits = (int) Math.round(batchSize * hitRatio);
+        Random random = new Random(GROUPS);
+        groups = new ArrayList<>(GROUPS);
+        for (int group = 0; group < GROUPS; ++group) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            for (long i = 0; i < batchSize; ++i) {
+                ids.add((long) group * batchSize + i);
+            }
+            Collections.shuffle(ids, random);
+            for (int i = 0; i < hits; ++i) {
+                Long id = ids.get(i);
+                cache.write("user:" + id, new User(id), CacheExpire.ONE_HOUR);
+            }
+            Collections.shuffle(ids, random);
+            groups.add(ids);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, User> read(ManageBenchmark.Cursor cursor) {
+        return proxy.getByIds(groups.get(cursor.next() & (GROUPS - 1)));
+    }
+
+}
@@ -0,0 +1,116 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.cache.metric.RedisCache;
+import org.aoju.bus.cache.serialize.BinarySerializer;
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.JedisPool;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisCache} 批量读写, 运行于进程内的 {@link RedisStandIn}
+ * 超过单批次大小的批量写入在同一管道中发送; 模拟往返延迟时可对比拆分批次带来的往返开销
+ * 初始化时校验写入的值可完整读回
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisCacheBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 批量key数量, 5000时拆分为5个批次
+     */
+    @Param({"100", "5000"})
+    public int size;
+
+    @Param({"forever", "expiring"})
+    public String expire;
+
+    /**
+     * 每次往返模拟的延迟(微秒)
+     */
+    @Param({"0", "200"})
+    public long latency;
+
+    private RedisStandIn server;
+
+    private JedisPool pool;
+
+    private RedisCache cache;
+
+    private Map<String, Object> values;
+
+    private long expireMillis;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new RedisStandIn(latency);
+        pool = new JedisPool("127.0.0.1", server.getPort());
+        cache = new RedisCache(pool, new BinarySerializer(), BATCH_SIZE);
+        expireMillis = "forever".equals(expire) ? CacheExpire.FOREVER : TimeUnit.MINUTES.toMillis(10);
+
+        values = new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; ++i) {
+            values.put("user:" + i, "user-" + i);
+        }
+
+        cache.write(values, expireMillis);
+        Map<String, Object> read = cache.read(values.keySet());
+        if (!values.equals(read)) {
+            throw new IllegalStateException("values read back from the stand-in differ from the values written");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cache.tearDown();
+        server.close();
+    }
+
+    @Benchmark
+    public void write() {
+        cache.write(values, expireMillis);
+    }
+
+    @Benchmark
+    public Map<String, Object> read() {
+        return cache.read(values.keySet());
+    }
+
+}
@@ -0,0 +1,167 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.cache.metric.RedisClusterCache;
+import org.aoju.bus.cache.serialize.BinarySerializer;
+import org.openjdk.jmh.annotations.*;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.util.JedisClusterCRC16;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisClusterCache} 按节点分组的管道批量读写, 运行于进程内由3个 {@link RedisStandIn} 组成的集群
+ * 初始化时校验:
+ * 写入的值可完整读回; slot迁移后经 MOVED 回退逐个key访问仍可读写正确;
+ * 节点发现失败时批量调用回退为逐个key访问, 且退避期间不会重复连接各节点发现
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisClusterCacheBenchmark {
+
+    private static final int NODES = 3;
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 批量key数量, 5000时每个节点拆分为2个批次
+     */
+    @Param({"100", "5000"})
+    public int size;
+
+    @Param({"forever", "expiring"})
+    public String expire;
+
+    /**
+     * 每次往返模拟的延迟(微秒)
+     */
+    @Param({"0", "200"})
+    public long latency;
+
+    private RedisStandIn[] nodes;
+
+    private JedisCluster jedisCluster;
+
+    private RedisClusterCache cache;
+
+    private Map<String, Object> values;
+
+    private long expireMillis;
+
+    @Setup
+    public void setup() throws IOException {
+        nodes = RedisStandIn.cluster(NODES, latency);
+        jedisCluster = new JedisCluster(new HostAndPort("127.0.0.1", nodes[0].getPort()));
+        expireMillis = "forever".equals(expire) ? CacheExpire.FOREVER : TimeUnit.MINUTES.toMillis(10);
+
+        values = new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; ++i) {
+            values.put("user:" + i, "user-" + i);
+        }
+
+        verifyDiscoveryBackoff();
+
+        cache = new RedisClusterCache(jedisCluster, new BinarySerializer(), BATCH_SIZE);
+        cache.write(values, expireMillis);
+        verify("values read back from the stand-in cluster differ from the values written");
+
+        // 将首个key所在的slot迁移到另一个节点, 管道中的该slot收到 MOVED 后经集群客户端重定向
+        int slot = JedisClusterCRC16.getSlot(values.keySet().iterator().next());
+        Arrays.stream(nodes).filter(node -> !node.owns(slot)).findFirst().get().assign(slot, slot);
+        values.replaceAll((key, value) -> value + "'");
+        cache.write(values, expireMillis);
+        verify("values written across a moved slot differ when read back");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cache.tearDown();
+        for (RedisStandIn node : nodes) {
+            node.close();
+        }
+    }
+
+    @Benchmark
+    public void write() {
+        cache.write(values, expireMillis);
+    }
+
+    @Benchmark
+    public Map<String, Object> read() {
+        return cache.read(values.keySet());
+    }
+
+    private void verify(String message) {
+        Map<String, Object> read = cache.read(values.keySet());
+        if (!values.equals(read)) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * 节点发现失败后, 退避期间的批量调用逐个key访问, 不再向各节点发送 CLUSTER SLOTS
+     * 逐个key访问较慢, 只取前100个key校验
+     */
+    private void verifyDiscoveryBackoff() {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        values.entrySet().stream().limit(100).forEach(entry -> sample.put(entry.getKey(), entry.getValue()));
+        for (RedisStandIn node : nodes) {
+            node.setFailDiscovery(true);
+            node.reset();
+        }
+        try {
+            RedisClusterCache failing = new RedisClusterCache(jedisCluster, new BinarySerializer(), BATCH_SIZE);
+            for (int i = 0; i < 10; ++i) {
+                failing.write(sample, expireMillis);
+                if (!sample.equals(failing.read(sample.keySet()))) {
+                    throw new IllegalStateException("per-key fallback returned different values while slot discovery fails");
+                }
+            }
+            long discoveries = Arrays.stream(nodes).mapToLong(RedisStandIn::getDiscoveries).sum();
+            if (discoveries > NODES) {
+                throw new IllegalStateException("failed slot discovery was retried " + discoveries + " times within the backoff");
+            }
+        } finally {
+            for (RedisStandIn node : nodes) {
+                node.setFailDiscovery(false);
+                node.reset();
+            }
+        }
+    }
+
+}
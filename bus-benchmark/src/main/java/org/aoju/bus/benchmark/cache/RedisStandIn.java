@@ -0,0 +1,491 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import redis.clients.util.JedisClusterCRC16;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内的Redis替身
+ * 实现RESP协议下 {@link org.aoju.bus.cache.metric.RedisCache} 使用的命令子集
+ * (PING/SELECT/GET/SET/PSETEX/PTTL/MGET/MSET/DEL/EXISTS/FLUSHDB/FLUSHALL),
+ * 无需外部Redis即可验证与测量批量读写; 可模拟网络往返延迟, 并统计命令数与往返次数
+ * <p>
+ * 由 {@link #cluster(int, long)} 创建的多个实例组成集群, 另支持 CLUSTER SLOTS:
+ * 各实例只处理自己负责的slot, 其余key回复 MOVED 重定向, 用于验证
+ * {@link org.aoju.bus.cache.metric.RedisClusterCache} 的按节点管道与重定向回退
+ * <p>
+ * 一次往返指: 服务端处理完客户端已发送的全部命令后回写响应
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class RedisStandIn implements Closeable {
+
+    private static final int SLOT_COUNT = 16384;
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+
+    private final AtomicLong commands = new AtomicLong();
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    private final AtomicLong discoveries = new AtomicLong();
+
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    private final ServerSocket server;
+
+    private final long latencyNanos;
+
+    private volatile boolean closed;
+
+    /**
+     * 集群模式下各slot的负责实例, 集群内共享; 单节点模式为 {@code null}
+     */
+    private RedisStandIn[] owners;
+
+    /**
+     * CLUSTER SLOTS 是否返回错误, 模拟节点发现失败
+     */
+    private volatile boolean failDiscovery;
+
+    public RedisStandIn() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param latencyMicros 每次往返模拟的延迟(微秒)
+     * @throws IOException 端口绑定失败
+     */
+    public RedisStandIn(long latencyMicros) throws IOException {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "redis-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 创建集群, slot按实例数平均分配
+     *
+     * @param size          实例数
+     * @param latencyMicros 每次往返模拟的延迟(微秒)
+     * @return 集群内的实例
+     * @throws IOException 端口绑定失败
+     */
+    public static RedisStandIn[] cluster(int size, long latencyMicros) throws IOException {
+        RedisStandIn[] nodes = new RedisStandIn[size];
+        RedisStandIn[] owners = new RedisStandIn[SLOT_COUNT];
+        for (int i = 0; i < size; ++i) {
+            nodes[i] = new RedisStandIn(latencyMicros);
+            nodes[i].owners = owners;
+            Arrays.fill(owners, owners.length * i / size, owners.length * (i + 1) / size, nodes[i]);
+        }
+        return nodes;
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[][] readCommand(InputStream in) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            return null;
+        }
+        if (b != '*') {
+            throw new IOException("unsupported request type: " + (char) b);
+        }
+        byte[][] args = new byte[(int) readNumber(in)][];
+        for (int i = 0; i < args.length; ++i) {
+            if (in.read() != '$') {
+                throw new IOException("bulk string expected");
+            }
+            byte[] arg = new byte[(int) readNumber(in)];
+            int read = 0;
+            while (read < arg.length) {
+                int n = in.read(arg, read, arg.length - read);
+                if (n == -1) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            in.read();
+            in.read();
+            args[i] = arg;
+        }
+        return args;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+
+    private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private static void writeLine(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return 服务端口
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return 已处理的命令数
+     */
+    public long getCommands() {
+        return commands.get();
+    }
+
+    /**
+     * @return 已发生的往返次数
+     */
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * @return 收到的 CLUSTER SLOTS 命令数
+     */
+    public long getDiscoveries() {
+        return discoveries.get();
+    }
+
+    /**
+     * 清空数据与统计
+     */
+    public void reset() {
+        data.clear();
+        commands.set(0);
+        roundTrips.set(0);
+        discoveries.set(0);
+    }
+
+    /**
+     * 将slot区间改由本实例负责, 原负责实例对其中的key回复 MOVED; 原有数据不迁移
+     *
+     * @param from 起始slot(包含)
+     * @param to   结束slot(包含)
+     */
+    public void assign(int from, int to) {
+        synchronized (owners) {
+            Arrays.fill(owners, from, to + 1, this);
+        }
+    }
+
+    /**
+     * @param slot slot
+     * @return 集群模式下该slot是否由本实例负责
+     */
+    public boolean owns(int slot) {
+        synchronized (owners) {
+            return owners[slot] == this;
+        }
+    }
+
+    /**
+     * @param failDiscovery CLUSTER SLOTS 是否返回错误
+     */
+    public void setFailDiscovery(boolean failDiscovery) {
+        this.failDiscovery = failDiscovery;
+    }
+
+    /**
+     * 读取原始值, 已过期时返回 {@code null}
+     *
+     * @param key 键
+     * @return 值
+     */
+    public byte[] get(String key) {
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt != 0 && entry.expireAt <= System.currentTimeMillis()) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        // 同时断开已建立的连接, 模拟实例下线
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                Thread worker = new Thread(() -> serve(socket), "redis-stand-in-" + socket.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream(), 64 * 1024);
+             OutputStream out = new BufferedOutputStream(s.getOutputStream(), 64 * 1024)) {
+            byte[][] args;
+            while ((args = readCommand(in)) != null) {
+                commands.incrementAndGet();
+                if (!execute(args, out)) {
+                    out.flush();
+                    return;
+                }
+                if (in.available() == 0) {
+                    roundTrips.incrementAndGet();
+                    if (latencyNanos > 0) {
+                        LockSupport.parkNanos(latencyNanos);
+                    }
+                    out.flush();
+                }
+            }
+        } catch (IOException ignored) {
+            // 客户端断开
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private boolean execute(byte[][] args, OutputStream out) throws IOException {
+        String command = text(args[0]).toUpperCase(Locale.ROOT);
+        if (owners != null && redirect(command, args, out)) {
+            return true;
+        }
+        switch (command) {
+            case "PING":
+                writeLine(out, "+PONG");
+                break;
+            case "SELECT":
+                writeLine(out, "+OK");
+                break;
+            case "GET":
+                writeBulk(out, get(text(args[1])));
+                break;
+            case "SET":
+                data.put(text(args[1]), new Entry(args[2], 0));
+                writeLine(out, "+OK");
+                break;
+            case "PSETEX":
+                long expireAt = System.currentTimeMillis() + Long.parseLong(text(args[2]));
+                data.put(text(args[1]), new Entry(args[3], expireAt));
+                writeLine(out, "+OK");
+                break;
+            case "PTTL":
+                Entry entry = get(text(args[1])) == null ? null : data.get(text(args[1]));
+                if (entry == null) {
+                    writeLine(out, ":-2");
+                } else {
+                    writeLine(out, ":" + (entry.expireAt == 0 ? -1 : Math.max(0, entry.expireAt - System.currentTimeMillis())));
+                }
+                break;
+            case "CLUSTER":
+                if (owners == null || !"SLOTS".equalsIgnoreCase(text(args[1]))) {
+                    writeLine(out, "-ERR This instance has cluster support disabled");
+                } else {
+                    discoveries.incrementAndGet();
+                    if (failDiscovery) {
+                        writeLine(out, "-ERR cluster slots unavailable");
+                    } else {
+                        writeSlots(out);
+                    }
+                }
+                break;
+            case "MGET":
+                writeLine(out, "*" + (args.length - 1));
+                for (int i = 1; i < args.length; ++i) {
+                    writeBulk(out, get(text(args[i])));
+                }
+                break;
+            case "MSET":
+                for (int i = 1; i + 1 < args.length; i += 2) {
+                    data.put(text(args[i]), new Entry(args[i + 1], 0));
+                }
+                writeLine(out, "+OK");
+                break;
+            case "DEL":
+            case "EXISTS":
+                int count = 0;
+                for (int i = 1; i < args.length; ++i) {
+                    String key = text(args[i]);
+                    if (get(key) != null) {
+                        ++count;
+                        if ("DEL".equals(command)) {
+                            data.remove(key);
+                        }
+                    }
+                }
+                writeLine(out, ":" + count);
+                break;
+            case "FLUSHDB":
+            case "FLUSHALL":
+                data.clear();
+                writeLine(out, "+OK");
+                break;
+            case "QUIT":
+                writeLine(out, "+OK");
+                return false;
+            default:
+                writeLine(out, "-ERR unknown command '" + command + "'");
+        }
+        return true;
+    }
+
+    /**
+     * 集群模式下key不由本实例负责时回复 MOVED, 同一命令的key分属不同slot时回复 CROSSSLOT
+     *
+     * @return 是否已回复
+     */
+    private boolean redirect(String command, byte[][] args, OutputStream out) throws IOException {
+        int step;
+        switch (command) {
+            case "GET":
+            case "SET":
+            case "PSETEX":
+            case "PTTL":
+                step = args.length;
+                break;
+            case "MGET":
+            case "DEL":
+            case "EXISTS":
+                step = 1;
+                break;
+            case "MSET":
+                step = 2;
+                break;
+            default:
+                return false;
+        }
+        int slot = JedisClusterCRC16.getSlot(args[1]);
+        for (int i = 1 + step; i < args.length; i += step) {
+            if (JedisClusterCRC16.getSlot(args[i]) != slot) {
+                writeLine(out, "-CROSSSLOT Keys in request don't hash to the same slot");
+                return true;
+            }
+        }
+        RedisStandIn owner;
+        synchronized (owners) {
+            owner = owners[slot];
+        }
+        if (owner == this) {
+            return false;
+        }
+        writeLine(out, "-MOVED " + slot + " 127.0.0.1:" + owner.getPort());
+        return true;
+    }
+
+    /**
+     * 按负责实例合并连续的slot区间, 回复 CLUSTER SLOTS
+     */
+    private void writeSlots(OutputStream out) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        int ranges = 0;
+        synchronized (owners) {
+            for (int from = 0; from < owners.length; ) {
+                int to = from;
+                while (to + 1 < owners.length && owners[to + 1] == owners[from]) {
+                    ++to;
+                }
+                String id = Integer.toString(owners[from].getPort());
+                reply.append("*3\r\n:").append(from).append("\r\n:").append(to).append("\r\n")
+                        .append("*3\r\n$9\r\n127.0.0.1\r\n:").append(owners[from].getPort()).append("\r\n")
+                        .append('$').append(id.length()).append("\r\n").append(id).append("\r\n");
+                ++ranges;
+                from = to + 1;
+            }
+        }
+        writeLine(out, "*" + ranges);
+        out.write(reply.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class Entry {
+
+        private final byte[] value;
+
+        private final long expireAt;
+
+        private Entry(byte[] value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
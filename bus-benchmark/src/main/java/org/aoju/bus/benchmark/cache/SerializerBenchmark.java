@@ -0,0 +1,116 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.serialize.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各 {@link BaseSerializer} 实现的序列化/反序列化开销
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"hessian2", "fastjson", "jdk", "jdkGzip", "binary"})
+    public String serializer;
+
+    /**
+     * string: 短字符串; user: 单个对象; users: 100个对象的列表(超过压缩阈值)
+     */
+    @Param({"string", "user", "users"})
+    public String payload;
+
+    private BaseSerializer impl;
+
+    private Object value;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        switch (payload) {
+            case "string":
+                value = "user-10086";
+                break;
+            case "user":
+                value = new User(10086);
+                break;
+            case "users":
+                ArrayList<User> users = new ArrayList<>(100);
+                for (long i = 0; i < 100; ++i) {
+                    users.add(new User(i));
+                }
+                value = users;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown payload: " + payload);
+        }
+
+        switch (serializer) {
+            case "hessian2":
+                impl = new Hessian2Serializer();
+                break;
+            case "fastjson":
+                impl = new FastJsonSerializer(value.getClass());
+                break;
+            case "jdk":
+                impl = new JdkSerializer();
+                break;
+            case "jdkGzip":
+                impl = new JdkGzipSerializer();
+                break;
+            case "binary":
+                impl = new BinarySerializer();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown serializer: " + serializer);
+        }
+
+        bytes = impl.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return impl.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return impl.deserialize(bytes);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.cache;
+
+import org.aoju.bus.cache.annotation.CacheKey;
+import org.aoju.bus.cache.annotation.Cached;
+import org.aoju.bus.cache.annotation.CachedGet;
+import org.aoju.bus.cache.magic.CacheExpire;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试使用的缓存方法声明
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public interface UserService {
+
+    /**
+     * 单key: 参数值直接作为key
+     */
+    @Cached(value = CacheFixture.CACHE, prefix = "user:", expire = CacheExpire.ONE_HOUR)
+    User getById(@CacheKey long id);
+
+    /**
+     * 单key: 属性路径表达式
+     */
+    @Cached(value = CacheFixture.CACHE, prefix = "user:", expire = CacheExpire.ONE_HOUR)
+    User getByUser(@CacheKey("#args0.id") User user);
+
+    /**
+     * 单key: 需要SpEL计算的表达式
+     */
+    @Cached(value = CacheFixture.CACHE, prefix = "user:", expire = CacheExpire.ONE_HOUR)
+    User getByTenant(@CacheKey("#args0 + '-' + #args1.id") String tenant, @CacheKey User user);
+
+    /**
+     * 批量: 只读不回写, 使每次调用的命中率保持不变
+     */
+    @CachedGet(value = CacheFixture.CACHE, prefix = "user:")
+    Map<Long, User> getByIds(@CacheKey("#args0[#i]") List<Long> ids);
+
+    class Impl implements UserService {
+
+        @Override
+        public User getById(long id) {
+            return new User(id);
+        }
+
+        @Override
+        public User getByUser(User user) {
+            return user;
+        }
+
+        @Override
+        public User getByTenant(String tenant, User user) {
+            return user;
+        }
+
+        @Override
+        public Map<Long, User> getByIds(List<Long> ids) {
+            Map<Long, User> result = new HashMap<>(ids.size() * 4 / 3 + 1);
+            for (Long id : ids) {
+                result.put(id, new User(id));
+            }
+            return result;
+        }
+
+    }
+
+}
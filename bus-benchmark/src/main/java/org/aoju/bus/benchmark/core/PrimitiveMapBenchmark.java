@@ -0,0 +1,274 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.core;
+
+import org.aoju.bus.core.collection.primitive.ConcurrentLongObjectMap;
+import org.aoju.bus.core.collection.primitive.IntIntMap;
+import org.aoju.bus.core.collection.primitive.IntObjectMap;
+import org.aoju.bus.core.collection.primitive.LongObjectMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IntObjectMap}/{@link IntIntMap} 与 {@code HashMap<Integer, ...>} 的读写、遍历与构建开销对比,
+ * {@link LongObjectMap} 与 {@code HashMap<Long, ...>}、{@link ConcurrentLongObjectMap} 与
+ * {@code ConcurrentHashMap<Long, ...>} 的同类对比, 并发版本以多线程读取和 {@code computeIfAbsent} 衡量
+ * 构建基准配合 {@code -prof gc} 运行, 以 {@code gc.alloc.rate.norm} 对比两者的内存占用
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveMapBenchmark {
+
+    private static final int LOOKUPS = 1 << 12;
+
+    private static final int MASK = LOOKUPS - 1;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private int[] keys;
+
+    private int[] lookups;
+
+    private Object value;
+
+    private HashMap<Integer, Object> boxedMap;
+
+    private IntObjectMap<Object> primitiveMap;
+
+    private HashMap<Integer, Integer> boxedCounter;
+
+    private IntIntMap primitiveCounter;
+
+    private long[] longKeys;
+
+    private long[] longLookups;
+
+    private HashMap<Long, Object> boxedLongMap;
+
+    private LongObjectMap<Object> primitiveLongMap;
+
+    private ConcurrentHashMap<Long, Object> boxedConcurrentMap;
+
+    private ConcurrentLongObjectMap<Object> primitiveConcurrentMap;
+
+    /**
+     * 生成 {@link #size} 个随机key, 并准备一半命中一半未命中的查找序列
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        keys = new int[size];
+        value = new Object();
+        boxedMap = new HashMap<>();
+        primitiveMap = new IntObjectMap<>();
+        boxedCounter = new HashMap<>();
+        primitiveCounter = new IntIntMap();
+        longKeys = new long[size];
+        boxedLongMap = new HashMap<>();
+        primitiveLongMap = new LongObjectMap<>();
+        boxedConcurrentMap = new ConcurrentHashMap<>();
+        primitiveConcurrentMap = new ConcurrentLongObjectMap<>();
+        for (int i = 0; i < size; ++i) {
+            keys[i] = random.nextInt();
+            boxedMap.put(keys[i], value);
+            primitiveMap.put(keys[i], value);
+            boxedCounter.put(keys[i], i);
+            primitiveCounter.put(keys[i], i);
+            longKeys[i] = random.nextLong();
+            boxedLongMap.put(longKeys[i], value);
+            primitiveLongMap.put(longKeys[i], value);
+            boxedConcurrentMap.put(longKeys[i], value);
+            primitiveConcurrentMap.put(longKeys[i], value);
+        }
+        lookups = new int[LOOKUPS];
+        longLookups = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; ++i) {
+            lookups[i] = (i & 1) == 0 ? keys[random.nextInt(size)] : random.nextInt();
+            longLookups[i] = (i & 1) == 0 ? longKeys[random.nextInt(size)] : random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public Object getBoxed(Cursor cursor) {
+        return boxedMap.get(lookups[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public Object getPrimitive(Cursor cursor) {
+        return primitiveMap.get(lookups[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public int counterBoxed(Cursor cursor) {
+        return boxedCounter.merge(keys[cursor.next() % size], 1, Integer::sum);
+    }
+
+    @Benchmark
+    public int counterPrimitive(Cursor cursor) {
+        return primitiveCounter.addTo(keys[cursor.next() % size], 1);
+    }
+
+    @Benchmark
+    public void iterateBoxed(Blackhole blackhole) {
+        for (Map.Entry<Integer, Object> entry : boxedMap.entrySet()) {
+            blackhole.consume(entry.getKey().intValue());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void iteratePrimitive(Blackhole blackhole) {
+        primitiveMap.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+
+    @Benchmark
+    public Object buildBoxed() {
+        HashMap<Integer, Object> map = new HashMap<>();
+        for (int key : keys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Object buildPrimitive() {
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int key : keys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Object getLongBoxed(Cursor cursor) {
+        return boxedLongMap.get(longLookups[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public Object getLongPrimitive(Cursor cursor) {
+        return primitiveLongMap.get(longLookups[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    public void iterateLongBoxed(Blackhole blackhole) {
+        for (Map.Entry<Long, Object> entry : boxedLongMap.entrySet()) {
+            blackhole.consume(entry.getKey().longValue());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void iterateLongPrimitive(Blackhole blackhole) {
+        primitiveLongMap.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+
+    @Benchmark
+    public Object buildLongBoxed() {
+        HashMap<Long, Object> map = new HashMap<>();
+        for (long key : longKeys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Object buildLongPrimitive() {
+        LongObjectMap<Object> map = new LongObjectMap<>();
+        for (long key : longKeys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getConcurrentBoxed(Cursor cursor) {
+        return boxedConcurrentMap.get(longLookups[cursor.next() & MASK]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getConcurrentPrimitive(Cursor cursor) {
+        return primitiveConcurrentMap.get(longLookups[cursor.next() & MASK]);
+    }
+
+    /**
+     * 查找序列中偶数位命中只读, 奇数位未命中则写入后立即移除, 保持map大小不变
+     */
+    @Benchmark
+    @Threads(4)
+    public Object computeConcurrentBoxed(Cursor cursor) {
+        int index = cursor.next() & MASK;
+        Object result = boxedConcurrentMap.computeIfAbsent(longLookups[index], k -> value);
+        if ((index & 1) != 0) {
+            boxedConcurrentMap.remove(longLookups[index]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object computeConcurrentPrimitive(Cursor cursor) {
+        int index = cursor.next() & MASK;
+        Object result = primitiveConcurrentMap.computeIfAbsent(longLookups[index], k -> value);
+        if ((index & 1) != 0) {
+            primitiveConcurrentMap.remove(longLookups[index]);
+        }
+        return result;
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        int next() {
+            return index++ & Integer.MAX_VALUE;
+        }
+
+    }
+
+}
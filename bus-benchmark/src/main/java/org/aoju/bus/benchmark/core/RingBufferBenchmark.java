@@ -0,0 +1,171 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.benchmark.core;
+
+import org.aoju.bus.core.io.EventFactory;
+import org.aoju.bus.core.io.RingBuffer;
+import org.aoju.bus.core.io.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RingBuffer} 在各 {@link WaitStrategy} 下的单生产者事件吞吐量(事件/秒),
+ * 以基于锁和条件的 {@link ArrayBlockingQueue} 为基线; 消费者为后台线程
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    private static final long POISON = -1;
+
+    @Param({"blocking", "parking", "yielding", "busySpin", "queue"})
+    public String strategy;
+
+    @Param({"1", "2"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private RingBuffer<Event> ring;
+
+    private BlockingQueue<Long> queue;
+
+    private Thread[] threads;
+
+    private long sequence;
+
+    @Setup
+    public void setup() {
+        if ("queue".equals(strategy)) {
+            queue = new ArrayBlockingQueue<>(capacity);
+        } else {
+            ring = new RingBuffer<>(capacity, new EventFactory<Event>() {
+                @Override
+                public Event newInstance() {
+                    return new Event();
+                }
+
+                @Override
+                public void restEntity(Event entity) {
+                    entity.value = 0;
+                }
+            }, RingBuffer.Producer.MULTI, newStrategy(strategy));
+        }
+
+        threads = new Thread[consumers];
+        for (int i = 0; i < consumers; ++i) {
+            threads[i] = new Thread(null == queue ? this::consumeRing : this::consumeQueue, "ring-consumer-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * 每个消费者发送一个结束标记, 各等待策略均可据此退出
+     */
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        for (int i = 0; i < consumers; ++i) {
+            publish(POISON);
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Benchmark
+    public void publish() throws InterruptedException {
+        publish(++sequence);
+    }
+
+    private void publish(long value) throws InterruptedException {
+        if (null != queue) {
+            queue.put(value);
+            return;
+        }
+        int index = ring.nextWriteIndex();
+        ring.get(index).value = value;
+        ring.publishWriteIndex(index);
+    }
+
+    private void consumeRing() {
+        try {
+            while (true) {
+                int index = ring.nextReadIndex();
+                long value = ring.get(index).value;
+                ring.publishReadIndex(index);
+                if (value == POISON) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consumeQueue() {
+        try {
+            while (queue.take() != POISON) {
+                // 仅消费
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static WaitStrategy newStrategy(String name) {
+        switch (name) {
+            case "blocking":
+                return new WaitStrategy.Blocking();
+            case "parking":
+                return new WaitStrategy.Parking();
+            case "yielding":
+                return new WaitStrategy.Yielding();
+            case "busySpin":
+                return new WaitStrategy.BusySpin();
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + name);
+        }
+    }
+
+    static final class Event {
+
+        long value;
+
+    }
+
+}
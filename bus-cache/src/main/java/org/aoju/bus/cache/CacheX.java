@@ -24,7 +24,10 @@
  ********************************************************************************/
 package org.aoju.bus.cache;
 
+import org.aoju.bus.cache.magic.CacheExpire;
+
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -84,4 +87,28 @@ public interface CacheX {
      */
     void clear();
 
+    /**
+     * 获取对象的剩余失效时长
+     *
+     * @param key 键
+     * @return 剩余失效时长,单位毫秒;永不过期时为{@link CacheExpire#FOREVER},不存在或不支持查询时为{@link CacheExpire#NO}
+     */
+    default long ttl(String key) {
+        return CacheExpire.NO;
+    }
+
+    /**
+     * 获取一组对象的剩余失效时长
+     *
+     * @param keys 多个键
+     * @return 键对应的剩余失效时长,取值同{@link #ttl(String)}
+     */
+    default Map<String, Long> ttl(Collection<String> keys) {
+        Map<String, Long> result = new HashMap<>(keys.size());
+        for (String key : keys) {
+            result.put(key, ttl(key));
+        }
+        return result;
+    }
+
 }
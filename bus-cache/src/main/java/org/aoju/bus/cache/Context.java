@@ -45,11 +45,30 @@ public class Context {
     // 是否开启缓存防击穿
     private Switch prevent;
 
+    // 是否开启未命中合并加载
+    private Switch flight;
+
+    // 等待合并加载结果的超时时间(ms), 超时后自行回源
+    private long flightTimeout;
+
+    // 慢操作日志阈值(ms), 小于等于0时不记录
+    private long slowThreshold;
+
+    // 异步刷新线程数
+    private int refreshThreads;
+
+    // 异步刷新任务队列长度
+    private int refreshQueue;
+
     public static Context newConfig(Map<String, CacheX> caches) {
         Context config = new Context();
         config.caches = caches;
         config.cache = Switch.ON;
         config.prevent = Switch.OFF;
+        config.flight = Switch.ON;
+        config.flightTimeout = 3000;
+        config.refreshThreads = Runtime.getRuntime().availableProcessors();
+        config.refreshQueue = 1024;
         config.hitting = null;
         return config;
     }
@@ -58,6 +77,10 @@ public class Context {
         return prevent != null && prevent == Switch.ON;
     }
 
+    public boolean isFlightOn() {
+        return flight != null && flight == Switch.ON;
+    }
+
     public Map<String, CacheX> getCaches() {
         return caches;
     }
@@ -90,6 +113,46 @@ public class Context {
         this.prevent = prevent;
     }
 
+    public Switch getFlight() {
+        return flight;
+    }
+
+    public void setFlight(Switch flight) {
+        this.flight = flight;
+    }
+
+    public long getFlightTimeout() {
+        return flightTimeout;
+    }
+
+    public void setFlightTimeout(long flightTimeout) {
+        this.flightTimeout = flightTimeout;
+    }
+
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    public int getRefreshQueue() {
+        return refreshQueue;
+    }
+
+    public void setRefreshQueue(int refreshQueue) {
+        this.refreshQueue = refreshQueue;
+    }
+
     public enum Switch {
         ON,
         OFF
@@ -26,6 +26,7 @@ package org.aoju.bus.cache;
 
 import org.aoju.bus.cache.magic.CacheKeys;
 import org.aoju.bus.cache.magic.CachePair;
+import org.aoju.bus.cache.support.CacheMetrics;
 import org.aoju.bus.core.annotation.Inject;
 import org.aoju.bus.core.annotation.Singleton;
 import org.aoju.bus.core.lang.exception.InstrumentException;
@@ -34,6 +35,7 @@ import org.aoju.bus.logger.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Kimi Liu
@@ -48,6 +50,12 @@ public class Manage {
 
     private Map<String, CachePair<String, CacheX>> cachePool = new ConcurrentHashMap<>();
 
+    @Inject
+    private CacheMetrics metrics;
+
+    @Inject(optional = true)
+    private Context config;
+
     @Inject
     public void setCachePool(Map<String, CacheX> caches) {
         // default cache impl
@@ -58,17 +66,16 @@ public class Manage {
     }
 
     public Object readSingle(String cache, String key) {
+        CachePair<String, CacheX> cacheImpl = null;
+        long start = System.nanoTime();
         try {
-            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
-
-            long start = System.currentTimeMillis();
+            cacheImpl = getCacheImpl(cache);
             Object result = cacheImpl.getRight().read(key);
-            Logger.info("cache [{}] read single cost: [{}] ms",
-                    cacheImpl.getLeft(),
-                    (System.currentTimeMillis() - start));
+            record(cacheImpl, CacheMetrics.Operation.READ_SINGLE, start, 1, false);
 
             return result;
         } catch (Throwable e) {
+            record(cacheImpl, CacheMetrics.Operation.READ_SINGLE, start, 1, true);
             Logger.error("read single cache failed, key: {} ", key, e);
             return null;
         }
@@ -76,16 +83,14 @@ public class Manage {
 
     public void writeSingle(String cache, String key, Object value, int expire) {
         if (value != null) {
+            CachePair<String, CacheX> cacheImpl = null;
+            long start = System.nanoTime();
             try {
-                CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
-
-                long start = System.currentTimeMillis();
+                cacheImpl = getCacheImpl(cache);
                 cacheImpl.getRight().write(key, value, expire);
-                Logger.info("cache [{}] write single cost: [{}] ms",
-                        cacheImpl.getLeft(),
-                        (System.currentTimeMillis() - start));
-
+                record(cacheImpl, CacheMetrics.Operation.WRITE_SINGLE, start, 1, false);
             } catch (Throwable e) {
+                record(cacheImpl, CacheMetrics.Operation.WRITE_SINGLE, start, 1, true);
                 Logger.error("write single cache failed, key: {} ", key, e);
             }
         }
@@ -96,14 +101,12 @@ public class Manage {
         if (keys.isEmpty()) {
             cacheKeys = new CacheKeys();
         } else {
+            CachePair<String, CacheX> cacheImpl = null;
+            long start = System.nanoTime();
             try {
-                CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
-
-                long start = System.currentTimeMillis();
+                cacheImpl = getCacheImpl(cache);
                 Map<String, Object> cacheMap = cacheImpl.getRight().read(keys);
-                Logger.info("cache [{}] read batch cost: [{}] ms",
-                        cacheImpl.getLeft(),
-                        (System.currentTimeMillis() - start));
+                record(cacheImpl, CacheMetrics.Operation.READ_BATCH, start, keys.size(), false);
 
                 // collect not nit keys, keep order when full shooting
                 Map<String, Object> hitValueMap = new LinkedHashMap<>();
@@ -120,6 +123,7 @@ public class Manage {
 
                 cacheKeys = new CacheKeys(hitValueMap, notHitKeys);
             } catch (Throwable e) {
+                record(cacheImpl, CacheMetrics.Operation.READ_BATCH, start, keys.size(), true);
                 Logger.error("read multi cache failed, keys: {}", keys, e);
                 cacheKeys = new CacheKeys();
             }
@@ -129,37 +133,56 @@ public class Manage {
     }
 
     public void writeBatch(String cache, Map<String, Object> keyValueMap, int expire) {
+        CachePair<String, CacheX> cacheImpl = null;
+        long start = System.nanoTime();
         try {
-            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
-
-            long start = System.currentTimeMillis();
+            cacheImpl = getCacheImpl(cache);
             cacheImpl.getRight().write(keyValueMap, expire);
-            Logger.info("cache [{}] write batch cost: [{}] ms",
-                    cacheImpl.getLeft(),
-                    (System.currentTimeMillis() - start));
-
+            record(cacheImpl, CacheMetrics.Operation.WRITE_BATCH, start, keyValueMap.size(), false);
         } catch (Exception e) {
+            record(cacheImpl, CacheMetrics.Operation.WRITE_BATCH, start, keyValueMap.size(), true);
             Logger.error("write map multi cache failed, keys: {}", keyValueMap.keySet(), e);
         }
     }
 
     public void remove(String cache, String... keys) {
         if (keys != null && keys.length != 0) {
+            CachePair<String, CacheX> cacheImpl = null;
+            long start = System.nanoTime();
             try {
-                CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
-
-                long start = System.currentTimeMillis();
+                cacheImpl = getCacheImpl(cache);
                 cacheImpl.getRight().remove(keys);
-                Logger.info("cache [{}] remove cost: [{}] ms",
-                        cacheImpl.getLeft(),
-                        (System.currentTimeMillis() - start));
-
+                record(cacheImpl, CacheMetrics.Operation.REMOVE, start, keys.length, false);
             } catch (Throwable e) {
+                record(cacheImpl, CacheMetrics.Operation.REMOVE, start, keys.length, true);
                 Logger.error("remove cache failed, keys: {}: ", keys, e);
             }
         }
     }
 
+    /**
+     * @return 各缓存操作的耗时、批量大小与失败次数统计
+     */
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void record(CachePair<String, CacheX> cacheImpl, CacheMetrics.Operation operation,
+                        long start, int size, boolean error) {
+        if (cacheImpl == null) {
+            return;
+        }
+        long cost = System.nanoTime() - start;
+        metrics.record(cacheImpl.getLeft(), operation, cost, size, error);
+
+        // 慢操作日志
+        long slowThreshold = config == null ? 0 : config.getSlowThreshold();
+        if (slowThreshold > 0 && cost >= TimeUnit.MILLISECONDS.toNanos(slowThreshold)) {
+            Logger.warn("cache [{}] {} slow, size: {}, cost: [{}] ms",
+                    cacheImpl.getLeft(), operation, size, TimeUnit.NANOSECONDS.toMillis(cost));
+        }
+    }
+
     private CachePair<String, CacheX> getCacheImpl(String cacheName) {
         if (StringKit.isEmpty(cacheName)) {
             return defaultCache;
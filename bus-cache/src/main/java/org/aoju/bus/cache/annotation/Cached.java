@@ -63,4 +63,18 @@ public @interface Cached {
      */
     int expire() default CacheExpire.FOREVER;
 
+    /**
+     * @return refresh-ahead window before {@code expire}, same time unit as {@code expire}:
+     * a hit falling inside this window returns the cached value and reloads it asynchronously,
+     * {@code 0} disables refresh-ahead
+     */
+    int refresh() default 0;
+
+    /**
+     * @return grace period after {@code expire}, same time unit as {@code expire}:
+     * the stale value is still served while one asynchronous reload runs,
+     * {@code 0} disables stale serving
+     */
+    int stale() default 0;
+
 }
@@ -24,6 +24,7 @@
  ********************************************************************************/
 package org.aoju.bus.cache.magic;
 
+import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.proxy.invoker.ProxyChain;
 
@@ -45,6 +46,10 @@ public abstract class AbstractReader {
         }
     }
 
+    String flightKey(String cache, String key) {
+        return cache + Symbol.C_COLON + key;
+    }
+
     @FunctionalInterface
     protected interface ThrowableSupplier<T> {
         T get() throws Throwable;
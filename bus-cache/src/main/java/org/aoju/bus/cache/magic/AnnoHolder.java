@@ -42,6 +42,8 @@ public class AnnoHolder {
     private String cache;
     private String prefix;
     private int expire;
+    private int refresh;
+    private int stale;
 
     // @CacheKey
     private Map<Integer, CacheKey> cacheKeyMap;
@@ -51,12 +53,14 @@ public class AnnoHolder {
     private String id;
 
     private AnnoHolder(Method method,
-                       String cache, String prefix, int expire,
+                       String cache, String prefix, int expire, int refresh, int stale,
                        Map<Integer, CacheKey> cacheKeyMap, int multiIndex, String id) {
         this.method = method;
         this.cache = cache;
         this.prefix = prefix;
         this.expire = expire;
+        this.refresh = refresh;
+        this.stale = stale;
         this.cacheKeyMap = cacheKeyMap;
         this.multiIndex = multiIndex;
         this.id = id;
@@ -78,6 +82,21 @@ public class AnnoHolder {
         return expire;
     }
 
+    public int getRefresh() {
+        return refresh;
+    }
+
+    public int getStale() {
+        return stale;
+    }
+
+    /**
+     * @return 是否开启提前刷新或过期后容忍旧值
+     */
+    public boolean isRefresh() {
+        return expire > 0 && (refresh > 0 || stale > 0);
+    }
+
     public Map<Integer, CacheKey> getCacheKeyMap() {
         return cacheKeyMap;
     }
@@ -104,6 +123,10 @@ public class AnnoHolder {
 
         private int expire;
 
+        private int refresh;
+
+        private int stale;
+
         private Map<Integer, CacheKey> cacheKeyMap;
 
         private int multiIndex = -1;
@@ -133,6 +156,16 @@ public class AnnoHolder {
             return this;
         }
 
+        public Builder setRefresh(int refresh) {
+            this.refresh = refresh;
+            return this;
+        }
+
+        public Builder setStale(int stale) {
+            this.stale = stale;
+            return this;
+        }
+
         public Builder setMultiIndex(int multiIndex) {
             this.multiIndex = multiIndex;
             return this;
@@ -149,7 +182,7 @@ public class AnnoHolder {
         }
 
         public AnnoHolder build() {
-            return new AnnoHolder(method, cache, prefix, expire, cacheKeyMap, multiIndex, id);
+            return new AnnoHolder(method, cache, prefix, expire, refresh, stale, cacheKeyMap, multiIndex, id);
         }
     }
 
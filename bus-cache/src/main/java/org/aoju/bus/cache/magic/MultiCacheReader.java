@@ -50,6 +50,9 @@ public class MultiCacheReader extends AbstractReader {
     @Inject
     private Context config;
 
+    @Inject
+    private FlightGroup flightGroup;
+
     @Inject(optional = true)
     private Hitting baseHitting;
 
@@ -126,12 +129,18 @@ public class MultiCacheReader extends AbstractReader {
         // request cache
         Set<String> keys = key2MultiEntry.keySet();
         CacheKeys cacheKeys = cacheManager.readBatch(annoHolder.getCache(), keys);
+        // 单key方法开启提前刷新时写入的包装对象
+        RefreshObjects.unwrapAll(cacheKeys.getHitKeyMap());
         doRecord(cacheKeys, annoHolder);
 
         Object result;
         // have miss keys : part hit || all not hit
         if (!cacheKeys.getMissKeySet().isEmpty()) {
-            result = handlePartHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            if (config.isFlightOn()) {
+                result = handleFlightHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            } else {
+                result = handlePartHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            }
         }
         // no miss keys : all hit || empty key
         else {
@@ -192,6 +201,99 @@ public class MultiCacheReader extends AbstractReader {
         return result;
     }
 
+    /**
+     * 未命中key合并加载: 仅回源当前没有其他调用者在加载的key,
+     * 其余key等待其加载结果; 等待超时的key由等待者之一接替加载, 加载失败时抛出同一异常
+     */
+    private Object handleFlightHit(ProxyChain baseInvoker, CacheKeys cacheKeys,
+                                   AnnoHolder annoHolder, MethodHolder methodHolder,
+                                   Map[] pair, boolean needWrite) throws Throwable {
+
+        Map<String, Object> key2MultiEntry = pair[1];
+        Map<String, Object> hitKeyValueMap = new LinkedHashMap<>(cacheKeys.getHitKeyMap());
+
+        Map<String, FlightGroup.Flight> leadFlights = new LinkedHashMap<>();
+        Map<String, FlightGroup.Flight> followFlights = new LinkedHashMap<>();
+        for (String key : cacheKeys.getMissKeySet()) {
+            FlightGroup.Flight flight = flightGroup.takeoff(flightKey(annoHolder.getCache(), key), config.getFlightTimeout());
+            (flight.isLeader() ? leadFlights : followFlights).put(key, flight);
+        }
+
+        Object[] holder = new Object[1];
+        while (!leadFlights.isEmpty() || !followFlights.isEmpty()) {
+            // 先完成自身负责的加载再等待他人, 避免相互等待
+            if (!leadFlights.isEmpty()) {
+                hitKeyValueMap.putAll(lead(baseInvoker, leadFlights, annoHolder, methodHolder, pair, needWrite));
+                leadFlights = new LinkedHashMap<>();
+            }
+
+            Map<String, FlightGroup.Flight> waitFlights = followFlights;
+            followFlights = new LinkedHashMap<>();
+            for (Map.Entry<String, FlightGroup.Flight> entry : waitFlights.entrySet()) {
+                FlightGroup.Flight next = flightGroup.await(flightKey(annoHolder.getCache(), entry.getKey()), entry.getValue(), holder);
+                if (null == next) {
+                    if (holder[0] != null) {
+                        hitKeyValueMap.put(entry.getKey(), holder[0]);
+                    }
+                } else {
+                    (next.isLeader() ? leadFlights : followFlights).put(entry.getKey(), next);
+                }
+            }
+        }
+
+        return handleFullHit(baseInvoker, hitKeyValueMap, methodHolder, key2MultiEntry);
+    }
+
+    /**
+     * 回源加载自身负责的key, 并将结果或异常通知等待者
+     */
+    private Map<String, Object> lead(ProxyChain baseInvoker, Map<String, FlightGroup.Flight> leadFlights,
+                                     AnnoHolder annoHolder, MethodHolder methodHolder,
+                                     Map[] pair, boolean needWrite) throws Throwable {
+        Map<String, Object> keyValueMap;
+        try {
+            keyValueMap = doLoad(baseInvoker, leadFlights.keySet(), annoHolder, methodHolder, pair, needWrite);
+        } catch (Throwable e) {
+            leadFlights.forEach((key, flight) -> flightGroup.fail(flightKey(annoHolder.getCache(), key), flight, e));
+            throw e;
+        }
+        // 防击穿占位对象只用于写入缓存, 交给等待者(包括单key读取)的是其原本的null
+        leadFlights.forEach((key, flight) -> {
+            Object value = keyValueMap.get(key);
+            flightGroup.land(flightKey(annoHolder.getCache(), key), flight, PreventObjects.isPrevent(value) ? null : value);
+        });
+        return keyValueMap;
+    }
+
+    private Map<String, Object> doLoad(ProxyChain baseInvoker, Set<String> keys,
+                                       AnnoHolder annoHolder, MethodHolder methodHolder,
+                                       Map[] pair, boolean needWrite) throws Throwable {
+
+        Map<Object, String> multiEntry2Key = pair[0];
+        Map<String, Object> key2MultiEntry = pair[1];
+
+        Set<String> missKeys = new LinkedHashSet<>(keys);
+        Object[] missArgs = toMissArgs(missKeys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
+        Object proceed = doLogInvoke(() -> baseInvoker.proceed(missArgs));
+        if (proceed == null) {
+            return Collections.emptyMap();
+        }
+
+        Class<?> returnType = proceed.getClass();
+        methodHolder.setReturnType(returnType);
+
+        Map<String, Object> keyValueMap;
+        if (Map.class.isAssignableFrom(returnType)) {
+            keyValueMap = KeyValue.mapToKeyValue((Map) proceed, missKeys, multiEntry2Key, config.getPrevent());
+        } else {
+            keyValueMap = KeyValue.collectionToKeyValue(asCollection(proceed, returnType), annoHolder.getId(), missKeys, multiEntry2Key, config.getPrevent());
+        }
+        if (needWrite) {
+            cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
+        }
+        return keyValueMap;
+    }
+
     private Object asType(Collection collection, Class<?> returnType) {
         if (Collection.class.isAssignableFrom(returnType)) {
             return collection;
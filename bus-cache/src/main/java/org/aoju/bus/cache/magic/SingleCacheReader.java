@@ -27,9 +27,12 @@ package org.aoju.bus.cache.magic;
 import org.aoju.bus.cache.Context;
 import org.aoju.bus.cache.Hitting;
 import org.aoju.bus.cache.Manage;
+import org.aoju.bus.cache.support.FlightGroup;
 import org.aoju.bus.cache.support.KeyGenerator;
 import org.aoju.bus.cache.support.PatternGenerator;
 import org.aoju.bus.cache.support.PreventObjects;
+import org.aoju.bus.cache.support.RefreshObjects;
+import org.aoju.bus.cache.support.Refresher;
 import org.aoju.bus.core.annotation.Inject;
 import org.aoju.bus.core.annotation.Singleton;
 import org.aoju.bus.logger.Logger;
@@ -49,6 +52,12 @@ public class SingleCacheReader extends AbstractReader {
     @Inject
     private Context config;
 
+    @Inject
+    private FlightGroup flightGroup;
+
+    @Inject
+    private Refresher refresher;
+
     @Inject(optional = true)
     private Hitting baseHitting;
 
@@ -60,6 +69,15 @@ public class SingleCacheReader extends AbstractReader {
         doRecord(readResult, key, annoHolder);
         // 命中
         if (readResult != null) {
+            if (RefreshObjects.isRefresh(readResult)) {
+                // 进入刷新窗口或处于过期宽限期, 返回旧值并异步刷新
+                if (needWrite && System.currentTimeMillis() >= RefreshObjects.getExpireAt(readResult) - annoHolder.getRefresh()) {
+                    refresher.refresh(flightKey(annoHolder.getCache(), key),
+                            () -> doLoad(annoHolder, methodHolder, baseInvoker, key, true));
+                }
+                readResult = RefreshObjects.unwrap(readResult);
+            }
+
             // 是放击穿对象
             if (PreventObjects.isPrevent(readResult)) {
                 return null;
@@ -70,6 +88,16 @@ public class SingleCacheReader extends AbstractReader {
 
 
         // not hit
+        if (!config.isFlightOn()) {
+            return doLoad(annoHolder, methodHolder, baseInvoker, key, needWrite);
+        }
+        // 同一key的并发未命中只回源一次
+        return flightGroup.execute(flightKey(annoHolder.getCache(), key), config.getFlightTimeout(),
+                () -> doLoad(annoHolder, methodHolder, baseInvoker, key, needWrite));
+    }
+
+    private Object doLoad(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker,
+                          String key, boolean needWrite) throws Throwable {
         // invoke method
         Object invokeResult = doLogInvoke(baseInvoker::proceed);
         if (invokeResult != null && methodHolder.getInnerReturnType() == null) {
@@ -81,18 +109,29 @@ public class SingleCacheReader extends AbstractReader {
         }
 
         if (invokeResult != null) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, invokeResult, annoHolder.getExpire());
+            doWrite(annoHolder, key, invokeResult);
             return invokeResult;
         }
 
         // invokeResult is null
         if (config.isPreventOn()) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, PreventObjects.getPreventObject(), annoHolder.getExpire());
+            doWrite(annoHolder, key, PreventObjects.getPreventObject());
         }
 
         return null;
     }
 
+    private void doWrite(AnnoHolder annoHolder, String key, Object value) {
+        if (annoHolder.isRefresh()) {
+            // 逻辑过期时间写入包装对象, 物理过期时间延长宽限期
+            long expireAt = System.currentTimeMillis() + annoHolder.getExpire();
+            cacheManager.writeSingle(annoHolder.getCache(), key, RefreshObjects.wrap(value, expireAt),
+                    annoHolder.getExpire() + annoHolder.getStale());
+        } else {
+            cacheManager.writeSingle(annoHolder.getCache(), key, value, annoHolder.getExpire());
+        }
+    }
+
     private void doRecord(Object result, String key, AnnoHolder annoHolder) {
         Logger.info("single cache hit rate: {}/1, key: {}", result == null ? 0 : 1, key);
         if (this.baseHitting != null) {
@@ -0,0 +1,62 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import java.util.function.Consumer;
+
+/**
+ * 近端缓存失效通知通道
+ * 某个节点写入或删除缓存后, 通过通道通知其他节点清理各自的本地缓存
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public interface InvalidChannel {
+
+    /**
+     * 发布失效消息
+     *
+     * @param source 发布者标识, 订阅者据此忽略自身发出的消息
+     * @param keys   失效的键, 为空时表示清空全部
+     */
+    void publish(String source, String... keys);
+
+    /**
+     * 订阅失效消息
+     *
+     * @param source   订阅者标识
+     * @param listener 消息处理, 参数为失效的键, 为空时表示清空全部
+     */
+    void subscribe(String source, Consumer<String[]> listener);
+
+    /**
+     * 取消订阅
+     *
+     * @param source 订阅者标识
+     */
+    void unsubscribe(String source);
+
+}
@@ -24,26 +24,25 @@
  ********************************************************************************/
 package org.aoju.bus.cache.metric;
 
-import lombok.Getter;
-import lombok.Setter;
 import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.core.toolkit.MapKit;
 
-import java.io.Serializable;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 内存缓存支持
+ * 有界缓存, 淘汰策略为 W-TinyLFU: 新写入的元素先进入窗口区(LRU), 窗口溢出的元素
+ * 与主区(分段LRU)的淘汰候选比较访问频率, 频率高者留下;
+ * 读操作无锁, 访问记录写入分段的有损环形缓冲, 写操作写入队列,
+ * 由获得维护锁的线程批量回放, 过期元素在读取时惰性删除并在维护时按过期时间批量清理
  *
  * @author Kimi Liu
  * @version 6.0.6
@@ -63,12 +62,81 @@ public class MemoryCache implements CacheX {
      */
     public static boolean schedulePrune = true;
 
-    private static Map<String, CacheState> map = new ConcurrentHashMap<>();
-    private final ReentrantReadWriteLock cacheLock = new ReentrantReadWriteLock(true);
-    private final Lock writeLock = cacheLock.writeLock();
-    private final Lock readLock = cacheLock.readLock();
+    /**
+     * 默认最大容量(权重)
+     */
+    public static long capacity = 10_000;
+
+    /**
+     * 每个读缓冲区的大小, 必须为2的幂
+     */
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    /**
+     * 写队列积压上限, 超过后写线程同步参与维护
+     */
+    private static final int WRITE_BUFFER_MAX = 1024;
+
+    private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer[] readBuffers;
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger writeBufferSize = new AtomicInteger();
+
+    private final long maximum;
+    private final Weigher weigher;
+
+    /**
+     * 以下字段仅在维护锁内访问
+     */
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque window = new AccessOrderDeque();
+    private final AccessOrderDeque probation = new AccessOrderDeque();
+    private final AccessOrderDeque protect = new AccessOrderDeque();
+    private final PriorityQueue<Node> expiry = new PriorityQueue<>(Comparator.comparingLong(node -> node.expireAt));
+    private final long windowMaximum;
+    private final long protectMaximum;
+    private long windowWeight;
+    private long protectWeight;
+    private long weightedSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ScheduledFuture<?> prune;
 
     public MemoryCache() {
+        this(capacity);
+    }
+
+    /**
+     * @param maximum 最大元素数量
+     */
+    public MemoryCache(long maximum) {
+        this(maximum, (key, value) -> 1);
+    }
+
+    /**
+     * @param maximum 最大权重
+     * @param weigher 元素权重计算
+     */
+    public MemoryCache(long maximum, Weigher weigher) {
+        if (maximum <= 0) {
+            throw new IllegalArgumentException("maximum must be positive: " + maximum);
+        }
+        this.maximum = maximum;
+        this.weigher = weigher;
+        this.windowMaximum = Math.max(1, maximum / 100);
+        this.protectMaximum = (long) ((maximum - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(maximum);
+
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+
         if (schedulePrune) {
             this.schedulePrune(timeout);
         }
@@ -92,16 +160,21 @@ public class MemoryCache implements CacheX {
      *
      * @param key    缓存KEY
      * @param value  缓存内容
-     * @param expire 指定缓存过期时间(毫秒)
+     * @param expire 指定缓存过期时间(毫秒), 小于等于0时永不过期
      */
     @Override
     public void write(String key, Object value, long expire) {
-        writeLock.lock();
-        try {
-            map.put(key, new CacheState(value, expire));
-        } finally {
-            writeLock.unlock();
+        if (null == value) {
+            remove(key);
+            return;
+        }
+        Node node = new Node(key, value, Math.max(0, weigher.weigh(key, value)),
+                expire > 0 ? System.currentTimeMillis() + expire : 0);
+        Node prior = data.put(key, node);
+        if (null != prior) {
+            prior.retire();
         }
+        afterWrite(() -> onAdd(node, prior));
     }
 
     /**
@@ -112,16 +185,22 @@ public class MemoryCache implements CacheX {
      */
     @Override
     public Object read(String key) {
-        readLock.lock();
-        try {
-            CacheState cacheState = map.get(key);
-            if (null == cacheState || cacheState.isExpired()) {
-                return null;
+        Node node = data.get(key);
+        if (null == node) {
+            missCount.increment();
+            return null;
+        }
+        if (node.isExpired(System.currentTimeMillis())) {
+            if (data.remove(key, node)) {
+                node.retire();
+                afterWrite(() -> onRemove(node));
             }
-            return cacheState.getState();
-        } finally {
-            readLock.unlock();
+            missCount.increment();
+            return null;
         }
+        hitCount.increment();
+        afterRead(node);
+        return node.value;
     }
 
     @Override
@@ -134,36 +213,301 @@ public class MemoryCache implements CacheX {
     }
 
     /**
-     * 清理过期的缓存
+     * 执行维护: 回放读写缓冲并清理过期的缓存
      */
     @Override
     public void clear() {
-        Iterator<CacheState> values = map.values().iterator();
-        while (values.hasNext()) {
-            CacheState cache = values.next();
-            if (cache.isExpired()) {
-                values.remove();
-            }
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
         }
     }
 
     /**
-     * 清理过期的缓存
+     * 删除缓存
      */
     @Override
     public void remove(String... keys) {
         for (String key : keys) {
-            map.remove(key);
+            Node node = data.remove(key);
+            if (null != node) {
+                node.retire();
+                afterWrite(() -> onRemove(node));
+            }
         }
     }
 
+    @Override
+    public long ttl(String key) {
+        Node node = data.get(key);
+        if (null == node) {
+            return CacheExpire.NO;
+        }
+        if (node.expireAt == 0) {
+            return CacheExpire.FOREVER;
+        }
+        long remaining = node.expireAt - System.currentTimeMillis();
+        return remaining > 0 ? remaining : CacheExpire.NO;
+    }
+
     /**
      * 定时清理
      *
      * @param delay 间隔时长,单位毫秒
      */
-    public void schedulePrune(long delay) {
-        CacheScheduler.INSTANCE.schedule(this::clear, delay);
+    public synchronized void schedulePrune(long delay) {
+        if (null != prune) {
+            prune.cancel(false);
+        }
+        PruneTask task = new PruneTask(this);
+        prune = CacheScheduler.INSTANCE.schedule(task, delay);
+        task.future = prune;
+    }
+
+    /**
+     * 停止定时清理
+     * 定时任务只弱引用本实例,未关闭的实例被回收后任务自行取消,关闭可以更早地停止任务
+     */
+    public synchronized void close() {
+        if (null != prune) {
+            prune.cancel(false);
+            prune = null;
+        }
+    }
+
+    /**
+     * @return 当前元素数量(近似值)
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * @return 当前所有键的快照
+     */
+    public Set<String> keys() {
+        return new HashSet<>(data.keySet());
+    }
+
+    /**
+     * @return 命中、未命中及淘汰统计
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    private void afterRead(Node node) {
+        ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+        if (!buffer.offer(node)) {
+            tryMaintenance();
+        }
+    }
+
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (writeBufferSize.incrementAndGet() > WRITE_BUFFER_MAX) {
+            // 写入过快时同步参与维护, 避免写队列无限增长
+            clear();
+        } else {
+            tryMaintenance();
+        }
+    }
+
+    private void tryMaintenance() {
+        while (evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+            // 释放锁之后仍有积压的写任务说明有线程抢锁失败, 由当前线程继续处理
+            if (writeBuffer.isEmpty()) {
+                break;
+            }
+        }
+    }
+
+    private void maintenance() {
+        for (ReadBuffer buffer : readBuffers) {
+            buffer.drainTo(this::onAccess);
+        }
+        Runnable task;
+        while (null != (task = writeBuffer.poll())) {
+            writeBufferSize.decrementAndGet();
+            task.run();
+        }
+        expire(System.currentTimeMillis());
+    }
+
+    private void onAdd(Node node, Node prior) {
+        if (null != prior) {
+            onRemove(prior);
+        }
+        if (node.isRetired()) {
+            return;
+        }
+        sketch.increment(node.key.hashCode());
+        node.queue = Node.WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        weightedSize += node.weight;
+        if (node.expireAt > 0) {
+            expiry.add(node);
+        }
+        evict();
+    }
+
+    private void onRemove(Node node) {
+        unlink(node);
+    }
+
+    private void onAccess(Node node) {
+        if (node.isRetired() || node.queue == Node.NONE) {
+            return;
+        }
+        sketch.increment(node.key.hashCode());
+        if (node.queue == Node.WINDOW) {
+            window.moveToBack(node);
+        } else if (node.queue == Node.PROBATION) {
+            // 主区试用段再次被访问, 晋升到保护段
+            probation.remove(node);
+            node.queue = Node.PROTECTED;
+            protect.addLast(node);
+            protectWeight += node.weight;
+            while (protectWeight > protectMaximum && null != protect.peekFirst()) {
+                Node demoted = protect.pollFirst();
+                protectWeight -= demoted.weight;
+                demoted.queue = Node.PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protect.moveToBack(node);
+        }
+    }
+
+    private void evict() {
+        // 窗口区溢出的元素移入试用段尾部, 成为准入候选
+        int candidates = 0;
+        while (windowWeight > windowMaximum && null != window.peekFirst()) {
+            Node node = window.pollFirst();
+            windowWeight -= node.weight;
+            node.queue = Node.PROBATION;
+            probation.addLast(node);
+            candidates++;
+        }
+
+        while (weightedSize > maximum) {
+            Node victim = probation.peekFirst();
+            Node candidate = candidates > 0 ? probation.peekLast() : null;
+            if (null == victim) {
+                victim = null != protect.peekFirst() ? protect.peekFirst() : window.peekFirst();
+                if (null == victim) {
+                    break;
+                }
+                evictEntry(victim);
+                continue;
+            }
+            if (null == candidate || candidate == victim) {
+                if (candidate == victim) {
+                    candidates--;
+                }
+                evictEntry(victim);
+                continue;
+            }
+            // 候选者频率高于受害者才准入, 否则淘汰候选者
+            if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                evictEntry(victim);
+            } else {
+                candidates--;
+                evictEntry(candidate);
+            }
+        }
+    }
+
+    private void evictEntry(Node node) {
+        if (data.remove(node.key, node)) {
+            evictionCount.increment();
+        }
+        node.retire();
+        unlink(node);
+    }
+
+    private void expire(long now) {
+        Node node;
+        while (null != (node = expiry.peek()) && (node.isRetired() || node.expireAt <= now)) {
+            expiry.poll();
+            if (!node.isRetired()) {
+                data.remove(node.key, node);
+                node.retire();
+                unlink(node);
+            }
+        }
+        // 被覆盖或删除的元素惰性留在过期队列中, 积压过多时整体压缩
+        if (expiry.size() > (data.size() << 1) + 64) {
+            expiry.removeIf(Node::isRetired);
+        }
+    }
+
+    private void unlink(Node node) {
+        switch (node.queue) {
+            case Node.WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case Node.PROBATION:
+                probation.remove(node);
+                break;
+            case Node.PROTECTED:
+                protect.remove(node);
+                protectWeight -= node.weight;
+                break;
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.queue = Node.NONE;
+    }
+
+    /**
+     * 元素权重计算
+     */
+    @FunctionalInterface
+    public interface Weigher {
+
+        /**
+         * @param key   缓存KEY
+         * @param value 缓存内容
+         * @return 权重, 不可为负
+         */
+        int weigh(String key, Object value);
+
+    }
+
+    /**
+     * 定时清理任务,弱引用缓存实例,实例被回收后取消自身
+     */
+    private static final class PruneTask implements Runnable {
+
+        private final WeakReference<MemoryCache> cache;
+
+        private volatile ScheduledFuture<?> future;
+
+        PruneTask(MemoryCache cache) {
+            this.cache = new WeakReference<>(cache);
+        }
+
+        @Override
+        public void run() {
+            MemoryCache memoryCache = cache.get();
+            if (null != memoryCache) {
+                memoryCache.clear();
+            } else if (null != future) {
+                future.cancel(false);
+            }
+        }
+
     }
 
     enum CacheScheduler {
@@ -182,7 +526,10 @@ public class MemoryCache implements CacheX {
 
         private void create() {
             this.shutdown();
-            this.scheduler = new ScheduledThreadPoolExecutor(10, r -> new Thread(r, String.format("OAuth-Task-%s", cacheTaskNumber.getAndIncrement())));
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(10, r -> new Thread(r, String.format("OAuth-Task-%s", cacheTaskNumber.getAndIncrement())));
+            // 取消的任务立即移出队列, 不再等到其下次执行时间
+            executor.setRemoveOnCancelPolicy(true);
+            this.scheduler = executor;
         }
 
         private void shutdown() {
@@ -191,26 +538,188 @@ public class MemoryCache implements CacheX {
             }
         }
 
-        public void schedule(Runnable task, long delay) {
-            this.scheduler.scheduleAtFixedRate(task, delay, delay, TimeUnit.MILLISECONDS);
+        public ScheduledFuture<?> schedule(Runnable task, long delay) {
+            return this.scheduler.scheduleAtFixedRate(task, delay, delay, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public static class Stats {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        Stats(long hitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hitCount=" + hitCount + ", missCount=" + missCount
+                    + ", evictionCount=" + evictionCount + ", hitRate=" + getHitRate() + "}";
+        }
+    }
+
+    private static class Node {
+
+        static final int NONE = 0;
+        static final int WINDOW = 1;
+        static final int PROBATION = 2;
+        static final int PROTECTED = 3;
+
+        final String key;
+        final Object value;
+        final int weight;
+        final long expireAt;
+
+        volatile boolean retired;
+
+        /**
+         * 以下字段仅在维护锁内访问
+         */
+        int queue;
+        Node prev;
+        Node next;
+
+        Node(String key, Object value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt > 0 && now > expireAt;
+        }
+
+        boolean isRetired() {
+            return retired;
+        }
+
+        void retire() {
+            retired = true;
+        }
+    }
+
+    /**
+     * 侵入式双向链表, 按访问顺序排列
+     */
+    private static class AccessOrderDeque {
+
+        private Node head;
+        private Node tail;
+
+        Node peekFirst() {
+            return head;
+        }
+
+        Node peekLast() {
+            return tail;
+        }
+
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        Node pollFirst() {
+            Node node = head;
+            if (null != node) {
+                remove(node);
+            }
+            return node;
         }
 
+        void remove(Node node) {
+            if (null == node.prev) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (null == node.next) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
     }
 
-    @Getter
-    @Setter
-    private class CacheState implements Serializable {
-        private Object state;
-        private long expire;
+    /**
+     * 有损的多生产者单消费者环形缓冲, 满时丢弃访问记录
+     */
+    private static class ReadBuffer {
+
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
 
-        CacheState(Object state, long expire) {
-            this.state = state;
-            // 实际过期时间等于当前时间加上有效期
-            this.expire = System.currentTimeMillis() + expire;
+        /**
+         * @return 缓冲区已满时返回 {@code false}
+         */
+        boolean offer(Node node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            if (tail - head >= READ_BUFFER_SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & READ_BUFFER_MASK), node);
+            }
+            return true;
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() > this.expire;
+        void drainTo(java.util.function.Consumer<Node> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & READ_BUFFER_MASK);
+                Node node = buffer.get(index);
+                if (null == node) {
+                    // 生产者已占位但尚未发布
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(node);
+            }
+            readCounter = head;
         }
     }
 
@@ -0,0 +1,282 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.core.toolkit.MapKit;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 二级近端缓存支持
+ * 在远程缓存(如 {@link RedisCache}、{@link RedisClusterCache}、{@link MemcachedCache})之前
+ * 增加一层有界的本地缓存, 本地命中时无需网络往返与反序列化;
+ * 写入与删除同时作用于两级缓存, 并通过 {@link InvalidChannel} 通知其他节点清理本地缓存
+ * <p>
+ * 注意: 本地缓存直接持有对象引用, 调用方不应修改读取到的对象
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class NearCache implements CacheX {
+
+    /**
+     * 失效代数分段数量
+     */
+    private static final int GENERATION_STRIPES = 64;
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final CacheX remote;
+
+    private final MemoryCache local;
+
+    private final InvalidChannel channel;
+
+    /**
+     * 本地缓存过期时间(毫秒)
+     */
+    private final long localExpire;
+
+    /**
+     * 失效代数, 按key散列分段, 每次失效时递增
+     * 回源填充本地缓存后若所在分段的代数已变化, 说明期间发生过失效, 丢弃刚填充的值
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param remote      远程缓存
+     * @param maximum     本地缓存最大元素数量
+     * @param localExpire 本地缓存过期时间(毫秒)
+     */
+    public NearCache(CacheX remote, long maximum, long localExpire) {
+        this(remote, maximum, localExpire, null);
+    }
+
+    /**
+     * @param remote      远程缓存
+     * @param maximum     本地缓存最大元素数量
+     * @param localExpire 本地缓存过期时间(毫秒), 不超过远程缓存的剩余失效时长;
+     *                    小于等于0且远程缓存无法查询剩余失效时长时, 读取的值不进入本地缓存
+     * @param channel     失效通知通道, 为空时仅依赖本地过期时间保证一致性
+     */
+    public NearCache(CacheX remote, long maximum, long localExpire, InvalidChannel channel) {
+        this.remote = remote;
+        this.local = new MemoryCache(maximum);
+        this.localExpire = localExpire;
+        this.channel = channel;
+        if (null != channel) {
+            channel.subscribe(id, this::onInvalid);
+        }
+    }
+
+    @Override
+    public Object read(String key) {
+        Object value = local.read(key);
+        if (null == value) {
+            long generation = generations.get(stripe(key));
+            value = remote.read(key);
+            if (null != value) {
+                fill(key, value, generation, remote.ttl(key));
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> read(Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object value = local.read(key);
+            if (null == value) {
+                missKeys.add(key);
+            } else {
+                result.put(key, value);
+            }
+        }
+        if (!missKeys.isEmpty()) {
+            long[] missGenerations = new long[missKeys.size()];
+            for (int i = 0; i < missGenerations.length; ++i) {
+                missGenerations[i] = generations.get(stripe(missKeys.get(i)));
+            }
+            Map<String, Object> remoteMap = remote.read(missKeys);
+
+            List<String> hitKeys = new ArrayList<>(remoteMap.size());
+            remoteMap.forEach((key, value) -> {
+                if (null != value) {
+                    hitKeys.add(key);
+                }
+            });
+            Map<String, Long> ttlMap = hitKeys.isEmpty() ? Collections.emptyMap() : remote.ttl(hitKeys);
+
+            // 与MemoryCache一致, 未命中的key映射为null
+            for (int i = 0; i < missGenerations.length; ++i) {
+                String key = missKeys.get(i);
+                Object value = remoteMap.get(key);
+                result.put(key, value);
+                if (null != value) {
+                    fill(key, value, missGenerations[i], ttlMap.getOrDefault(key, (long) CacheExpire.NO));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void write(String key, Object value, long expire) {
+        remote.write(key, value, expire);
+        generations.incrementAndGet(stripe(key));
+        local.write(key, value, toLocalExpire(expire));
+        publish(key);
+    }
+
+    @Override
+    public void write(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isEmpty(keyValueMap)) {
+            return;
+        }
+        remote.write(keyValueMap, expire);
+        for (String key : keyValueMap.keySet()) {
+            generations.incrementAndGet(stripe(key));
+        }
+        local.write(keyValueMap, toLocalExpire(expire));
+        publish(keyValueMap.keySet().toArray(new String[0]));
+    }
+
+    @Override
+    public void remove(String... keys) {
+        remote.remove(keys);
+        invalidateLocal(keys);
+        publish(keys);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocal();
+        publish();
+    }
+
+    @Override
+    public long ttl(String key) {
+        return remote.ttl(key);
+    }
+
+    @Override
+    public Map<String, Long> ttl(Collection<String> keys) {
+        return remote.ttl(keys);
+    }
+
+    /**
+     * 仅清理本地缓存
+     *
+     * @param keys 键, 为空时清空全部
+     */
+    public void invalidateLocal(String... keys) {
+        if (null == keys || keys.length == 0) {
+            for (int i = 0; i < GENERATION_STRIPES; ++i) {
+                generations.incrementAndGet(i);
+            }
+            local.remove(localKeys());
+        } else {
+            for (String key : keys) {
+                generations.incrementAndGet(stripe(key));
+            }
+            local.remove(keys);
+        }
+    }
+
+    /**
+     * @return 本地缓存统计信息
+     */
+    public MemoryCache.Stats localStats() {
+        return local.stats();
+    }
+
+    /**
+     * 停止接收失效通知并停止本地缓存的定时清理
+     */
+    public void close() {
+        if (null != channel) {
+            channel.unsubscribe(id);
+        }
+        local.close();
+    }
+
+    /**
+     * 回源读取的值写入本地缓存, 期间发生失效时撤销
+     *
+     * @param key        键
+     * @param value      值
+     * @param generation 回源前所在分段的失效代数
+     * @param remoteTtl  远程缓存的剩余失效时长
+     */
+    private void fill(String key, Object value, long generation, long remoteTtl) {
+        long expire;
+        if (remoteTtl > 0) {
+            expire = localExpire > 0 ? Math.min(remoteTtl, localExpire) : remoteTtl;
+        } else if (remoteTtl == CacheExpire.FOREVER || localExpire > 0) {
+            expire = localExpire;
+        } else {
+            // 无法确定远程失效时间且本地不过期, 不缓存以免远程过期后仍读到旧值
+            return;
+        }
+        local.write(key, value, expire);
+        if (generations.get(stripe(key)) != generation) {
+            local.remove(key);
+        }
+    }
+
+    private int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private long toLocalExpire(long expire) {
+        if (expire == CacheExpire.FOREVER || expire <= 0) {
+            return localExpire;
+        }
+        return localExpire > 0 ? Math.min(expire, localExpire) : expire;
+    }
+
+    private String[] localKeys() {
+        return local.keys().toArray(new String[0]);
+    }
+
+    private void onInvalid(String[] keys) {
+        invalidateLocal(keys);
+    }
+
+    private void publish(String... keys) {
+        if (null != channel) {
+            channel.publish(id, keys);
+        }
+    }
+
+}
@@ -28,15 +28,14 @@ import org.aoju.bus.cache.CacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.core.toolkit.CollKit;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 import javax.annotation.PreDestroy;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Redis 单机缓存支持
@@ -47,17 +46,34 @@ import java.util.Map;
  */
 public class RedisCache implements CacheX {
 
+    /**
+     * 默认每批次key数量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private BaseSerializer serializer;
 
     private JedisPool jedisPool;
 
+    private int batchSize;
+
     public RedisCache(JedisPool jedisPool) {
         this(jedisPool, new Hessian2Serializer());
     }
 
     public RedisCache(JedisPool jedisPool, BaseSerializer serializer) {
+        this(jedisPool, serializer, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param jedisPool  连接池
+     * @param serializer 序列化
+     * @param batchSize  批量读写时每条命令/每个管道包含的key数量上限
+     */
+    public RedisCache(JedisPool jedisPool, BaseSerializer serializer, int batchSize) {
         this.jedisPool = jedisPool;
         this.serializer = serializer;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     static byte[][] toByteArray(Map<String, Object> keyValueMap, BaseSerializer serializer) {
@@ -70,6 +86,16 @@ public class RedisCache implements CacheX {
         return kvs;
     }
 
+    /**
+     * PTTL结果转换: -1 永不过期, -2 不存在
+     */
+    static long toTtl(Long pttl) {
+        if (null == pttl || pttl == -2 || pttl == 0) {
+            return CacheExpire.NO;
+        }
+        return pttl == -1 ? CacheExpire.FOREVER : pttl;
+    }
+
     static byte[][] toByteArray(Collection<String> keys) {
         byte[][] array = new byte[keys.size()][];
         int index = 0;
@@ -111,25 +137,129 @@ public class RedisCache implements CacheX {
 
     @Override
     public Map<String, Object> read(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
         try (Jedis client = jedisPool.getResource()) {
-            List<byte[]> bytesValues = client.mget(toByteArray(keys));
-            return toObjectMap(keys, bytesValues, this.serializer);
+            if (keys.size() <= batchSize) {
+                List<byte[]> bytesValues = client.mget(toByteArray(keys));
+                return toObjectMap(keys, bytesValues, this.serializer);
+            }
+
+            // 大批量拆分为多条mget, 在同一个管道中发送
+            List<List<String>> chunks = CollKit.split(keys, batchSize);
+            List<Response<List<byte[]>>> responses = new ArrayList<>(chunks.size());
+            Pipeline pipeline = client.pipelined();
+            for (List<String> chunk : chunks) {
+                responses.add(pipeline.mget(toByteArray(chunk)));
+            }
+            pipeline.sync();
+
+            Map<String, Object> result = new HashMap<>(keys.size());
+            for (int i = 0; i < chunks.size(); ++i) {
+                result.putAll(toObjectMap(chunks.get(i), responses.get(i).get(), this.serializer));
+            }
+            return result;
         }
     }
 
     @Override
     public void write(Map<String, Object> keyValueMap, long expire) {
+        if (keyValueMap.isEmpty()) {
+            return;
+        }
         try (Jedis client = jedisPool.getResource()) {
-            byte[][] kvs = toByteArray(keyValueMap, serializer);
-            if (expire == CacheExpire.FOREVER) {
-                client.mset(kvs);
-            } else {
-                Pipeline pipeline = client.pipelined();
-                for (int i = 0; i < kvs.length; i += 2) {
-                    pipeline.psetex(kvs[i], expire, kvs[i + 1]);
+            if (expire == CacheExpire.FOREVER && keyValueMap.size() <= batchSize) {
+                client.mset(toByteArray(keyValueMap, serializer));
+                return;
+            }
+
+            // 全部批次在同一个管道中发送, 只等待一次往返
+            Pipeline pipeline = client.pipelined();
+            for (Map<String, Object> chunk : split(keyValueMap)) {
+                byte[][] kvs = toByteArray(chunk, serializer);
+                if (expire == CacheExpire.FOREVER) {
+                    pipeline.mset(kvs);
+                } else {
+                    for (int i = 0; i < kvs.length; i += 2) {
+                        pipeline.psetex(kvs[i], expire, kvs[i + 1]);
+                    }
+                }
+            }
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * 批量写入, 每个key使用各自的失效时长
+     * 按批次拆分, 全部批次的写入与过期设置在同一个管道中完成
+     *
+     * @param keyValueMap 缓存的对象
+     * @param expireMap   key对应的失效时长(毫秒), 未指定或为 {@link CacheExpire#FOREVER} 时永不过期
+     */
+    public void write(Map<String, Object> keyValueMap, Map<String, Long> expireMap) {
+        if (keyValueMap.isEmpty()) {
+            return;
+        }
+        try (Jedis client = jedisPool.getResource()) {
+            Pipeline pipeline = client.pipelined();
+            for (Map<String, Object> chunk : split(keyValueMap)) {
+                byte[][] kvs = toByteArray(chunk, serializer);
+                int index = 0;
+                for (String key : chunk.keySet()) {
+                    long expire = expireMap.getOrDefault(key, (long) CacheExpire.FOREVER);
+                    if (expire == CacheExpire.FOREVER) {
+                        pipeline.set(kvs[index], kvs[index + 1]);
+                    } else {
+                        pipeline.psetex(kvs[index], expire, kvs[index + 1]);
+                    }
+                    index += 2;
                 }
-                pipeline.sync();
             }
+            pipeline.sync();
+        }
+    }
+
+    private List<Map<String, Object>> split(Map<String, Object> keyValueMap) {
+        if (keyValueMap.size() <= batchSize) {
+            return Collections.singletonList(keyValueMap);
+        }
+        List<Map<String, Object>> chunks = new ArrayList<>(keyValueMap.size() / batchSize + 1);
+        Map<String, Object> chunk = new LinkedHashMap<>(batchSize * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
+            if (chunk.size() >= batchSize) {
+                chunks.add(chunk);
+                chunk = new LinkedHashMap<>(batchSize * 4 / 3 + 1);
+            }
+            chunk.put(entry.getKey(), entry.getValue());
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    @Override
+    public long ttl(String key) {
+        try (Jedis client = jedisPool.getResource()) {
+            return toTtl(client.pttl(key.getBytes()));
+        }
+    }
+
+    @Override
+    public Map<String, Long> ttl(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try (Jedis client = jedisPool.getResource()) {
+            Pipeline pipeline = client.pipelined();
+            Map<String, Response<Long>> responses = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+            for (String key : keys) {
+                responses.put(key, pipeline.pttl(key.getBytes()));
+            }
+            pipeline.sync();
+
+            Map<String, Long> result = new HashMap<>(keys.size());
+            responses.forEach((key, response) -> result.put(key, toTtl(response.get())));
+            return result;
         }
     }
 
@@ -28,11 +28,20 @@ import org.aoju.bus.cache.CacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.toolkit.CollKit;
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.JedisClusterCRC16;
 
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 /**
  * Redis 集群缓存支持
@@ -43,27 +52,60 @@ import java.util.*;
  */
 public class RedisClusterCache implements CacheX {
 
+    private static final int SLOT_COUNT = 16384;
+
+    /**
+     * 两次节点发现之间的最小间隔(纳秒)
+     */
+    private static final long DISCOVER_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 节点发现连续失败时的最大退避间隔(纳秒)
+     */
+    private static final long DISCOVER_MAX_BACKOFF = TimeUnit.SECONDS.toNanos(30);
+
     private BaseSerializer serializer;
 
     private JedisCluster jedisCluster;
 
+    private int batchSize;
+
+    /**
+     * slot -> 节点连接池, 用于按节点分组批量读写; 为空时回退为逐个key访问
+     */
+    private volatile JedisPool[] slots;
+
+    /**
+     * 允许下一次节点发现的时间({@link System#nanoTime()}), 之前的批量调用回退为逐个key访问
+     */
+    private volatile long discoverAt = System.nanoTime();
+
+    /**
+     * 节点发现连续失败的次数, 仅在持有本对象锁时访问
+     */
+    private int discoverFailures;
+
     public RedisClusterCache(JedisCluster jedisCluster) {
         this(jedisCluster, new Hessian2Serializer());
     }
 
     public RedisClusterCache(JedisCluster jedisCluster, BaseSerializer serializer) {
+        this(jedisCluster, serializer, RedisCache.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param jedisCluster 集群客户端
+     * @param serializer   序列化
+     * @param batchSize    批量读写时每个管道包含的key数量上限
+     */
+    public RedisClusterCache(JedisCluster jedisCluster, BaseSerializer serializer, int batchSize) {
         this.jedisCluster = jedisCluster;
         this.serializer = serializer;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     static byte[][] toByteArray(Map<String, Object> keyValueMap, BaseSerializer serializer) {
-        byte[][] kvs = new byte[keyValueMap.size() * 2][];
-        int index = 0;
-        for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
-            kvs[index++] = entry.getKey().getBytes();
-            kvs[index++] = serializer.serialize(entry.getValue());
-        }
-        return kvs;
+        return RedisCache.toByteArray(keyValueMap, serializer);
     }
 
     static byte[][] toByteArray(Collection<String> keys) {
@@ -106,8 +148,40 @@ public class RedisClusterCache implements CacheX {
             return Collections.emptyMap();
         }
 
-        List<byte[]> bytesValues = jedisCluster.mget(toByteArray(keys));
-        return toObjectMap(keys, bytesValues, this.serializer);
+        Map<String, Object> result = new HashMap<>(keys.size());
+        boolean redirected = false;
+        // 按节点分组, 每个节点每批次一个管道
+        for (Map.Entry<JedisPool, List<String>> group : groupByNode(keys).entrySet()) {
+            for (List<String> chunk : CollKit.split(group.getValue(), batchSize)) {
+                List<Object> replies = null;
+                if (group.getKey() != null) {
+                    try (Jedis jedis = group.getKey().getResource()) {
+                        Pipeline pipeline = jedis.pipelined();
+                        for (String key : chunk) {
+                            pipeline.get(key.getBytes());
+                        }
+                        replies = pipeline.syncAndReturnAll();
+                    } catch (JedisException e) {
+                        redirected = true;
+                    }
+                }
+                for (int i = 0; i < chunk.size(); ++i) {
+                    String key = chunk.get(i);
+                    Object reply = replies == null ? null : replies.get(i);
+                    if (replies == null || reply instanceof Throwable) {
+                        // 槽位迁移或节点不可用, 由集群客户端处理重定向
+                        redirected |= replies != null;
+                        result.put(key, read(key));
+                    } else {
+                        result.put(key, serializer.deserialize((byte[]) reply));
+                    }
+                }
+            }
+        }
+        if (redirected) {
+            this.slots = null;
+        }
+        return result;
     }
 
     @Override
@@ -115,14 +189,133 @@ public class RedisClusterCache implements CacheX {
         if (keyValueMap.isEmpty()) {
             return;
         }
+        write(keyValueMap, key -> expire);
+    }
 
-        if (expire == CacheExpire.FOREVER) {
-            jedisCluster.mset(toByteArray(keyValueMap, this.serializer));
-        } else {
-            for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
-                write(entry.getKey(), entry.getValue(), expire);
+    /**
+     * 批量写入, 每个key使用各自的失效时长
+     * 按节点分组并按批次拆分, 每批次的写入与过期设置在同一个管道中完成
+     *
+     * @param keyValueMap 缓存的对象
+     * @param expireMap   key对应的失效时长(毫秒), 未指定或为 {@link CacheExpire#FOREVER} 时永不过期
+     */
+    public void write(Map<String, Object> keyValueMap, Map<String, Long> expireMap) {
+        if (keyValueMap.isEmpty()) {
+            return;
+        }
+        write(keyValueMap, key -> expireMap.getOrDefault(key, (long) CacheExpire.FOREVER));
+    }
+
+    private void write(Map<String, Object> keyValueMap, ToLongFunction<String> expireFunction) {
+        boolean redirected = false;
+        for (Map.Entry<JedisPool, List<String>> group : groupByNode(keyValueMap.keySet()).entrySet()) {
+            for (List<String> chunk : CollKit.split(group.getValue(), batchSize)) {
+                Map<String, Object> chunkMap = new LinkedHashMap<>(chunk.size() * 4 / 3 + 1);
+                for (String key : chunk) {
+                    chunkMap.put(key, keyValueMap.get(key));
+                }
+                byte[][] kvs = toByteArray(chunkMap, this.serializer);
+
+                List<Object> replies = null;
+                if (group.getKey() != null) {
+                    try (Jedis jedis = group.getKey().getResource()) {
+                        Pipeline pipeline = jedis.pipelined();
+                        for (int i = 0; i < kvs.length; i += 2) {
+                            long expire = expireFunction.applyAsLong(chunk.get(i / 2));
+                            if (expire == CacheExpire.FOREVER) {
+                                pipeline.set(kvs[i], kvs[i + 1]);
+                            } else {
+                                pipeline.psetex(kvs[i], expire, kvs[i + 1]);
+                            }
+                        }
+                        replies = pipeline.syncAndReturnAll();
+                    } catch (JedisException e) {
+                        redirected = true;
+                    }
+                }
+                for (int i = 0; i < chunk.size(); ++i) {
+                    if (replies == null || replies.get(i) instanceof Throwable) {
+                        redirected |= replies != null;
+                        String key = chunk.get(i);
+                        write(key, keyValueMap.get(key), expireFunction.applyAsLong(key));
+                    }
+                }
             }
         }
+        if (redirected) {
+            this.slots = null;
+        }
+    }
+
+    /**
+     * 按key所在的节点分组, 无法确定节点的key归入 {@code null} 分组
+     */
+    private Map<JedisPool, List<String>> groupByNode(Collection<String> keys) {
+        JedisPool[] table = getSlots();
+        Map<JedisPool, List<String>> groups = new HashMap<>();
+        for (String key : keys) {
+            JedisPool pool = table == null ? null : table[JedisClusterCRC16.getSlot(key)];
+            groups.computeIfAbsent(pool, (k) -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    /**
+     * 获取 slot -> 节点 映射, 需要时重新发现
+     * 发现成功后至少间隔 {@link #DISCOVER_INTERVAL} 才会因重定向再次发现, 失败时按次数指数退避,
+     * 避免节点故障期间每次批量调用都连接所有节点; 期间返回 {@code null}, 批量调用回退为逐个key访问
+     */
+    private JedisPool[] getSlots() {
+        JedisPool[] table = this.slots;
+        if (table != null || System.nanoTime() - discoverAt < 0) {
+            return table;
+        }
+        synchronized (this) {
+            table = this.slots;
+            if (table != null || System.nanoTime() - discoverAt < 0) {
+                return table;
+            }
+            table = discoverSlots();
+            if (table == null) {
+                long backoff = DISCOVER_INTERVAL << Math.min(discoverFailures++, 5);
+                discoverAt = System.nanoTime() + Math.min(backoff, DISCOVER_MAX_BACKOFF);
+            } else {
+                discoverFailures = 0;
+                discoverAt = System.nanoTime() + DISCOVER_INTERVAL;
+            }
+            this.slots = table;
+        }
+        return table;
+    }
+
+    /**
+     * 通过 CLUSTER SLOTS 构建 slot -> 主节点连接池 映射
+     */
+    private JedisPool[] discoverSlots() {
+        Map<String, JedisPool> nodes = jedisCluster.getClusterNodes();
+        for (JedisPool node : nodes.values()) {
+            try (Jedis jedis = node.getResource()) {
+                JedisPool[] table = new JedisPool[SLOT_COUNT];
+                for (Object slotInfo : jedis.clusterSlots()) {
+                    List<Object> info = (List<Object>) slotInfo;
+                    List<Object> master = (List<Object>) info.get(2);
+                    String host = new String((byte[]) master.get(0));
+                    JedisPool pool = nodes.get(host + Symbol.C_COLON + master.get(1));
+                    for (int slot = ((Long) info.get(0)).intValue(); slot <= ((Long) info.get(1)).intValue(); ++slot) {
+                        table[slot] = pool;
+                    }
+                }
+                return table;
+            } catch (JedisException e) {
+                // 节点不可用, 尝试下一个节点
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long ttl(String key) {
+        return RedisCache.toTtl(jedisCluster.pttl(key));
     }
 
     @Override
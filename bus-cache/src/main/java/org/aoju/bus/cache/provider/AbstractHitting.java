@@ -25,16 +25,23 @@
 package org.aoju.bus.cache.provider;
 
 import org.aoju.bus.cache.Hitting;
-import org.aoju.bus.cache.magic.CachePair;
 import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.logger.Logger;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.yaml.snakeyaml.Yaml;
 
 import javax.annotation.PreDestroy;
 import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
@@ -42,13 +49,26 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * 命中率统计先累加在内存中的分段计数器, 由后台线程按固定间隔
+ * 将增量快照在一个事务中批量写入数据库, 写入失败时事务回滚, 增量回补到计数器等待下次写入
+ *
  * @author Kimi Liu
  * @version 6.0.6
  * @since JDK 1.8+
  */
 public abstract class AbstractHitting implements Hitting {
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    /**
+     * 默认写入间隔(毫秒)
+     */
+    private static final long DEFAULT_INTERVAL = 5000;
+
+    /**
+     * 内存中最多保留的分组数量
+     */
+    private static final int MAX_PATTERNS = 4096;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r);
         thread.setName("cache:db-writer");
         thread.setDaemon(true);
@@ -57,11 +77,11 @@ public abstract class AbstractHitting implements Hitting {
 
     private static final Lock lock = new ReentrantLock();
 
-    private volatile boolean isShutdown = false;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
 
-    private BlockingQueue<CachePair<String, Integer>> hitQueue = new LinkedTransferQueue<>();
+    private final LongAdder dropped = new LongAdder();
 
-    private BlockingQueue<CachePair<String, Integer>> requireQueue = new LinkedTransferQueue<>();
+    private final ScheduledFuture<?> flushTask;
 
     private JdbcOperations jdbcOperations;
 
@@ -72,12 +92,9 @@ public abstract class AbstractHitting implements Hitting {
         this.sqls = new Yaml().loadAs(resource, Properties.class);
 
         this.jdbcOperations = jdbcOperationsSupplier(context).get();
-        executor.submit(() -> {
-            while (!isShutdown) {
-                dumpToDB(hitQueue, "hit_count");
-                dumpToDB(requireQueue, "require_count");
-            }
-        });
+
+        long interval = context.containsKey("interval") ? Long.parseLong(String.valueOf(context.get("interval"))) : DEFAULT_INTERVAL;
+        this.flushTask = executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     public AbstractHitting(String url, String username, String password) {
@@ -117,33 +134,30 @@ public abstract class AbstractHitting implements Hitting {
      */
     protected abstract Stream<DataDO> transferResults(List<Map<String, Object>> map);
 
-    private void dumpToDB(BlockingQueue<CachePair<String, Integer>> queue, String column) {
-        long times = 0;
-        CachePair<String, Integer> head;
-
-        // gather queue's all or before 100 data to a Map
-        Map<String, AtomicLong> holdMap = new HashMap<>();
-        while ((head = queue.poll()) != null && times <= 100) {
-            holdMap
-                    .computeIfAbsent(head.getLeft(), (key) -> new AtomicLong(0L))
-                    .addAndGet(head.getRight());
-            ++times;
-        }
-
-        // batch write to DB
-        holdMap.forEach((pattern, count) -> countAddCas(column, pattern, count.get()));
-    }
-
     @Override
     public void hitIncr(String pattern, int count) {
-        if (count != 0)
-            hitQueue.add(CachePair.of(pattern, count));
+        if (count != 0) {
+            Counter counter = counter(pattern);
+            if (null != counter) {
+                counter.hit.add(count);
+                if (counter.retired) {
+                    drain(pattern, counter);
+                }
+            }
+        }
     }
 
     @Override
     public void reqIncr(String pattern, int count) {
-        if (count != 0)
-            requireQueue.add(CachePair.of(pattern, count));
+        if (count != 0) {
+            Counter counter = counter(pattern);
+            if (null != counter) {
+                counter.require.add(count);
+                if (counter.retired) {
+                    drain(pattern, counter);
+                }
+            }
+        }
     }
 
     @Override
@@ -164,6 +178,17 @@ public abstract class AbstractHitting implements Hitting {
                 LinkedHashMap::new
         ));
 
+        // merge counts not yet written to DB
+        counters.forEach((pattern, counter) -> {
+            long hit = counter.hit.sum();
+            long require = counter.require.sum();
+            if (hit != 0 || require != 0) {
+                statisticsHit.addAndGet(hit);
+                statisticsRequired.addAndGet(require);
+                result.merge(pattern, Hitting.HittingDO.newInstance(hit, require), Hitting.HittingDO::mergeShootingDO);
+            }
+        });
+
         // gather application all pattern's hit rate
         result.put(summaryName(), Hitting.HittingDO.newInstance(statisticsHit.get(), statisticsRequired.get()));
 
@@ -172,81 +197,214 @@ public abstract class AbstractHitting implements Hitting {
 
     @Override
     public void reset(String pattern) {
+        counters.remove(pattern);
         jdbcOperations.update(sqls.getProperty("delete"), pattern);
     }
 
     @Override
     public void resetAll() {
+        counters.clear();
         jdbcOperations.update(sqls.getProperty("truncate"));
     }
 
-    private void countAddCas(String column, String pattern, long count) {
-        Optional<DataDO> dataOptional = queryObject(pattern);
+    /**
+     * @return 因分组数量超限而丢弃的计数次数
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
 
-        // if has pattern record, update it.
-        if (dataOptional.isPresent()) {
-            DataDO dataDO = dataOptional.get();
-            while (update(column, pattern, getObjectCount(dataDO, column, count), dataDO.version) <= 0) {
-                dataDO = queryObject(pattern).get();
-            }
-        } else {
-            lock.lock();
-            try {
-                // double check
-                dataOptional = queryObject(pattern);
-                if (dataOptional.isPresent()) {
-                    update(column, pattern, count, dataOptional.get().version);
-                } else {
-                    insert(column, pattern, count);
-                }
-            } finally {
-                lock.unlock();
+    private Counter counter(String pattern) {
+        Counter counter = counters.get(pattern);
+        if (null == counter) {
+            if (counters.size() >= MAX_PATTERNS) {
+                dropped.increment();
+                return null;
             }
+            counter = counters.computeIfAbsent(pattern, (key) -> new Counter());
         }
+        return counter;
     }
 
-    private Optional<DataDO> queryObject(String pattern) {
-        String selectSql = sqls.getProperty("select");
-        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectSql, pattern);
+    /**
+     * 取走计数器当前的累计值
+     * 不使用 {@link LongAdder#sumThenReset()}: 其求和与清零之间并发累加的增量会丢失,
+     * 这里只减去已读取的部分, 之后的增量留在计数器中
+     *
+     * @param adder 计数器
+     * @return 取走的值
+     */
+    private static long take(LongAdder adder) {
+        long value = adder.sum();
+        if (value != 0) {
+            adder.add(-value);
+        }
+        return value;
+    }
 
-        return transferResults(mapResults).findFirst();
+    /**
+     * 将已从表中移除的计数器上残留的增量转入当前计数器
+     *
+     * @param pattern 分组
+     * @param retired 已移除的计数器
+     */
+    private void drain(String pattern, Counter retired) {
+        long hit = take(retired.hit);
+        long require = take(retired.require);
+        if (hit != 0 || require != 0) {
+            Counter counter = counter(pattern);
+            if (null != counter) {
+                counter.hit.add(hit);
+                counter.require.add(require);
+            }
+        }
     }
 
-    private List<DataDO> queryAll() {
-        String selectAllQuery = sqls.getProperty("select_all");
-        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectAllQuery);
+    /**
+     * 将计数器增量快照批量写入数据库
+     * 写入成功后移除已写入的计数器, 避免内存中保留所有出现过的分组
+     */
+    private void flush() {
+        List<Object[]> increments = new ArrayList<>();
+        Map<String, Counter> flushed = new HashMap<>();
+        counters.forEach((pattern, counter) -> {
+            long hit = take(counter.hit);
+            long require = take(counter.require);
+            if (hit != 0 || require != 0) {
+                increments.add(new Object[]{hit, require, pattern});
+            }
+            flushed.put(pattern, counter);
+        });
 
-        return transferResults(mapResults).collect(Collectors.toList());
+        if (false == increments.isEmpty()) {
+            try {
+                upsert(increments);
+            } catch (Throwable e) {
+                Logger.error("flush cache hitting failed, patterns: {}", increments.size(), e);
+                // 事务已回滚, 全部增量回补到计数器, 等待下次写入
+                for (Object[] increment : increments) {
+                    Counter counter = counters.computeIfAbsent((String) increment[2], (key) -> new Counter());
+                    counter.hit.add((long) increment[0]);
+                    counter.require.add((long) increment[1]);
+                }
+                return;
+            }
+        }
+
+        flushed.forEach((pattern, counter) -> {
+            if (counters.remove(pattern, counter)) {
+                counter.retired = true;
+                // 快照之后并发写入的增量
+                drain(pattern, counter);
+            }
+        });
     }
 
-    private int insert(String column, String pattern, long count) {
-        String insertSql = String.format(sqls.getProperty("insert"), column);
+    /**
+     * 在一个事务中更新已存在的分组并插入不存在的分组
+     *
+     * @param increments 增量, 每项为 hit, require, pattern
+     */
+    private void upsert(List<Object[]> increments) {
+        lock.lock();
+        try {
+            jdbcOperations.execute((ConnectionCallback<Void>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    upsert(connection, increments);
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void upsert(Connection connection, List<Object[]> increments) throws SQLException {
+        int[] updated;
+        try (PreparedStatement statement = connection.prepareStatement(sqls.getProperty("increase"))) {
+            for (Object[] increment : increments) {
+                bind(statement, increment[0], increment[1], increment[2]);
+                statement.addBatch();
+            }
+            updated = statement.executeBatch();
+        }
+
+        List<Object[]> absents = new ArrayList<>();
+        for (int i = 0; i < increments.size(); ++i) {
+            int count = i < updated.length ? updated[i] : Statement.EXECUTE_FAILED;
+            if (count > 0) {
+                continue;
+            }
+            if (count == Statement.SUCCESS_NO_INFO) {
+                // 驱动未返回影响行数, 已执行的更新不能重复执行, 按是否存在判断
+                if (false == exists(connection, (String) increments.get(i)[2])) {
+                    absents.add(increments.get(i));
+                }
+            } else if (count == 0) {
+                absents.add(increments.get(i));
+            } else {
+                throw new SQLException("update cache hitting failed, pattern: " + increments.get(i)[2]);
+            }
+        }
+        if (absents.isEmpty()) {
+            return;
+        }
 
-        return jdbcOperations.update(insertSql, pattern, count);
+        try (PreparedStatement statement = connection.prepareStatement(sqls.getProperty("insert"))) {
+            for (Object[] increment : absents) {
+                bind(statement, increment[2], increment[0], increment[1]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
     }
 
-    private int update(String column, String pattern, long count, long version) {
-        String updateSql = String.format(sqls.getProperty("update"), column);
+    private boolean exists(Connection connection, String pattern) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sqls.getProperty("exists"))) {
+            bind(statement, pattern);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        }
+    }
 
-        return jdbcOperations.update(updateSql, count, pattern, version);
+    private static void bind(PreparedStatement statement, Object... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
     }
 
-    private long getObjectCount(DataDO data, String column, long countOffset) {
-        long lastCount = column.equals("hit_count") ? data.hitCount : data.requireCount;
+    private List<DataDO> queryAll() {
+        String selectAllQuery = sqls.getProperty("select_all");
+        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectAllQuery);
 
-        return lastCount + countOffset;
+        return transferResults(mapResults).collect(Collectors.toList());
     }
 
     @PreDestroy
     public void tearDown() {
-        while (hitQueue.size() > 0 || requireQueue.size() > 0) {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException ignored) {
-            }
-        }
+        flushTask.cancel(false);
+        flush();
+    }
+
+    private static final class Counter {
+
+        private final LongAdder hit = new LongAdder();
+
+        private final LongAdder require = new LongAdder();
 
-        isShutdown = true;
+        /**
+         * 已写入并从计数器表中移除, 之后累加到此计数器的增量需转入新计数器
+         */
+        private volatile boolean retired;
     }
 
     protected static final class DataDO {
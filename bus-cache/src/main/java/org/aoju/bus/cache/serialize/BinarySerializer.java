@@ -0,0 +1,395 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.serialize;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 二进制序列化
+ * 使用线程内复用的缓冲区写入, 常用类型(String、数值、byte[]等)直接编码,
+ * 其余类型使用JDK序列化; 仅当内容超过阈值时才压缩, 是否压缩记录在首字节中
+ * <p>
+ * 格式: [header(1)] [原始长度(varint), 仅压缩时] [内容]
+ * header 高7位为类型, 最低位为压缩标记
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class BinarySerializer extends AbstractSerializer {
+
+    /**
+     * 默认压缩阈值(字节)
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private static final int COMPRESSED = 0x01;
+
+    private static final int TYPE_OBJECT = 0;
+    private static final int TYPE_STRING = 1;
+    private static final int TYPE_INTEGER = 2;
+    private static final int TYPE_LONG = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_BOOLEAN = 5;
+    private static final int TYPE_BYTES = 6;
+
+    /**
+     * 线程内缓冲区超过此大小时使用后不再保留
+     */
+    private static final int MAX_RETAINED = 1 << 20;
+
+    private static final ThreadLocal<Output> LOCAL_OUTPUT = ThreadLocal.withInitial(Output::new);
+    private static final ThreadLocal<Output> LOCAL_SCRATCH = ThreadLocal.withInitial(Output::new);
+    private static final ThreadLocal<Deflater> LOCAL_DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<Inflater> LOCAL_INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private final int threshold;
+
+    public BinarySerializer() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold 压缩阈值(字节), 内容长度不小于该值时尝试压缩
+     */
+    public BinarySerializer(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * 类型编码,不缓存类以免持有其类加载器
+     */
+    private static int typeOf(Class<?> clazz) {
+        if (clazz == String.class) {
+            return TYPE_STRING;
+        } else if (clazz == Integer.class) {
+            return TYPE_INTEGER;
+        } else if (clazz == Long.class) {
+            return TYPE_LONG;
+        } else if (clazz == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (clazz == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (clazz == byte[].class) {
+            return TYPE_BYTES;
+        }
+        if (!Serializable.class.isAssignableFrom(clazz)) {
+            throw new InstrumentException("class [" + clazz.getName() + "] is not serializable");
+        }
+        return TYPE_OBJECT;
+    }
+
+    private static Output acquire(ThreadLocal<Output> local) {
+        Output out = local.get();
+        if (out.inUse) {
+            // 重入(如自定义writeObject中再次序列化)时使用独立缓冲区
+            out = new Output();
+        }
+        out.inUse = true;
+        out.reset();
+        return out;
+    }
+
+    private static void release(ThreadLocal<Output> local, Output out) {
+        out.inUse = false;
+        if (out.buf.length > MAX_RETAINED && local.get() == out) {
+            local.remove();
+        }
+    }
+
+    private static void writeVarInt(Output out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeLong(Output out, long value) {
+        out.ensure(8);
+        for (int i = 56; i >= 0; i -= 8) {
+            out.buf[out.count++] = (byte) (value >>> i);
+        }
+    }
+
+    private static long readLong(byte[] buf, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buf[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeString(Output out, String value) {
+        int length = value.length();
+        out.ensure(length);
+        byte[] buf = out.buf;
+        int count = out.count;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // 非ASCII内容整体按UTF-8编码
+                out.write(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buf[count++] = (byte) c;
+            out.count = count;
+        }
+    }
+
+    @Override
+    protected byte[] doSerialize(Object obj) throws Throwable {
+        Output out = acquire(LOCAL_OUTPUT);
+        try {
+            write(obj, out);
+            return out.toByteArray();
+        } finally {
+            release(LOCAL_OUTPUT, out);
+        }
+    }
+
+    @Override
+    protected Object doDeserialize(byte[] bytes) throws Throwable {
+        return deserialize(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 序列化到缓冲区, 内容追加在已有数据之后
+     *
+     * @param obj 对象
+     * @param out 缓冲区
+     */
+    private void write(Object obj, Output out) {
+        int start = out.count;
+        int type = typeOf(obj.getClass());
+        out.write(type << 1);
+        encode(obj, type, out);
+
+        int length = out.count - start - 1;
+        if (length >= threshold) {
+            compress(out, start, length);
+        }
+    }
+
+    /**
+     * 反序列化
+     *
+     * @param bytes  数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 对象
+     */
+    private Object deserialize(byte[] bytes, int offset, int length) {
+        int header = bytes[offset] & 0xFF;
+        int type = header >>> 1;
+        if ((header & COMPRESSED) == 0) {
+            return decode(type, bytes, offset + 1, length - 1);
+        }
+
+        int pos = offset + 1;
+        int size = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[pos++];
+            size |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+
+        Output scratch = acquire(LOCAL_SCRATCH);
+        Inflater inflater = LOCAL_INFLATER.get();
+        try {
+            scratch.ensure(size);
+            inflater.reset();
+            inflater.setInput(bytes, pos, offset + length - pos);
+            int inflated = 0;
+            while (inflated < size) {
+                int n = inflater.inflate(scratch.buf, inflated, size - inflated);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        throw new InstrumentException("compressed data requires a preset dictionary");
+                    }
+                    if (inflater.finished() || inflater.needsInput()) {
+                        break;
+                    }
+                }
+                inflated += n;
+            }
+            if (inflated != size) {
+                throw new InstrumentException("compressed data is truncated: expected " + size + " bytes, got " + inflated);
+            }
+            return decode(type, scratch.buf, 0, inflated);
+        } catch (DataFormatException e) {
+            throw new InstrumentException(e);
+        } finally {
+            release(LOCAL_SCRATCH, scratch);
+        }
+    }
+
+    private void encode(Object obj, int type, Output out) {
+        switch (type) {
+            case TYPE_STRING:
+                writeString(out, (String) obj);
+                break;
+            case TYPE_INTEGER:
+                int value = (Integer) obj;
+                out.ensure(4);
+                out.buf[out.count++] = (byte) (value >>> 24);
+                out.buf[out.count++] = (byte) (value >>> 16);
+                out.buf[out.count++] = (byte) (value >>> 8);
+                out.buf[out.count++] = (byte) value;
+                break;
+            case TYPE_LONG:
+                writeLong(out, (Long) obj);
+                break;
+            case TYPE_DOUBLE:
+                writeLong(out, Double.doubleToRawLongBits((Double) obj));
+                break;
+            case TYPE_BOOLEAN:
+                out.write((Boolean) obj ? 1 : 0);
+                break;
+            case TYPE_BYTES:
+                out.write((byte[]) obj);
+                break;
+            default:
+                try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+                    oos.writeObject(obj);
+                } catch (IOException e) {
+                    throw new InstrumentException(e);
+                }
+        }
+    }
+
+    private Object decode(int type, byte[] buf, int offset, int length) {
+        switch (type) {
+            case TYPE_STRING:
+                return new String(buf, offset, length, StandardCharsets.UTF_8);
+            case TYPE_INTEGER:
+                return ((buf[offset] & 0xFF) << 24) | ((buf[offset + 1] & 0xFF) << 16)
+                        | ((buf[offset + 2] & 0xFF) << 8) | (buf[offset + 3] & 0xFF);
+            case TYPE_LONG:
+                return readLong(buf, offset);
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(readLong(buf, offset));
+            case TYPE_BOOLEAN:
+                return buf[offset] != 0;
+            case TYPE_BYTES:
+                return Arrays.copyOfRange(buf, offset, offset + length);
+            default:
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(buf, offset, length))) {
+                    return ois.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new InstrumentException(e);
+                }
+        }
+    }
+
+    /**
+     * 压缩 [start + 1, start + 1 + length) 区间, 压缩后更小时替换原内容
+     */
+    private void compress(Output out, int start, int length) {
+        Output scratch = acquire(LOCAL_SCRATCH);
+        Deflater deflater = LOCAL_DEFLATER.get();
+        try {
+            deflater.reset();
+            deflater.setInput(out.buf, start + 1, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                scratch.ensure(Math.max(256, length >>> 2));
+                scratch.count += deflater.deflate(scratch.buf, scratch.count, scratch.buf.length - scratch.count);
+                if (scratch.count >= length) {
+                    // 压缩无收益
+                    return;
+                }
+            }
+
+            out.count = start + 1;
+            writeVarInt(out, length);
+            out.write(scratch.buf, 0, scratch.count);
+            out.buf[start] |= COMPRESSED;
+        } finally {
+            release(LOCAL_SCRATCH, scratch);
+        }
+    }
+
+    /**
+     * 可复用的字节缓冲区
+     */
+    private static final class Output extends OutputStream {
+
+        private byte[] buf;
+
+        private int count;
+
+        private boolean inUse;
+
+        Output() {
+            this.buf = new byte[4096];
+        }
+
+        void ensure(int more) {
+            if (count + more > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + more));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        /**
+         * 清空内容, 保留已分配的空间
+         */
+        void reset() {
+            count = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+    }
+
+}
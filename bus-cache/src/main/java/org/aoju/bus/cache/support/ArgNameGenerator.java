@@ -64,6 +64,7 @@ public class ArgNameGenerator {
             X_ARGS_PREFIX + 18,
             X_ARGS_PREFIX + 19
     };
+    private static final String[][] X_ARGS_CACHE = new String[X_ARGS.length + 1][];
     private static boolean isFirst = true;
 
     public static String[] getArgNames(Method method) {
@@ -77,6 +78,16 @@ public class ArgNameGenerator {
             return Normal.EMPTY_STRING_ARRAY;
         }
 
+        // 调用方只读, 常见长度复用同一数组
+        if (valueSize <= X_ARGS.length) {
+            String[] xArgs = X_ARGS_CACHE[valueSize];
+            if (xArgs == null) {
+                xArgs = Arrays.copyOf(X_ARGS, valueSize);
+                X_ARGS_CACHE[valueSize] = xArgs;
+            }
+            return xArgs;
+        }
+
         String[] xArgs = new String[valueSize];
         for (int i = 0; i < valueSize; ++i) {
             xArgs[i] = i < X_ARGS.length ? X_ARGS[i] : X_ARGS_PREFIX + i;
@@ -114,7 +114,9 @@ public class CacheInfoContainer {
         return builder
                 .setCache(cached.value())
                 .setPrefix(cached.prefix())
-                .setExpire(cached.expire());
+                .setExpire(cached.expire())
+                .setRefresh(cached.refresh())
+                .setStale(cached.stale());
     }
 
     private static AnnoHolder.Builder scanCachedGet(AnnoHolder.Builder builder, CachedGet cachedGet) {
@@ -0,0 +1,283 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import org.aoju.bus.core.annotation.Singleton;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存操作指标
+ * 按缓存名称与操作类型分别统计耗时分布(微秒)、批量大小分布与失败次数,
+ * 记录过程无锁, 通过 {@link #snapshot()} 获取快照
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@Singleton
+public class CacheMetrics {
+
+    private final ConcurrentMap<String, Map<Operation, Recorder>> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次操作
+     *
+     * @param cache     缓存名称
+     * @param operation 操作类型
+     * @param nanos     耗时(纳秒)
+     * @param size      涉及的key数量
+     * @param error     是否失败
+     */
+    public void record(String cache, Operation operation, long nanos, int size, boolean error) {
+        Recorder recorder = recorders.computeIfAbsent(cache, (key) -> {
+            Map<Operation, Recorder> map = new EnumMap<>(Operation.class);
+            for (Operation op : Operation.values()) {
+                map.put(op, new Recorder());
+            }
+            return map;
+        }).get(operation);
+
+        recorder.latency.record(nanos / 1000);
+        recorder.size.record(size);
+        if (error) {
+            recorder.errors.increment();
+        }
+    }
+
+    /**
+     * @return 缓存名称 -> 操作类型 -> 指标快照, 仅包含发生过的操作
+     */
+    public Map<String, Map<Operation, Snapshot>> snapshot() {
+        Map<String, Map<Operation, Snapshot>> result = new LinkedHashMap<>();
+        recorders.forEach((cache, map) -> {
+            Map<Operation, Snapshot> snapshots = new EnumMap<>(Operation.class);
+            map.forEach((operation, recorder) -> {
+                if (recorder.latency.count() > 0) {
+                    snapshots.put(operation, recorder.snapshot());
+                }
+            });
+            result.put(cache, Collections.unmodifiableMap(snapshots));
+        });
+        return result;
+    }
+
+    /**
+     * 清空所有指标
+     */
+    public void reset() {
+        recorders.clear();
+    }
+
+    public enum Operation {
+        READ_SINGLE,
+        WRITE_SINGLE,
+        READ_BATCH,
+        WRITE_BATCH,
+        REMOVE
+    }
+
+    private static final class Recorder {
+
+        private final Histogram latency = new Histogram();
+
+        private final Histogram size = new Histogram();
+
+        private final LongAdder errors = new LongAdder();
+
+        private Snapshot snapshot() {
+            return new Snapshot(latency.count(), errors.sum(),
+                    latency.mean(), latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999), latency.max(),
+                    size.mean(), size.percentile(0.99), size.max());
+        }
+    }
+
+    /**
+     * 对数线性分桶直方图, 每个2的幂区间再细分为16个子桶, 相对误差不超过 1/16
+     */
+    static final class Histogram {
+
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private static int indexOf(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+            return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int exponent = index / SUB_COUNT + SUB_BITS - 1;
+            long sub = index % SUB_COUNT;
+            return ((SUB_COUNT + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            counts.incrementAndGet(indexOf(value));
+            count.increment();
+            sum.add(value);
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        double mean() {
+            long total = count.sum();
+            return total == 0 ? 0 : (double) sum.sum() / total;
+        }
+
+        long percentile(double quantile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+
+    /**
+     * 指标快照, 耗时单位为微秒
+     */
+    public static final class Snapshot {
+
+        private final long count;
+        private final long errors;
+        private final double mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+        private final double batchMean;
+        private final long batchP99;
+        private final long batchMax;
+
+        Snapshot(long count, long errors, double mean, long p50, long p99, long p999, long max,
+                 double batchMean, long batchP99, long batchMax) {
+            this.count = count;
+            this.errors = errors;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+            this.batchMean = batchMean;
+            this.batchP99 = batchP99;
+            this.batchMax = batchMax;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getBatchMean() {
+            return batchMean;
+        }
+
+        public long getBatchP99() {
+            return batchP99;
+        }
+
+        public long getBatchMax() {
+            return batchMax;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{count=" + count + ", errors=" + errors + ", mean=" + mean + "us, p50=" + p50
+                    + "us, p99=" + p99 + "us, p999=" + p999 + "us, max=" + max + "us, batchMean=" + batchMean
+                    + ", batchP99=" + batchP99 + ", batchMax=" + batchMax + "}";
+        }
+    }
+
+}
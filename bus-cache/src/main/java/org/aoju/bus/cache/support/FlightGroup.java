@@ -0,0 +1,257 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import org.aoju.bus.core.annotation.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存未命中合并加载
+ * 同一个key在同一时刻只允许一个调用者回源加载, 其余调用者等待其结果,
+ * 避免热点key失效时大量相同请求同时穿透到数据源
+ * <p>
+ * 等待者共用加载开始时确定的截止时间; 加载失败时等待者收到同一异常;
+ * 超过截止时间仍未完成时, 等待者中只有一个接替加载, 其余继续等待接替者的结果
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@Singleton
+public class FlightGroup {
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 被合并(直接拿到他人加载结果)的加载次数
+     */
+    private final LongAdder collapsed = new LongAdder();
+
+    /**
+     * 尝试占有key的加载权, 等待者无截止时间
+     *
+     * @param key 缓存key
+     * @return 加载凭证
+     * @see #takeoff(String, long)
+     */
+    public Flight takeoff(String key) {
+        return takeoff(key, 0);
+    }
+
+    /**
+     * 尝试占有key的加载权
+     *
+     * @param key     缓存key
+     * @param timeout 等待者等待结果的超时时间,单位毫秒,自加载开始计算,小于等于0时一直等待
+     * @return 占有成功返回新的 {@link Flight}, 由调用者负责 {@link #land(String, Flight, Object)}
+     * 或 {@link #fail(String, Flight, Throwable)}; 已有加载进行中则返回该 {@link Flight} 且
+     * {@link Flight#isLeader()} 为 {@code false}, 由调用者通过 {@link #await(String, Flight, Object[])} 等待
+     */
+    public Flight takeoff(String key, long timeout) {
+        return takeover(key, null, timeout);
+    }
+
+    /**
+     * 加载完成, 唤醒等待者
+     *
+     * @param key    缓存key
+     * @param flight {@link #takeoff(String)} 返回的加载凭证
+     * @param value  加载结果
+     */
+    public void land(String key, Flight flight, Object value) {
+        flights.remove(key, flight);
+        flight.future.complete(value);
+    }
+
+    /**
+     * 加载失败, 等待者收到同一异常
+     *
+     * @param key    缓存key
+     * @param flight {@link #takeoff(String)} 返回的加载凭证
+     * @param e      异常信息
+     */
+    public void fail(String key, Flight flight, Throwable e) {
+        flights.remove(key, flight);
+        flight.future.completeExceptionally(e);
+    }
+
+    /**
+     * 等待他人的加载结果
+     * 超过截止时间时尝试接替加载: 只有一个等待者成为新的加载者, 其余等待者改为等待新的加载
+     *
+     * @param key    缓存key
+     * @param flight 等待中的加载凭证
+     * @param holder 结果容器, 成功时结果写入 {@code holder[0]}
+     * @return 拿到结果时返回 {@code null}; 超时时返回接替后的加载凭证, 调用者按其 {@link Flight#isLeader()} 加载或继续等待
+     * @throws Throwable 加载者的异常或等待被中断
+     */
+    public Flight await(String key, Flight flight, Object[] holder) throws Throwable {
+        if (flight.await(holder)) {
+            collapsed.increment();
+            return null;
+        }
+        return takeover(key, flight, flight.timeout);
+    }
+
+    /**
+     * 单key合并加载
+     *
+     * @param key     缓存key
+     * @param timeout 等待其他调用者加载结果的超时时间,单位毫秒
+     * @param loader  回源加载逻辑
+     * @return 加载结果
+     * @throws Throwable 回源异常
+     */
+    public Object execute(String key, long timeout, Loader loader) throws Throwable {
+        Flight flight = takeoff(key, timeout);
+        Object[] holder = new Object[1];
+        while (!flight.isLeader()) {
+            flight = await(key, flight, holder);
+            if (null == flight) {
+                return holder[0];
+            }
+        }
+
+        try {
+            Object value = loader.load();
+            land(key, flight, value);
+            return value;
+        } catch (Throwable e) {
+            fail(key, flight, e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return 被合并的加载次数
+     */
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    /**
+     * @return 当前正在进行的加载数量
+     */
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    /**
+     * 占有加载权, 或接替已超时的加载
+     *
+     * @param key     缓存key
+     * @param stale   已超时的加载, 为空时仅在没有加载进行中时占有
+     * @param timeout 等待者的超时时间,单位毫秒
+     * @return 加载凭证
+     */
+    private Flight takeover(String key, Flight stale, long timeout) {
+        if (null != stale && stale.future.isDone()) {
+            // 超时与加载完成同时发生, 直接取其结果
+            return stale.follower();
+        }
+        Flight created = new Flight(new CompletableFuture<>(), true, timeout);
+        while (true) {
+            Flight current = flights.get(key);
+            if (null == current) {
+                if (null == flights.putIfAbsent(key, created)) {
+                    return created;
+                }
+            } else if (null != stale && current.future == stale.future) {
+                if (flights.replace(key, current, created)) {
+                    return created;
+                }
+            } else {
+                return current.follower();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+
+    public static final class Flight {
+
+        private final CompletableFuture<Object> future;
+
+        private final boolean leader;
+
+        /**
+         * 等待者的超时时间,单位毫秒
+         */
+        private final long timeout;
+
+        /**
+         * 等待者共同的截止时间(纳秒), 为0时一直等待
+         */
+        private final long deadline;
+
+        private Flight(CompletableFuture<Object> future, boolean leader, long timeout) {
+            this(future, leader, timeout, timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0);
+        }
+
+        private Flight(CompletableFuture<Object> future, boolean leader, long timeout, long deadline) {
+            this.future = future;
+            this.leader = leader;
+            this.timeout = timeout;
+            this.deadline = deadline;
+        }
+
+        private Flight follower() {
+            return new Flight(future, false, timeout, deadline);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * 等待加载结果, 最晚到共同的截止时间
+         *
+         * @param holder 结果容器, 成功时结果写入 {@code holder[0]}
+         * @return 是否拿到结果, 超过截止时间时为 {@code false}
+         * @throws Throwable 加载者的异常或等待被中断
+         */
+        private boolean await(Object[] holder) throws Throwable {
+            try {
+                if (deadline == 0) {
+                    holder[0] = future.get();
+                } else {
+                    holder[0] = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                throw null == e.getCause() ? e : e.getCause();
+            }
+        }
+    }
+
+}
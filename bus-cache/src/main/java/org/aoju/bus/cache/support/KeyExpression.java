@@ -0,0 +1,208 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import com.google.common.base.Strings;
+import org.aoju.bus.cache.annotation.CacheKey;
+import org.aoju.bus.core.lang.Symbol;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的@CacheKey表达式
+ * 每个方法参数的表达式只解析一次; 形如 {@code #argName}、{@code #argName.field.field} 的简单表达式
+ * 直接按参数下标取值并通过缓存的访问器读取属性, 不经过SpEL; 其余表达式使用预解析的SpEL
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class KeyExpression {
+
+    private static final Pattern SIMPLE = Pattern.compile("^#([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)$");
+
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, Accessor>> accessors = new ConcurrentHashMap<>();
+
+    private static final Accessor ABSENT = target -> null;
+
+    /**
+     * 表达式
+     */
+    private final String spel;
+
+    /**
+     * 表达式为空时取值的参数下标
+     */
+    private final int argIndex;
+
+    /**
+     * 简单表达式引用的参数下标, -1 表示需要使用SpEL
+     */
+    private final int variableIndex;
+
+    /**
+     * 简单表达式的属性路径
+     */
+    private final String[] properties;
+
+    /**
+     * 参与SpEL计算的变量名(含xArg)
+     */
+    private final String[] argNames;
+
+    private KeyExpression(String spel, int argIndex, int variableIndex, String[] properties, String[] argNames) {
+        this.spel = spel;
+        this.argIndex = argIndex;
+        this.variableIndex = variableIndex;
+        this.properties = properties;
+        this.argNames = argNames;
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param argIndex 参数下标
+     * @param cacheKey 注解
+     * @param argNames 参数名, multi模式下最后一个为 {@code i}
+     * @return 编译结果
+     */
+    public static KeyExpression compile(int argIndex, CacheKey cacheKey, String[] argNames) {
+        String spel = cacheKey.value();
+        if (Strings.isNullOrEmpty(spel)) {
+            return new KeyExpression(spel, argIndex, -1, null, argNames);
+        }
+
+        // 预先解析, 后续直接使用缓存
+        SpelCalculator.parse(spel);
+
+        int variableIndex = -1;
+        String[] properties = null;
+        Matcher matcher = SIMPLE.matcher(spel);
+        if (matcher.matches()) {
+            variableIndex = indexOf(matcher.group(1), argNames);
+            String path = matcher.group(2);
+            properties = path.isEmpty() ? new String[0] : path.substring(1).split("\\" + Symbol.DOT);
+        }
+
+        return new KeyExpression(spel, argIndex, variableIndex, properties, argNames);
+    }
+
+    private static int indexOf(String name, String[] argNames) {
+        // 与SpEL一致: xArg在参数名之后注册, 同名时覆盖参数名
+        String[] xArgNames = ArgNameGenerator.getXArgNames(argNames.length);
+        for (int i = xArgNames.length - 1; i >= 0; --i) {
+            if (xArgNames[i].equals(name)) {
+                return i;
+            }
+        }
+        for (int i = argNames.length - 1; i >= 0; --i) {
+            if (argNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object read(Object target, String property) {
+        Accessor accessor = accessors
+                .computeIfAbsent(target.getClass(), (key) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(property, (key) -> resolve(target.getClass(), key));
+        if (accessor == ABSENT) {
+            throw new IllegalStateException(property);
+        }
+        try {
+            return accessor.get(target);
+        } catch (Exception e) {
+            throw new IllegalStateException(property, e);
+        }
+    }
+
+    private static Accessor resolve(Class<?> clazz, String property) {
+        if (Map.class.isAssignableFrom(clazz)) {
+            return ABSENT;
+        }
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+            try {
+                Method method = clazz.getMethod(name);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+                    method.setAccessible(true);
+                    return method::invoke;
+                }
+            } catch (NoSuchMethodException | SecurityException ignored) {
+                // try next
+            }
+        }
+        try {
+            Field field = clazz.getField(property);
+            if (!Modifier.isStatic(field.getModifiers())) {
+                return field::get;
+            }
+        } catch (NoSuchFieldException | SecurityException ignored) {
+            // not found
+        }
+        return ABSENT;
+    }
+
+    /**
+     * 计算key片段
+     *
+     * @param argValues 参数值, multi模式下最后一个为 {@code #i} 的值
+     * @return key片段
+     */
+    public Object evaluate(Object[] argValues) {
+        if (Strings.isNullOrEmpty(spel)) {
+            return argValues[argIndex];
+        }
+        if (variableIndex >= 0) {
+            try {
+                Object value = argValues[variableIndex];
+                for (String property : properties) {
+                    if (null == value) {
+                        throw new IllegalStateException(property);
+                    }
+                    value = read(value, property);
+                }
+                return value;
+            } catch (IllegalStateException e) {
+                // 无法直接取值的情况交由SpEL处理, 保持原有的计算结果与异常信息
+            }
+        }
+        return SpelCalculator.calcSpelValueWithContext(spel, argNames, argValues, argValues[argIndex]);
+    }
+
+    @FunctionalInterface
+    private interface Accessor {
+        Object get(Object target) throws Exception;
+    }
+
+}
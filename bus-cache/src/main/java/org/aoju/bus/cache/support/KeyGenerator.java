@@ -27,7 +27,10 @@ package org.aoju.bus.cache.support;
 import org.aoju.bus.cache.annotation.CacheKey;
 import org.aoju.bus.cache.magic.AnnoHolder;
 
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -37,12 +40,14 @@ import java.util.stream.Collectors;
  */
 public class KeyGenerator {
 
+    // 每个方法的@CacheKey表达式只编译一次
+    private static final ConcurrentMap<Method, KeyExpression[]> expressions = new ConcurrentHashMap<>();
+
     public static String generateSingleKey(AnnoHolder annoHolder, Object[] argValues) {
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        Map<Integer, CacheKey> cacheKeyMap = annoHolder.getCacheKeyMap();
+        KeyExpression[] keyExpressions = getExpressions(annoHolder, false);
         String prefix = annoHolder.getPrefix();
 
-        return doGenerateKey(cacheKeyMap, prefix, argNames, argValues);
+        return doGenerateKey(keyExpressions, prefix, argValues);
     }
 
     //array[]: {multiEntry2Key, key2MultiEntry}
@@ -54,25 +59,23 @@ public class KeyGenerator {
         // 准备要拼装key所需的原材料
         // 标记为multi的参数
         Collection multiArgEntries = getMultiArgEntries(argValues[annoHolder.getMultiIndex()]);
-        // 参数索引 -> CacheKey
-        Map<Integer, CacheKey> argIndex2CacheKey = annoHolder.getCacheKeyMap();
+        // 参数索引 -> 编译后的CacheKey表达式(参数名已追加`#i`遍历指令)
+        KeyExpression[] keyExpressions = getExpressions(annoHolder, true);
         // 全局prefix
         String prefix = annoHolder.getPrefix();
 
         // 开始拼装
 
-        // 根据方法获取原始的参数名
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        // 给参数名添加一个`#i`遍历指令
-        String[] appendArgNames = (String[]) appendArray(argNames, "i");
+        // 参数值数组末尾预留`#i`指令的位置, 遍历时复用
+        Object[] appendArgValues = appendArray(argValues, null);
 
         int i = 0;
         for (Object multiElement : multiArgEntries) {
 
             // 给参数值数组的`#i`指令赋值
-            Object[] appendArgValues = appendArray(argValues, i);
+            appendArgValues[argValues.length] = i;
 
-            String key = doGenerateKey(argIndex2CacheKey, prefix, appendArgNames, appendArgValues);
+            String key = doGenerateKey(keyExpressions, prefix, appendArgValues);
 
             key2MultiEntry.put(key, multiElement);
             multiEntry2Key.put(multiElement, key);
@@ -82,30 +85,38 @@ public class KeyGenerator {
         return new Map[]{multiEntry2Key, key2MultiEntry};
     }
 
-    private static String doGenerateKey(Map<Integer, CacheKey> parameterIndex2CacheKey,
-                                        String prefix, String[] argNames, Object[] argValues) {
+    private static String doGenerateKey(KeyExpression[] keyExpressions, String prefix, Object[] argValues) {
+        if (keyExpressions.length == 0) {
+            return prefix;
+        }
 
         StringBuilder sb = new StringBuilder(prefix);
-        for (Map.Entry<Integer, CacheKey> entry : parameterIndex2CacheKey.entrySet()) {
-            int argIndex = entry.getKey();
-            String argSpel = entry.getValue().value();
-
-            Object defaultValue = getDefaultValue(argValues, argIndex);
-            Object keyPart = SpelCalculator.calcSpelValueWithContext(argSpel, argNames, argValues, defaultValue);
-
-            sb.append(keyPart);
-
+        for (KeyExpression keyExpression : keyExpressions) {
+            // 当spel表达式为空(null or '')时, 默认使用参数值作为keyPart
+            // 注意: 当multi的spel表达式为空时, 这时会将整个`Collection`实例作为keyPart(当然, 这种情况不会发生)...
+            sb.append(keyExpression.evaluate(argValues));
         }
 
         return sb.toString();
     }
 
-    /**
-     * 获取当spel表达式为空(null or '')时, 默认的拼装keyPart
-     * 注意: 当multi的spel表达式为空时, 这时会将整个`Collection`实例作为keyPart(当然, 这种情况不会发生)...
-     */
-    private static Object getDefaultValue(Object[] argValues, int argIndex) {
-        return argValues[argIndex];
+    private static KeyExpression[] getExpressions(AnnoHolder annoHolder, boolean multi) {
+        return expressions.computeIfAbsent(annoHolder.getMethod(), (method) -> {
+            // 根据方法获取原始的参数名
+            String[] argNames = ArgNameGenerator.getArgNames(method);
+            if (multi) {
+                // 给参数名添加一个`#i`遍历指令
+                argNames = (String[]) appendArray(argNames, "i");
+            }
+
+            Map<Integer, CacheKey> cacheKeyMap = annoHolder.getCacheKeyMap();
+            KeyExpression[] keyExpressions = new KeyExpression[cacheKeyMap.size()];
+            int index = 0;
+            for (Map.Entry<Integer, CacheKey> entry : cacheKeyMap.entrySet()) {
+                keyExpressions[index++] = KeyExpression.compile(entry.getKey(), entry.getValue(), argNames);
+            }
+            return keyExpressions;
+        });
     }
 
     /**
@@ -0,0 +1,84 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 提前刷新缓存值包装
+ * 开启提前刷新时缓存中存放的是带逻辑过期时间的包装对象,
+ * 物理过期时间为逻辑过期时间加上容忍旧值的宽限期
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class RefreshObjects {
+
+    public static Object wrap(Object value, long expireAt) {
+        return new RefreshObj(value, expireAt);
+    }
+
+    public static boolean isRefresh(Object object) {
+        return object instanceof RefreshObj;
+    }
+
+    public static Object unwrap(Object object) {
+        return isRefresh(object) ? ((RefreshObj) object).value : object;
+    }
+
+    /**
+     * @param object 包装对象
+     * @return 逻辑过期时间, 非包装对象返回 {@link Long#MAX_VALUE}
+     */
+    public static long getExpireAt(Object object) {
+        return isRefresh(object) ? ((RefreshObj) object).expireAt : Long.MAX_VALUE;
+    }
+
+    /**
+     * 原地解开Map中所有的包装对象
+     *
+     * @param keyValueMap 缓存读取结果
+     */
+    public static void unwrapAll(Map<String, Object> keyValueMap) {
+        keyValueMap.replaceAll((key, value) -> unwrap(value));
+    }
+
+    private static final class RefreshObj implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Object value;
+
+        private long expireAt;
+
+        private RefreshObj(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
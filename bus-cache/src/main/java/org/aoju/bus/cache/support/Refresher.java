@@ -0,0 +1,105 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import org.aoju.bus.cache.Context;
+import org.aoju.bus.core.annotation.Inject;
+import org.aoju.bus.core.annotation.Singleton;
+import org.aoju.bus.logger.Logger;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存异步刷新
+ * 在有界线程池中执行刷新任务, 同一key同一时刻只会有一个刷新任务,
+ * 队列已满时直接丢弃, 由后续请求再次触发
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+@Singleton
+public class Refresher {
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Inject
+    private Context config;
+
+    private volatile ExecutorService executor;
+
+    /**
+     * 提交刷新任务
+     *
+     * @param key    缓存key
+     * @param loader 回源并写入缓存的逻辑
+     * @return 是否成功提交, 已有相同key的刷新任务或队列已满时返回 {@code false}
+     */
+    public boolean refresh(String key, FlightGroup.Loader loader) {
+        if (!refreshing.add(key)) {
+            return false;
+        }
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    loader.load();
+                } catch (Throwable e) {
+                    Logger.error("refresh cache failed, key: {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            return false;
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (null == executor) {
+            synchronized (this) {
+                if (null == executor) {
+                    int threads = Math.max(1, config.getRefreshThreads());
+                    executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, config.getRefreshQueue())),
+                            r -> {
+                                Thread thread = new Thread(r, "cache-refresh-" + threadNumber.getAndIncrement());
+                                thread.setDaemon(true);
+                                return thread;
+                            },
+                            new ThreadPoolExecutor.AbortPolicy());
+                    ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return executor;
+    }
+
+}
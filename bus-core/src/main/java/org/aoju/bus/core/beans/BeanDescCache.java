@@ -25,7 +25,7 @@
 package org.aoju.bus.core.beans;
 
 
-import org.aoju.bus.core.lang.SimpleCache;
+import org.aoju.bus.core.lang.ClassValueCache;
 
 /**
  * Bean属性缓存
@@ -39,7 +39,7 @@ public enum BeanDescCache {
 
     INSTANCE;
 
-    private SimpleCache<Class<?>, BeanDesc> bdCache = new SimpleCache<>();
+    private final ClassValueCache<BeanDesc> bdCache = new ClassValueCache<>();
 
     /**
      * 获得属性名和{@link BeanDesc}Map映射
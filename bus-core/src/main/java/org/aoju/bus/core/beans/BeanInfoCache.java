@@ -24,7 +24,7 @@
  ********************************************************************************/
 package org.aoju.bus.core.beans;
 
-import org.aoju.bus.core.lang.SimpleCache;
+import org.aoju.bus.core.lang.ClassValueCache;
 
 import java.beans.PropertyDescriptor;
 import java.util.Map;
@@ -41,8 +41,8 @@ public enum BeanInfoCache {
 
     INSTANCE;
 
-    private SimpleCache<Class<?>, Map<String, PropertyDescriptor>> pdCache = new SimpleCache<>();
-    private SimpleCache<Class<?>, Map<String, PropertyDescriptor>> ignoreCasePdCache = new SimpleCache<>();
+    private final ClassValueCache<Map<String, PropertyDescriptor>> pdCache = new ClassValueCache<>();
+    private final ClassValueCache<Map<String, PropertyDescriptor>> ignoreCasePdCache = new ClassValueCache<>();
 
     /**
      * 获得属性名和{@link PropertyDescriptor}Map映射
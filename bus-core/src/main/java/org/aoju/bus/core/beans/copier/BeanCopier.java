@@ -122,6 +122,35 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         return ObjectKit.defaultIfNull(mapping.get(fieldName), fieldName);
     }
 
+    /**
+     * 获取注入值的类型,泛型参数解析为目标泛型类型中的真实类型
+     *
+     * @param field        字段
+     * @param setterMethod Setter方法,null表示直接注入字段
+     * @param destType     目标的泛型类型
+     * @return 值类型
+     */
+    static Type getValueType(Field field, Method setterMethod, Type destType) {
+        Type valueType = (null == setterMethod) ? TypeKit.getType(field) : TypeKit.getFirstParamType(setterMethod);
+        if (valueType instanceof ParameterizedType) {
+            // 参数为泛型参数类型，解析对应泛型类型为真实类型
+            ParameterizedType tmp = (ParameterizedType) valueType;
+            Type[] actualTypeArguments = tmp.getActualTypeArguments();
+            if (TypeKit.hasTypeVeriable(actualTypeArguments)) {
+                // 泛型对象中含有未被转换的泛型变量
+                actualTypeArguments = TypeKit.getActualTypes(destType, field.getDeclaringClass(), tmp.getActualTypeArguments());
+                if (ArrayKit.isNotEmpty(actualTypeArguments)) {
+                    // 替换泛型变量为实际类型
+                    valueType = new Typed(actualTypeArguments, tmp.getOwnerType(), tmp.getRawType());
+                }
+            }
+        } else if (valueType instanceof TypeVariable) {
+            // 参数为泛型，查找其真实类型(适用于泛型方法定义于泛型父类)
+            valueType = TypeKit.getActualType(destType, field.getDeclaringClass(), valueType);
+        }
+        return valueType;
+    }
+
     @Override
     public T copy() {
         if (null != this.source) {
@@ -152,6 +181,11 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param destBean     目标Bean
      */
     private void beanToBean(Object providerBean, Object destBean) {
+        final CopyPlan plan = CopyPlan.toBean(providerBean.getClass(), editable(destBean), this.destType, this.copyOptions);
+        if (null != plan) {
+            plan.beanToBean(providerBean, destBean, this.copyOptions);
+            return;
+        }
         valueProviderToBean(new BeanValueProvider(providerBean, this.copyOptions.ignoreCase, this.copyOptions.ignoreError), destBean);
     }
 
@@ -162,6 +196,11 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param bean Bean
      */
     private void mapToBean(Map<?, ?> map, Object bean) {
+        final CopyPlan plan = CopyPlan.toBean(Map.class, editable(bean), this.destType, this.copyOptions);
+        if (null != plan) {
+            plan.mapToBean(map, bean, this.copyOptions);
+            return;
+        }
         valueProviderToBean(
                 new MapValueProvider(map, this.copyOptions.ignoreCase, this.copyOptions.ignoreError),
                 bean
@@ -187,6 +226,12 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param targetMap 目标的Map
      */
     private void beanToMap(Object bean, Map targetMap) {
+        final CopyPlan plan = CopyPlan.toMap(bean.getClass(), this.copyOptions);
+        if (null != plan) {
+            plan.beanToMap(bean, targetMap, this.copyOptions);
+            return;
+        }
+
         final Collection<BeanDesc.PropDesc> props = BeanKit.getBeanDesc(bean.getClass()).getProps();
         final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
         final CopyOptions copyOptions = this.copyOptions;
@@ -225,6 +270,24 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         }
     }
 
+    /**
+     * 获取拷贝属性的限制类,未指定时为目标Bean的类型
+     *
+     * @param bean 目标Bean
+     * @return 限制类
+     */
+    private Class<?> editable(Object bean) {
+        final Class<?> editable = this.copyOptions.editable;
+        if (null == editable) {
+            return bean.getClass();
+        }
+        // 检查限制类是否为target的父类或接口
+        if (false == editable.isInstance(bean)) {
+            throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), editable.getName()));
+        }
+        return editable;
+    }
+
     /**
      * 值提供器转Bean
      *
@@ -237,14 +300,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         }
 
         final CopyOptions copyOptions = this.copyOptions;
-        Class<?> actualEditable = bean.getClass();
-        if (null != copyOptions.editable) {
-            // 检查限制类是否为target的父类或接口
-            if (false == copyOptions.editable.isInstance(bean)) {
-                throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), copyOptions.editable.getName()));
-            }
-            actualEditable = copyOptions.editable;
-        }
+        final Class<?> actualEditable = editable(bean);
         final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
         final Map<String, String> fieldReverseMapping = copyOptions.getReversedMapping();
 
@@ -274,24 +330,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
                 continue;
             }
 
-            Type valueType = (null == setterMethod) ? TypeKit.getType(field) : TypeKit.getFirstParamType(setterMethod);
-            if (valueType instanceof ParameterizedType) {
-                // 参数为泛型参数类型，解析对应泛型类型为真实类型
-                ParameterizedType tmp = (ParameterizedType) valueType;
-                Type[] actualTypeArguments = tmp.getActualTypeArguments();
-                if (TypeKit.hasTypeVeriable(actualTypeArguments)) {
-                    // 泛型对象中含有未被转换的泛型变量
-                    actualTypeArguments = TypeKit.getActualTypes(this.destType, field.getDeclaringClass(), tmp.getActualTypeArguments());
-                    if (ArrayKit.isNotEmpty(actualTypeArguments)) {
-                        // 替换泛型变量为实际类型
-                        valueType = new Typed(actualTypeArguments, tmp.getOwnerType(), tmp.getRawType());
-                    }
-                }
-            } else if (valueType instanceof TypeVariable) {
-                // 参数为泛型，查找其真实类型(适用于泛型方法定义于泛型父类)
-                valueType = TypeKit.getActualType(this.destType, field.getDeclaringClass(), valueType);
-            }
-
+            final Type valueType = getValueType(field, setterMethod, this.destType);
             value = valueProvider.value(providerKey, valueType);
             if (null == value && copyOptions.ignoreNullValue) {
                 continue;// 当允许跳过空时，跳过
@@ -66,6 +66,10 @@ public class CopyOptions {
      * 拷贝属性的字段映射,用于不同的属性之前拷贝做对应表用
      */
     protected Map<String, String> fieldMapping;
+    /**
+     * 拷贝计划使用的选项快照,通过setter修改选项时重置
+     */
+    private transient volatile CopyPlan.Spec planSpec;
 
     /**
      * 构造拷贝选项
@@ -137,6 +141,7 @@ public class CopyOptions {
      */
     public CopyOptions setIgnoreProperties(String... ignoreProperties) {
         this.ignoreProperties = ignoreProperties;
+        this.planSpec = null;
         return this;
     }
 
@@ -159,6 +164,7 @@ public class CopyOptions {
      */
     public CopyOptions setIgnoreCase(boolean ignoreCase) {
         this.ignoreCase = ignoreCase;
+        this.planSpec = null;
         return this;
     }
 
@@ -170,9 +176,25 @@ public class CopyOptions {
      */
     public CopyOptions setFieldMapping(Map<String, String> fieldMapping) {
         this.fieldMapping = fieldMapping;
+        this.planSpec = null;
         return this;
     }
 
+    /**
+     * 获取拷贝计划使用的选项快照,首次使用时生成
+     * 设置后又直接修改字段映射的内容,不会反映到快照中
+     *
+     * @return 选项快照
+     */
+    CopyPlan.Spec planSpec() {
+        CopyPlan.Spec spec = this.planSpec;
+        if (null == spec) {
+            spec = new CopyPlan.Spec(this);
+            this.planSpec = spec;
+        }
+        return spec;
+    }
+
     /**
      * 获取反转之后的映射
      *
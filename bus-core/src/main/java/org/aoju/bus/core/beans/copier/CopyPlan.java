@@ -0,0 +1,508 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.beans.copier;
+
+import org.aoju.bus.core.beans.BeanDesc;
+import org.aoju.bus.core.convert.BasicType;
+import org.aoju.bus.core.convert.Convert;
+import org.aoju.bus.core.convert.ConverterRegistry;
+import org.aoju.bus.core.lang.ClassValueCache;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.map.CaseInsensitiveMap;
+import org.aoju.bus.core.toolkit.BeanKit;
+import org.aoju.bus.core.toolkit.ClassKit;
+import org.aoju.bus.core.toolkit.CollKit;
+import org.aoju.bus.core.toolkit.MapKit;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拷贝计划
+ * 按(来源类型,目标类型,拷贝选项)预先解析属性对应关系、泛型类型和访问器,
+ * 拷贝时只执行 getter→转换→setter 步骤,访问器使用{@link MethodHandle}
+ * 无法生成访问器时返回null,由{@link BeanCopier}使用反射拷贝
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+final class CopyPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 计划缓存,按Bean一侧的类分组,类卸载后随之回收,无法生成计划的组合以{@link #NONE}占位
+     */
+    private static final ClassValueCache<Map<Key, CopyPlan>> CACHE = new ClassValueCache<>();
+    private static final CopyPlan NONE = new CopyPlan(new Step[0]);
+
+    private final Step[] steps;
+
+    private CopyPlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * 获取Bean或Map拷贝到Bean的计划
+     *
+     * @param sourceClass 来源Bean类型,来源为Map时为{@link Map}
+     * @param editable    目标Bean类型(或限制的父类)
+     * @param destType    目标的泛型类型
+     * @param options     拷贝选项
+     * @return 拷贝计划, 无法生成时为null
+     */
+    static CopyPlan toBean(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions options) {
+        final Spec spec = options.planSpec();
+        final Memo last = spec.last;
+        if (null != last && last.matches(sourceClass, editable, destType)) {
+            return last.plan;
+        }
+        final Key key = new Key(sourceClass, editable, destType, spec);
+        final Map<Key, CopyPlan> plans = CACHE.get(editable, ConcurrentHashMap::new);
+        CopyPlan plan = plans.get(key);
+        if (null == plan) {
+            plan = plans.computeIfAbsent(key, k -> buildToBean(k, options));
+        }
+        plan = plan == NONE ? null : plan;
+        spec.last = new Memo(sourceClass, editable, destType, plan);
+        return plan;
+    }
+
+    /**
+     * 获取Bean拷贝到Map的计划
+     *
+     * @param sourceClass 来源Bean类型
+     * @param options     拷贝选项
+     * @return 拷贝计划, 无法生成时为null
+     */
+    static CopyPlan toMap(Class<?> sourceClass, CopyOptions options) {
+        final Spec spec = options.planSpec();
+        final Memo last = spec.last;
+        if (null != last && last.matches(sourceClass, Map.class, null)) {
+            return last.plan;
+        }
+        final Key key = new Key(sourceClass, Map.class, null, spec);
+        final Map<Key, CopyPlan> plans = CACHE.get(sourceClass, ConcurrentHashMap::new);
+        CopyPlan plan = plans.get(key);
+        if (null == plan) {
+            plan = plans.computeIfAbsent(key, CopyPlan::buildToMap);
+        }
+        plan = plan == NONE ? null : plan;
+        spec.last = new Memo(sourceClass, Map.class, null, plan);
+        return plan;
+    }
+
+    private static CopyPlan buildToBean(Key key, CopyOptions options) {
+        final boolean fromMap = Map.class == key.source;
+        final Map<String, BeanDesc.PropDesc> sourceProps = fromMap ? null : BeanKit.getBeanDesc(key.source).getPropMap(options.ignoreCase);
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Step> steps = new ArrayList<>();
+        try {
+            for (BeanDesc.PropDesc prop : BeanKit.getBeanDesc(key.target).getProps()) {
+                final String fieldName = prop.getFieldName();
+                if (CollKit.contains(key.ignore, fieldName)) {
+                    continue;
+                }
+                final Field field = prop.getField();
+                final Method setterMethod = prop.getSetter();
+                if (null == setterMethod && false == BeanKit.isPublic(field)) {
+                    continue;
+                }
+                final String providerKey = null == key.mapping ? fieldName : key.mapping.getOrDefault(fieldName, fieldName);
+                final Type valueType = BeanCopier.getValueType(field, setterMethod, key.destType);
+
+                final Step step;
+                if (fromMap) {
+                    step = new Step(fieldName, providerKey, StringKit.toUnderlineCase(providerKey), null);
+                } else {
+                    BeanDesc.PropDesc sourceProp = sourceProps.get(providerKey);
+                    if (null == sourceProp) {
+                        final String isKey = StringKit.upperFirstAndAddPre(providerKey, Normal.IS);
+                        if (false == sourceProps.containsKey(isKey)) {
+                            continue;
+                        }
+                        if (Boolean.class == valueType || boolean.class == valueType) {
+                            sourceProp = sourceProps.get(isKey);
+                        }
+                    }
+                    final Method getter = null == sourceProp ? null : sourceProp.getGetter();
+                    step = new Step(fieldName, providerKey, null,
+                            null == getter ? null : lookup.unreflect(getter).asType(GETTER_TYPE));
+                }
+                final Class<?> paramClass;
+                if (null == setterMethod) {
+                    paramClass = field.getType();
+                    step.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                } else {
+                    paramClass = setterMethod.getParameterTypes()[0];
+                    step.setter = lookup.unreflect(setterMethod).asType(SETTER_TYPE);
+                }
+                step.valueType = valueType;
+                step.directType = directType(valueType);
+                step.propClass = prop.getFieldClass();
+                step.paramClass = BasicType.wrap(paramClass);
+                step.paramDefault = ClassKit.getDefaultValue(paramClass);
+                steps.add(step);
+            }
+        } catch (Exception e) {
+            // 无法访问的属性交由反射处理
+            return NONE;
+        }
+        return new CopyPlan(steps.toArray(new Step[0]));
+    }
+
+    private static CopyPlan buildToMap(Key key) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Step> steps = new ArrayList<>();
+        try {
+            for (BeanDesc.PropDesc prop : BeanKit.getBeanDesc(key.source).getProps()) {
+                final String fieldName = prop.getFieldName();
+                final Method getter = prop.getGetter();
+                if (null == getter || CollKit.contains(key.ignore, fieldName)) {
+                    continue;
+                }
+                final String mapKey = null == key.mapping ? fieldName : key.mapping.getOrDefault(fieldName, fieldName);
+                steps.add(new Step(fieldName, mapKey, null, lookup.unreflect(getter).asType(GETTER_TYPE)));
+            }
+        } catch (Exception e) {
+            return NONE;
+        }
+        return new CopyPlan(steps.toArray(new Step[0]));
+    }
+
+    /**
+     * 值类型为普通类时,已是该类型的值无需经过转换器
+     *
+     * @param valueType 值类型
+     * @return 可直接使用的类型, 需要转换时为null
+     */
+    private static Class<?> directType(Type valueType) {
+        if (false == valueType instanceof Class) {
+            return null;
+        }
+        final Class<?> clazz = (Class<?>) valueType;
+        if (clazz.isArray() || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        return BasicType.wrap(clazz);
+    }
+
+    /**
+     * Bean拷贝到Bean
+     *
+     * @param source  来源Bean
+     * @param bean    目标Bean
+     * @param options 拷贝选项
+     */
+    void beanToBean(Object source, Object bean, CopyOptions options) {
+        Object value;
+        for (Step step : steps) {
+            value = null;
+            if (null != step.getter) {
+                try {
+                    value = step.getter.invokeExact(source);
+                } catch (Throwable e) {
+                    if (false == options.ignoreError) {
+                        throw new InstrumentException("Inject [{}] error!", step.key);
+                    }
+                }
+                // 尝试转换为目标类型，失败将返回原类型
+                final Object convertValue = step.convert(value, options.ignoreError);
+                if (null != convertValue) {
+                    value = convertValue;
+                }
+            }
+            step.inject(bean, value, options);
+        }
+    }
+
+    /**
+     * Map拷贝到Bean
+     *
+     * @param map     来源Map
+     * @param bean    目标Bean
+     * @param options 拷贝选项
+     */
+    void mapToBean(Map<?, ?> map, Object bean, CopyOptions options) {
+        if (options.ignoreCase && false == map instanceof CaseInsensitiveMap) {
+            map = new CaseInsensitiveMap<>(map);
+        }
+        Object value;
+        for (Step step : steps) {
+            value = map.get(step.key);
+            if (null == value) {
+                if (false == map.containsKey(step.key)) {
+                    if (false == map.containsKey(step.underlineKey)) {
+                        continue;
+                    }
+                }
+                //检查下划线模式
+                value = map.get(step.underlineKey);
+            }
+            step.inject(bean, step.convert(value, options.ignoreError), options);
+        }
+    }
+
+    /**
+     * Bean拷贝到Map
+     *
+     * @param bean      来源Bean
+     * @param targetMap 目标Map
+     * @param options   拷贝选项
+     */
+    void beanToMap(Object bean, Map<Object, Object> targetMap, CopyOptions options) {
+        Object value;
+        for (Step step : steps) {
+            try {
+                value = step.getter.invokeExact(bean);
+            } catch (Throwable e) {
+                if (options.ignoreError) {
+                    continue;// 忽略反射失败
+                }
+                throw new InstrumentException("Get value of [{}] error!", step.name);
+            }
+            if (null == value && options.ignoreNullValue) {
+                continue;// 当允许跳过空时,跳过
+            }
+            if (bean.equals(value)) {
+                continue;// 值不能为bean本身,防止循环引用
+            }
+            targetMap.put(step.key, value);
+        }
+    }
+
+    /**
+     * 一个属性的拷贝步骤
+     */
+    private static final class Step {
+
+        /**
+         * 目标属性名
+         */
+        final String name;
+        /**
+         * 来源中的键
+         */
+        final String key;
+        /**
+         * 来源为Map时的下划线键
+         */
+        final String underlineKey;
+        /**
+         * 来源的getter,签名为(Object)Object
+         */
+        final MethodHandle getter;
+        /**
+         * 目标的setter或字段赋值,签名为(Object,Object)void
+         */
+        MethodHandle setter;
+        Type valueType;
+        Class<?> directType;
+        Class<?> propClass;
+        Class<?> paramClass;
+        Object paramDefault;
+
+        Step(String name, String key, String underlineKey, MethodHandle getter) {
+            this.name = name;
+            this.key = key;
+            this.underlineKey = underlineKey;
+            this.getter = getter;
+        }
+
+        /**
+         * 转换为值类型,已是该类型且无自定义转换器时直接返回
+         */
+        Object convert(Object value, boolean ignoreError) {
+            if (null != directType && directType.isInstance(value)
+                    && null == ConverterRegistry.getInstance().getCustomConverter(valueType)) {
+                return value;
+            }
+            return Convert.convertWithCheck(valueType, value, null, ignoreError);
+        }
+
+        /**
+         * 注入值,与反射拷贝的空值、类型转换和异常处理一致
+         */
+        void inject(Object bean, Object value, CopyOptions options) {
+            if (null == value && options.ignoreNullValue) {
+                return;// 当允许跳过空时，跳过
+            }
+            if (bean == value) {
+                return;// 值不能为bean本身，防止循环引用
+            }
+            try {
+                // valueProvider在没有对值做转换且当类型不匹配的时候，执行默认转换
+                if (false == propClass.isInstance(value)) {
+                    value = Convert.convert(propClass, value);
+                    if (null == value && options.ignoreNullValue) {
+                        return;// 当允许跳过空时，跳过
+                    }
+                }
+                if (null == value) {
+                    // 获取null对应默认值，防止原始类型造成空指针问题
+                    value = paramDefault;
+                } else if (false == paramClass.isInstance(value)) {
+                    final Object targetValue = Convert.convert(paramClass, value);
+                    if (null != targetValue) {
+                        value = targetValue;
+                    }
+                }
+                setter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                if (false == options.ignoreError) {
+                    throw new InstrumentException("Inject [{}] error!", name);
+                }
+                // 忽略注入失败
+            }
+        }
+    }
+
+    /**
+     * 影响计划的选项快照,每个{@link CopyOptions}实例只生成一次,选项变更时重建
+     */
+    static final class Spec {
+
+        final boolean ignoreCase;
+        final Set<String> ignore;
+        /**
+         * 来源属性名到目标键的映射
+         */
+        final Map<String, String> mapping;
+        /**
+         * 目标属性名到来源键的映射
+         */
+        final Map<String, String> reversed;
+        private final int hash;
+        /**
+         * 最近一次使用的计划,同一选项反复拷贝相同类型时无需再查缓存
+         */
+        volatile Memo last;
+
+        Spec(CopyOptions options) {
+            this.ignoreCase = options.ignoreCase;
+            this.ignore = null == options.ignoreProperties ? null : CollKit.newHashSet(options.ignoreProperties);
+            this.mapping = null == options.fieldMapping ? null : new HashMap<>(options.fieldMapping);
+            this.reversed = null == this.mapping ? null : MapKit.reverse(this.mapping);
+            this.hash = 31 * (31 * Boolean.hashCode(ignoreCase) + Objects.hashCode(ignore)) + Objects.hashCode(mapping);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (false == o instanceof Spec) {
+                return false;
+            }
+            final Spec that = (Spec) o;
+            return ignoreCase == that.ignoreCase && hash == that.hash
+                    && Objects.equals(ignore, that.ignore) && Objects.equals(mapping, that.mapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 最近一次使用的计划
+     */
+    private static final class Memo {
+
+        final Class<?> source;
+        final Class<?> target;
+        final Type destType;
+        final CopyPlan plan;
+
+        Memo(Class<?> source, Class<?> target, Type destType, CopyPlan plan) {
+            this.source = source;
+            this.target = target;
+            this.destType = destType;
+            this.plan = plan;
+        }
+
+        boolean matches(Class<?> source, Class<?> target, Type destType) {
+            return this.source == source && this.target == target && this.destType == destType;
+        }
+    }
+
+    /**
+     * 缓存键,仅包含影响计划的选项
+     */
+    private static final class Key {
+
+        final Class<?> source;
+        final Class<?> target;
+        final Type destType;
+        final boolean ignoreCase;
+        final Set<String> ignore;
+        /**
+         * 拷贝到Map时为来源属性名到Map键的映射,否则为目标属性名到来源键的映射
+         */
+        final Map<String, String> mapping;
+        private final int hash;
+
+        Key(Class<?> source, Class<?> target, Type destType, Spec spec) {
+            this.source = source;
+            this.target = target;
+            this.destType = destType;
+            this.ignoreCase = spec.ignoreCase;
+            this.ignore = spec.ignore;
+            this.mapping = Map.class == target ? spec.mapping : spec.reversed;
+            this.hash = 31 * (31 * (31 * source.hashCode() + target.hashCode()) + Objects.hashCode(destType)) + spec.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (false == o instanceof Key) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return source == that.source && target == that.target && hash == that.hash
+                    && ignoreCase == that.ignoreCase && Objects.equals(destType, that.destType)
+                    && Objects.equals(ignore, that.ignore) && Objects.equals(mapping, that.mapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
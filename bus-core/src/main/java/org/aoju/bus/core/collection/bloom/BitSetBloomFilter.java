@@ -0,0 +1,236 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 基于long数组位图的布隆过滤器
+ * 置位使用CAS,读取无锁,容量在构造时确定
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class BitSetBloomFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 位图
+     */
+    private final AtomicLongArray bits;
+    /**
+     * 位数
+     */
+    private final long numBits;
+    /**
+     * 哈希函数个数
+     */
+    private final int numHashes;
+
+    /**
+     * 构造
+     *
+     * @param expectedInsertions 预计元素数量
+     * @param fpp                期望误判率,(0, 1)
+     */
+    public BitSetBloomFilter(long expectedInsertions, double fpp) {
+        this(BloomHashing.optimalNumOfBits(expectedInsertions, fpp), expectedInsertions);
+    }
+
+    private BitSetBloomFilter(long numBits, long expectedInsertions) {
+        this(new AtomicLongArray(BloomHashing.words(numBits)), numBits,
+                BloomHashing.optimalNumOfHashes(expectedInsertions, numBits));
+    }
+
+    private BitSetBloomFilter(AtomicLongArray bits, long numBits, int numHashes) {
+        this.bits = bits;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * 从{@link #toByteArray()}导出的数据加载
+     *
+     * @param data 字节数组
+     * @return {@link BitSetBloomFilter}
+     */
+    public static BitSetBloomFilter fromByteArray(byte[] data) {
+        return BloomHashing.read(data, BitSetBloomFilter::readFrom);
+    }
+
+    static BitSetBloomFilter readFrom(DataInput in) throws IOException {
+        BloomHashing.readHeader(in, BloomHashing.TYPE_BITSET);
+        final long numBits = in.readLong();
+        final int numHashes = in.readInt();
+        final AtomicLongArray bits = new AtomicLongArray(BloomHashing.words(numBits));
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, in.readLong());
+        }
+        return new BitSetBloomFilter(bits, numBits, numHashes);
+    }
+
+    @Override
+    public boolean add(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        return put(hash[0], hash[1]);
+    }
+
+    @Override
+    public boolean contains(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        return contains(hash[0], hash[1]);
+    }
+
+    /**
+     * 按哈希值置位
+     *
+     * @param h1 第一个哈希值
+     * @param h2 第二个哈希值
+     * @return 是否有位发生变化
+     */
+    boolean put(long h1, long h2) {
+        boolean changed = false;
+        for (int i = 0; i < this.numHashes; i++) {
+            changed |= set(BloomHashing.index(h1, h2, i, this.numBits));
+        }
+        return changed;
+    }
+
+    /**
+     * 按哈希值判断
+     *
+     * @param h1 第一个哈希值
+     * @param h2 第二个哈希值
+     * @return 是否可能存在
+     */
+    boolean contains(long h1, long h2) {
+        for (int i = 0; i < this.numHashes; i++) {
+            final long index = BloomHashing.index(h1, h2, i, this.numBits);
+            if (0 == (this.bits.get((int) (index >>> 6)) & (1L << index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean set(long index) {
+        final int word = (int) (index >>> 6);
+        final long mask = 1L << index;
+        long current;
+        do {
+            current = this.bits.get(word);
+            if (0 != (current & mask)) {
+                return false;
+            }
+        } while (false == this.bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * 已置位的位数
+     *
+     * @return 位数
+     */
+    public long bitCount() {
+        long count = 0;
+        for (int i = 0; i < this.bits.length(); i++) {
+            count += Long.bitCount(this.bits.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * 按置位比例估算的已加入元素数量
+     *
+     * @return 元素数量
+     */
+    public long approximateElementCount() {
+        final double fraction = (double) bitCount() / this.numBits;
+        return Math.round(-Math.log1p(-fraction) * this.numBits / this.numHashes);
+    }
+
+    /**
+     * 位数
+     *
+     * @return 位数
+     */
+    public long getNumBits() {
+        return this.numBits;
+    }
+
+    /**
+     * 哈希函数个数
+     *
+     * @return 哈希函数个数
+     */
+    public int getNumHashes() {
+        return this.numHashes;
+    }
+
+    /**
+     * 合并另一个参数相同的过滤器,合并后包含两者的全部元素
+     *
+     * @param other 另一个过滤器
+     * @return this
+     */
+    public BitSetBloomFilter merge(BitSetBloomFilter other) {
+        if (this.numBits != other.numBits || this.numHashes != other.numHashes) {
+            throw new IllegalArgumentException("Bloom filters must have the same number of bits and hashes");
+        }
+        for (int i = 0; i < this.bits.length(); i++) {
+            final long value = other.bits.get(i);
+            long current;
+            do {
+                current = this.bits.get(i);
+            } while ((current | value) != current && false == this.bits.compareAndSet(i, current, current | value));
+        }
+        return this;
+    }
+
+    @Override
+    public double expectedFpp() {
+        return Math.pow((double) bitCount() / this.numBits, this.numHashes);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return BloomHashing.write(this::writeTo);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        BloomHashing.writeHeader(out, BloomHashing.TYPE_BITSET);
+        out.writeLong(this.numBits);
+        out.writeInt(this.numHashes);
+        for (int i = 0; i < this.bits.length(); i++) {
+            out.writeLong(this.bits.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import java.io.Serializable;
+
+/**
+ * 布隆过滤器
+ * 判定不存在时元素一定不存在,判定存在时有一定的误判率,适合在访问缓存或数据库之前快速排除不存在的键
+ * 实现均为线程安全,可通过{@link #toByteArray()}导出,离线构建后在启动时加载
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public interface BloomFilter extends Serializable {
+
+    /**
+     * 加入元素
+     *
+     * @param data 元素
+     * @return 过滤器是否发生变化, {@code false}表示元素可能已存在
+     */
+    boolean add(byte[] data);
+
+    /**
+     * 加入字符串元素,按UTF-8编码
+     *
+     * @param data 元素
+     * @return 过滤器是否发生变化, {@code false}表示元素可能已存在
+     */
+    default boolean add(CharSequence data) {
+        return add(BloomHashing.bytes(data));
+    }
+
+    /**
+     * 元素是否可能存在
+     *
+     * @param data 元素
+     * @return {@code false}表示一定不存在, {@code true}表示可能存在
+     */
+    boolean contains(byte[] data);
+
+    /**
+     * 字符串元素是否可能存在,按UTF-8编码
+     *
+     * @param data 元素
+     * @return {@code false}表示一定不存在, {@code true}表示可能存在
+     */
+    default boolean contains(CharSequence data) {
+        return contains(BloomHashing.bytes(data));
+    }
+
+    /**
+     * 按当前填充程度估算的误判率
+     *
+     * @return 误判率
+     */
+    double expectedFpp();
+
+    /**
+     * 导出为字节数组
+     *
+     * @return 字节数组
+     */
+    byte[] toByteArray();
+
+}
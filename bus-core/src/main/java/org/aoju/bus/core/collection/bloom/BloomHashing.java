@@ -0,0 +1,152 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.Murmur;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.*;
+
+/**
+ * 概率数据结构的哈希、容量计算和序列化辅助
+ * 各位置由{@link Murmur#hash128(byte[])}的两个64位结果做双重哈希得到: h1 + i * h2
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+final class BloomHashing {
+
+    static final byte TYPE_BITSET = 1;
+    static final byte TYPE_SCALABLE = 2;
+    static final byte TYPE_COUNTING = 3;
+    static final byte TYPE_COUNT_MIN = 4;
+
+    /**
+     * 序列化格式版本
+     */
+    private static final byte VERSION = 1;
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private BloomHashing() {
+
+    }
+
+    static byte[] bytes(CharSequence data) {
+        return StringKit.bytes(data, Charset.UTF_8);
+    }
+
+    static long[] hash(byte[] data) {
+        return Murmur.hash128(data);
+    }
+
+    /**
+     * 第i个哈希函数对应的位置
+     */
+    static long index(long h1, long h2, int i, long size) {
+        return ((h1 + i * h2) & Long.MAX_VALUE) % size;
+    }
+
+    static void checkFpp(double fpp) {
+        if (false == (fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1): " + fpp);
+        }
+    }
+
+    /**
+     * 容纳{@code expectedInsertions}个元素并满足误判率所需的位数
+     */
+    static long optimalNumOfBits(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        checkFpp(fpp);
+        return Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / LN2_SQUARED));
+    }
+
+    /**
+     * 最优哈希函数个数
+     */
+    static int optimalNumOfHashes(long expectedInsertions, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 存放{@code numBits}位所需的long个数
+     */
+    static int words(long numBits) {
+        final long words = (numBits + 63) >>> 6;
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many bits: " + numBits);
+        }
+        return (int) words;
+    }
+
+    static byte[] write(Writer writer) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static <T> T read(byte[] data, Reader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    static void writeHeader(DataOutput out, byte type) throws IOException {
+        out.writeByte(VERSION);
+        out.writeByte(type);
+    }
+
+    static void readHeader(DataInput in, byte type) throws IOException {
+        final byte version = in.readByte();
+        final byte actual = in.readByte();
+        if (VERSION != version || type != actual) {
+            throw new InstrumentException(StringKit.format("Unsupported data, version: {}, type: {}, expected type: {}",
+                    version, actual, type));
+        }
+    }
+
+    @FunctionalInterface
+    interface Writer {
+        void write(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+}
@@ -0,0 +1,275 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch,用固定内存估算元素出现频次
+ * 估算值不小于实际值,在置信度{@code confidence}下误差不超过{@code epsilon * size()}
+ * 计数使用原子累加,线程安全
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class CountMinSketch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 行数,即哈希函数个数
+     */
+    private final int depth;
+    /**
+     * 每行的计数器个数
+     */
+    private final int width;
+    /**
+     * 计数器,按行连续存放
+     */
+    private final AtomicLongArray table;
+    /**
+     * 累计加入的总次数
+     */
+    private final AtomicLong size;
+
+    /**
+     * 构造
+     *
+     * @param epsilon    相对误差,(0, 1)
+     * @param confidence 置信度,(0, 1)
+     */
+    public CountMinSketch(double epsilon, double confidence) {
+        this(depthOf(confidence), widthOf(epsilon));
+    }
+
+    /**
+     * 构造
+     *
+     * @param depth 行数
+     * @param width 每行的计数器个数
+     */
+    public CountMinSketch(int depth, int width) {
+        this(depth, width, new AtomicLongArray(cells(depth, width)), 0);
+    }
+
+    private CountMinSketch(int depth, int width, AtomicLongArray table, long size) {
+        this.depth = depth;
+        this.width = width;
+        this.table = table;
+        this.size = new AtomicLong(size);
+    }
+
+    /**
+     * 从{@link #toByteArray()}导出的数据加载
+     *
+     * @param data 字节数组
+     * @return {@link CountMinSketch}
+     */
+    public static CountMinSketch fromByteArray(byte[] data) {
+        return BloomHashing.read(data, CountMinSketch::readFrom);
+    }
+
+    private static CountMinSketch readFrom(DataInput in) throws IOException {
+        BloomHashing.readHeader(in, BloomHashing.TYPE_COUNT_MIN);
+        final int depth = in.readInt();
+        final int width = in.readInt();
+        final long size = in.readLong();
+        final AtomicLongArray table = new AtomicLongArray(cells(depth, width));
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, in.readLong());
+        }
+        return new CountMinSketch(depth, width, table, size);
+    }
+
+    private static int depthOf(double confidence) {
+        if (false == (confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence must be in (0, 1): " + confidence);
+        }
+        return Math.max(1, (int) Math.ceil(-Math.log(1 - confidence)));
+    }
+
+    private static int widthOf(double epsilon) {
+        if (false == (epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Epsilon must be in (0, 1): " + epsilon);
+        }
+        return (int) Math.ceil(Math.E / epsilon);
+    }
+
+    private static int cells(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Depth and width must be positive: " + depth + ", " + width);
+        }
+        final long cells = (long) depth * width;
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many counters: " + cells);
+        }
+        return (int) cells;
+    }
+
+    /**
+     * 元素出现一次
+     *
+     * @param data 元素
+     */
+    public void add(byte[] data) {
+        add(data, 1);
+    }
+
+    /**
+     * 元素出现若干次
+     *
+     * @param data  元素
+     * @param count 次数,不能为负
+     */
+    public void add(byte[] data, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be non-negative: " + count);
+        }
+        final long[] hash = BloomHashing.hash(data);
+        for (int i = 0; i < this.depth; i++) {
+            this.table.getAndAdd(cell(hash, i), count);
+        }
+        this.size.getAndAdd(count);
+    }
+
+    /**
+     * 字符串元素出现一次,按UTF-8编码
+     *
+     * @param data 元素
+     */
+    public void add(CharSequence data) {
+        add(BloomHashing.bytes(data), 1);
+    }
+
+    /**
+     * 字符串元素出现若干次,按UTF-8编码
+     *
+     * @param data  元素
+     * @param count 次数,不能为负
+     */
+    public void add(CharSequence data, long count) {
+        add(BloomHashing.bytes(data), count);
+    }
+
+    /**
+     * 估算元素出现次数
+     *
+     * @param data 元素
+     * @return 估算次数,不小于实际次数
+     */
+    public long estimate(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < this.depth; i++) {
+            min = Math.min(min, this.table.get(cell(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 估算字符串元素出现次数,按UTF-8编码
+     *
+     * @param data 元素
+     * @return 估算次数,不小于实际次数
+     */
+    public long estimate(CharSequence data) {
+        return estimate(BloomHashing.bytes(data));
+    }
+
+    private int cell(long[] hash, int row) {
+        return row * this.width + (int) BloomHashing.index(hash[0], hash[1], row, this.width);
+    }
+
+    /**
+     * 合并另一个参数相同的Sketch
+     *
+     * @param other 另一个Sketch
+     * @return this
+     */
+    public CountMinSketch merge(CountMinSketch other) {
+        if (this.depth != other.depth || this.width != other.width) {
+            throw new IllegalArgumentException("Count-Min sketches must have the same depth and width");
+        }
+        for (int i = 0; i < this.table.length(); i++) {
+            this.table.getAndAdd(i, other.table.get(i));
+        }
+        this.size.getAndAdd(other.size.get());
+        return this;
+    }
+
+    /**
+     * 累计加入的总次数
+     *
+     * @return 总次数
+     */
+    public long size() {
+        return this.size.get();
+    }
+
+    /**
+     * 行数
+     *
+     * @return 行数
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * 每行的计数器个数
+     *
+     * @return 计数器个数
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * 导出为字节数组
+     *
+     * @return 字节数组
+     */
+    public byte[] toByteArray() {
+        return BloomHashing.write(this::writeTo);
+    }
+
+    private void writeTo(DataOutput out) throws IOException {
+        BloomHashing.writeHeader(out, BloomHashing.TYPE_COUNT_MIN);
+        out.writeInt(this.depth);
+        out.writeInt(this.width);
+        out.writeLong(this.size.get());
+        for (int i = 0; i < this.table.length(); i++) {
+            out.writeLong(this.table.get(i));
+        }
+    }
+
+}
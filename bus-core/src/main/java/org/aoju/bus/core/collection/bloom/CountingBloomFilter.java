@@ -0,0 +1,249 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 计数布隆过滤器
+ * 每个位置使用4位计数器(每个long存放16个),支持删除元素和估算元素出现次数,
+ * 计数器达到最大值15后保持不变,不再参与删除
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class CountingBloomFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 计数器最大值
+     */
+    public static final int MAX_COUNT = 15;
+    private static final int COUNTERS_PER_WORD = 16;
+
+    /**
+     * 计数器
+     */
+    private final AtomicLongArray counters;
+    /**
+     * 计数器个数
+     */
+    private final long numCounters;
+    /**
+     * 哈希函数个数
+     */
+    private final int numHashes;
+
+    /**
+     * 构造
+     *
+     * @param expectedInsertions 预计元素数量
+     * @param fpp                期望误判率,(0, 1)
+     */
+    public CountingBloomFilter(long expectedInsertions, double fpp) {
+        this(BloomHashing.optimalNumOfBits(expectedInsertions, fpp), expectedInsertions);
+    }
+
+    private CountingBloomFilter(long numCounters, long expectedInsertions) {
+        this(new AtomicLongArray(words(numCounters)), numCounters,
+                BloomHashing.optimalNumOfHashes(expectedInsertions, numCounters));
+    }
+
+    private CountingBloomFilter(AtomicLongArray counters, long numCounters, int numHashes) {
+        this.counters = counters;
+        this.numCounters = numCounters;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * 从{@link #toByteArray()}导出的数据加载
+     *
+     * @param data 字节数组
+     * @return {@link CountingBloomFilter}
+     */
+    public static CountingBloomFilter fromByteArray(byte[] data) {
+        return BloomHashing.read(data, CountingBloomFilter::readFrom);
+    }
+
+    private static CountingBloomFilter readFrom(DataInput in) throws IOException {
+        BloomHashing.readHeader(in, BloomHashing.TYPE_COUNTING);
+        final long numCounters = in.readLong();
+        final int numHashes = in.readInt();
+        final AtomicLongArray counters = new AtomicLongArray(words(numCounters));
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, in.readLong());
+        }
+        return new CountingBloomFilter(counters, numCounters, numHashes);
+    }
+
+    private static int words(long numCounters) {
+        final long words = (numCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many counters: " + numCounters);
+        }
+        return (int) words;
+    }
+
+    @Override
+    public boolean add(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        boolean changed = false;
+        for (int i = 0; i < this.numHashes; i++) {
+            changed |= 0 == update(BloomHashing.index(hash[0], hash[1], i, this.numCounters), 1);
+        }
+        return changed;
+    }
+
+    /**
+     * 删除元素,元素可能不存在时不做任何修改
+     * 仅应删除确实加入过的元素,否则会造成其它元素的漏判
+     *
+     * @param data 元素
+     * @return 是否删除
+     */
+    public boolean remove(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        if (false == contains(hash[0], hash[1])) {
+            return false;
+        }
+        for (int i = 0; i < this.numHashes; i++) {
+            update(BloomHashing.index(hash[0], hash[1], i, this.numCounters), -1);
+        }
+        return true;
+    }
+
+    /**
+     * 删除字符串元素,按UTF-8编码
+     *
+     * @param data 元素
+     * @return 是否删除
+     * @see #remove(byte[])
+     */
+    public boolean remove(CharSequence data) {
+        return remove(BloomHashing.bytes(data));
+    }
+
+    @Override
+    public boolean contains(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        return contains(hash[0], hash[1]);
+    }
+
+    private boolean contains(long h1, long h2) {
+        for (int i = 0; i < this.numHashes; i++) {
+            if (0 == get(BloomHashing.index(h1, h2, i, this.numCounters))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 估算元素的出现次数,结果不小于实际次数,最大为{@link #MAX_COUNT}
+     *
+     * @param data 元素
+     * @return 出现次数
+     */
+    public int count(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        int min = MAX_COUNT;
+        for (int i = 0; i < this.numHashes && min > 0; i++) {
+            min = Math.min(min, get(BloomHashing.index(hash[0], hash[1], i, this.numCounters)));
+        }
+        return min;
+    }
+
+    /**
+     * 估算字符串元素的出现次数,按UTF-8编码
+     *
+     * @param data 元素
+     * @return 出现次数
+     * @see #count(byte[])
+     */
+    public int count(CharSequence data) {
+        return count(BloomHashing.bytes(data));
+    }
+
+    private int get(long index) {
+        final int shift = (int) (index % COUNTERS_PER_WORD) << 2;
+        return (int) (this.counters.get((int) (index / COUNTERS_PER_WORD)) >>> shift) & MAX_COUNT;
+    }
+
+    /**
+     * 修改计数器,已饱和的计数器和为0时的减操作保持不变
+     *
+     * @param index 位置
+     * @param delta 1或-1
+     * @return 修改前的值
+     */
+    private int update(long index, int delta) {
+        final int word = (int) (index / COUNTERS_PER_WORD);
+        final int shift = (int) (index % COUNTERS_PER_WORD) << 2;
+        long current;
+        int value;
+        do {
+            current = this.counters.get(word);
+            value = (int) (current >>> shift) & MAX_COUNT;
+            if (MAX_COUNT == value || (delta < 0 && 0 == value)) {
+                return value;
+            }
+        } while (false == this.counters.compareAndSet(word, current, current + ((long) delta << shift)));
+        return value;
+    }
+
+    @Override
+    public double expectedFpp() {
+        long nonZero = 0;
+        for (int i = 0; i < this.counters.length(); i++) {
+            final long word = this.counters.get(i);
+            for (int shift = 0; shift < 64; shift += 4) {
+                if (0 != ((word >>> shift) & MAX_COUNT)) {
+                    nonZero++;
+                }
+            }
+        }
+        return Math.pow((double) nonZero / this.numCounters, this.numHashes);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return BloomHashing.write(this::writeTo);
+    }
+
+    private void writeTo(DataOutput out) throws IOException {
+        BloomHashing.writeHeader(out, BloomHashing.TYPE_COUNTING);
+        out.writeLong(this.numCounters);
+        out.writeInt(this.numHashes);
+        for (int i = 0; i < this.counters.length(); i++) {
+            out.writeLong(this.counters.get(i));
+        }
+    }
+
+}
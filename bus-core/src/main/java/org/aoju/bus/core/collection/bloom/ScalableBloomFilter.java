@@ -0,0 +1,228 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.bloom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可扩容的布隆过滤器
+ * 由一组{@link BitSetBloomFilter}组成,当前过滤器写满后追加一个容量翻倍、误判率收紧的新过滤器,
+ * 整体误判率不超过初始误判率/(1 - 收紧比例),无需预先准确估计元素数量
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class ScalableBloomFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 默认误判率收紧比例
+     */
+    public static final double DEFAULT_TIGHTENING_RATIO = 0.5;
+    /**
+     * 新过滤器的容量增长倍数
+     */
+    private static final int GROWTH = 2;
+
+    /**
+     * 初始容量
+     */
+    private final long initialCapacity;
+    /**
+     * 初始误判率
+     */
+    private final double fpp;
+    /**
+     * 误判率收紧比例
+     */
+    private final double tighteningRatio;
+    /**
+     * 已有过滤器,扩容时整体替换
+     */
+    private volatile BitSetBloomFilter[] filters;
+    /**
+     * 最后一个过滤器的容量
+     */
+    private volatile long capacity;
+    /**
+     * 最后一个过滤器已加入的元素数量
+     */
+    private final AtomicLong count;
+
+    /**
+     * 构造,误判率收紧比例为{@link #DEFAULT_TIGHTENING_RATIO}
+     *
+     * @param initialCapacity 初始容量
+     * @param fpp             期望误判率,(0, 1)
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        this(initialCapacity, fpp, DEFAULT_TIGHTENING_RATIO);
+    }
+
+    /**
+     * 构造
+     *
+     * @param initialCapacity 初始容量
+     * @param fpp             期望误判率,(0, 1)
+     * @param tighteningRatio 每次扩容误判率的收紧比例,(0, 1)
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp, double tighteningRatio) {
+        BloomHashing.checkFpp(fpp);
+        if (false == (tighteningRatio > 0 && tighteningRatio < 1)) {
+            throw new IllegalArgumentException("Tightening ratio must be in (0, 1): " + tighteningRatio);
+        }
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.tighteningRatio = tighteningRatio;
+        this.filters = new BitSetBloomFilter[]{new BitSetBloomFilter(initialCapacity, fpp)};
+        this.capacity = initialCapacity;
+        this.count = new AtomicLong();
+    }
+
+    private ScalableBloomFilter(long initialCapacity, double fpp, double tighteningRatio,
+                                BitSetBloomFilter[] filters, long count) {
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.tighteningRatio = tighteningRatio;
+        this.filters = filters;
+        this.capacity = capacityOf(filters.length - 1);
+        this.count = new AtomicLong(count);
+    }
+
+    /**
+     * 从{@link #toByteArray()}导出的数据加载
+     *
+     * @param data 字节数组
+     * @return {@link ScalableBloomFilter}
+     */
+    public static ScalableBloomFilter fromByteArray(byte[] data) {
+        return BloomHashing.read(data, ScalableBloomFilter::readFrom);
+    }
+
+    private static ScalableBloomFilter readFrom(DataInput in) throws IOException {
+        BloomHashing.readHeader(in, BloomHashing.TYPE_SCALABLE);
+        final long initialCapacity = in.readLong();
+        final double fpp = in.readDouble();
+        final double tighteningRatio = in.readDouble();
+        final long count = in.readLong();
+        final BitSetBloomFilter[] filters = new BitSetBloomFilter[in.readInt()];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = BitSetBloomFilter.readFrom(in);
+        }
+        return new ScalableBloomFilter(initialCapacity, fpp, tighteningRatio, filters, count);
+    }
+
+    @Override
+    public boolean add(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        final BitSetBloomFilter[] current = this.filters;
+        for (BitSetBloomFilter filter : current) {
+            if (filter.contains(hash[0], hash[1])) {
+                return false;
+            }
+        }
+        final boolean changed = current[current.length - 1].put(hash[0], hash[1]);
+        if (changed && this.count.incrementAndGet() >= this.capacity) {
+            grow(current);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(byte[] data) {
+        final long[] hash = BloomHashing.hash(data);
+        for (BitSetBloomFilter filter : this.filters) {
+            if (filter.contains(hash[0], hash[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 追加新的过滤器,仅由写满当前过滤器的线程执行一次
+     *
+     * @param full 已写满的过滤器组
+     */
+    private synchronized void grow(BitSetBloomFilter[] full) {
+        if (this.filters != full) {
+            return;
+        }
+        final int n = full.length;
+        final BitSetBloomFilter[] grown = new BitSetBloomFilter[n + 1];
+        System.arraycopy(full, 0, grown, 0, n);
+        grown[n] = new BitSetBloomFilter(capacityOf(n), this.fpp * Math.pow(this.tighteningRatio, n));
+        this.count.set(0);
+        this.capacity = capacityOf(n);
+        this.filters = grown;
+    }
+
+    private long capacityOf(int index) {
+        final double capacity = this.initialCapacity * Math.pow(GROWTH, index);
+        return capacity >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) capacity;
+    }
+
+    /**
+     * 内部过滤器个数
+     *
+     * @return 过滤器个数
+     */
+    public int filterCount() {
+        return this.filters.length;
+    }
+
+    @Override
+    public double expectedFpp() {
+        double notFalsePositive = 1;
+        for (BitSetBloomFilter filter : this.filters) {
+            notFalsePositive *= 1 - filter.expectedFpp();
+        }
+        return 1 - notFalsePositive;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return BloomHashing.write(this::writeTo);
+    }
+
+    private synchronized void writeTo(DataOutput out) throws IOException {
+        BloomHashing.writeHeader(out, BloomHashing.TYPE_SCALABLE);
+        out.writeLong(this.initialCapacity);
+        out.writeDouble(this.fpp);
+        out.writeDouble(this.tighteningRatio);
+        out.writeLong(this.count.get());
+        final BitSetBloomFilter[] current = this.filters;
+        out.writeInt(current.length);
+        for (BitSetBloomFilter filter : current) {
+            filter.writeTo(out);
+        }
+    }
+
+}
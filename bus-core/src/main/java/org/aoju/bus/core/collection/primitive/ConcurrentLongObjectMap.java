@@ -0,0 +1,225 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * 线程安全的{@link LongObjectMap}
+ * 按键的哈希高位分段,每段一个{@link LongObjectMap}和一把{@link StampedLock}
+ * 读操作先尝试乐观读,校验失败时退化为读锁;写操作持有写锁
+ *
+ * @param <V> 值类型
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class ConcurrentLongObjectMap<V> {
+
+    private final Segment<V>[] segments;
+    private final int shift;
+
+    public ConcurrentLongObjectMap() {
+        this(16, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param expectedSize     预期元素数量
+     * @param concurrencyLevel 预期并发写线程数,实际分段数为不小于该值的2的幂
+     */
+    public ConcurrentLongObjectMap(int expectedSize, int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+        }
+        final int count = Math.max(2, Integer.highestOneBit(Math.min(concurrencyLevel, 1 << 16) - 1) << 1);
+        this.segments = newSegments(count);
+        this.shift = Integer.numberOfLeadingZeros(count) + 1;
+        final int perSegment = Math.max(expectedSize, 0) / count + 1;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int count) {
+        return (Segment<V>[]) new Segment<?>[count];
+    }
+
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        final Segment<V> segment = segmentFor(key);
+        final StampedLock lock = segment.lock;
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final V value = segment.map.getOrDefault(key, defaultValue);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // 与写操作并发时可能读到扩容中的数组,改用读锁重试
+            }
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return segment.map.getOrDefault(key, defaultValue);
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        final Segment<V> segment = segmentFor(key);
+        final long stamp = segment.lock.readLock();
+        try {
+            return segment.map.containsKey(key);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    public V put(long key, V value) {
+        final Segment<V> segment = segmentFor(key);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    public V putIfAbsent(long key, V value) {
+        final Segment<V> segment = segmentFor(key);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.putIfAbsent(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 键不存在时通过函数生成值并放入,整个过程对该键原子
+     * 函数在段写锁内执行,不应访问本Map
+     *
+     * @param key      键
+     * @param function 值生成函数
+     * @return 已存在或新生成的值
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        final V value = get(key);
+        if (null != value) {
+            return value;
+        }
+        final Segment<V> segment = segmentFor(key);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.computeIfAbsent(key, function);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(long key) {
+        final Segment<V> segment = segmentFor(key);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 元素数量,并发修改时为近似值
+     *
+     * @return 元素数量
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            final long stamp = segment.lock.readLock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            final long stamp = segment.lock.writeLock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * 逐段遍历所有键值,遍历某段时持有该段读锁
+     * 不保证各段之间的一致快照
+     *
+     * @param consumer 键值处理
+     */
+    public void forEach(LongObjectMap.EntryConsumer<? super V> consumer) {
+        for (Segment<V> segment : segments) {
+            final long stamp = segment.lock.readLock();
+            try {
+                segment.map.forEach(consumer);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private Segment<V> segmentFor(long key) {
+        // 段内使用哈希低位定位,这里取高位以避免段内聚集
+        return segments[(Hashing.mix(key) >>> shift) & (segments.length - 1)];
+    }
+
+    private static final class Segment<V> {
+
+        final StampedLock lock = new StampedLock();
+        final LongObjectMap<V> map;
+
+        Segment(int expectedSize) {
+            this.map = new LongObjectMap<>(expectedSize);
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+/**
+ * 开放寻址哈希表的容量计算和哈希混淆
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+final class Hashing {
+
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final int INT_PHI = 0x9E3779B9;
+
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    private Hashing() {
+
+    }
+
+    static int mix(int key) {
+        final int h = key * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        final long h = key * LONG_PHI;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static void checkLoadFactor(float loadFactor) {
+        if (false == (loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+    }
+
+    /**
+     * 容纳{@code expectedSize}个元素所需的容量,为2的幂
+     */
+    static int capacity(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        }
+        final long required = Math.max(2, (long) Math.ceil(expectedSize / loadFactor) + 1);
+        if (required > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    static int resizeAt(int capacity, float loadFactor) {
+        if (capacity == MAX_CAPACITY) {
+            return MAX_CAPACITY - 1;
+        }
+        return Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+}
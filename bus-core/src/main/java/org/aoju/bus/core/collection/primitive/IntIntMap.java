@@ -0,0 +1,329 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.util.Arrays;
+
+/**
+ * 键和值均为{@code int}的开放寻址哈希表,不装箱
+ * 线性探测,删除时回移后续元素,键{@code 0}单独存放
+ * 非线程安全
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class IntIntMap {
+
+    private final float loadFactor;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     */
+    public IntIntMap(int expectedSize) {
+        this(expectedSize, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     * @param loadFactor   加载因子,(0, 1)
+     */
+    public IntIntMap(int expectedSize, float loadFactor) {
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key          键
+     * @param defaultValue 键不存在时的返回值
+     * @return 值
+     */
+    public int get(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key          键
+     * @param value        值
+     * @param defaultValue 键不存在时的返回值
+     * @return 原值, 不存在时为defaultValue
+     */
+    public int put(int key, int value, int defaultValue) {
+        if (key == 0) {
+            final int previous = hasZeroKey ? zeroValue : defaultValue;
+            if (false == hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        final int i = slot(key);
+        if (keys[i] == key) {
+            final int previous = values[i];
+            values[i] = value;
+            return previous;
+        }
+        insert(i, key, value);
+        return defaultValue;
+    }
+
+    public void put(int key, int value) {
+        put(key, value, 0);
+    }
+
+    /**
+     * 对键的值做增量,键不存在时以0为初始值
+     * 适合计数场景
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 新值
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            if (false == hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                zeroValue = 0;
+            }
+            return zeroValue += delta;
+        }
+        final int i = slot(key);
+        if (keys[i] == key) {
+            return values[i] += delta;
+        }
+        insert(i, key, delta);
+        return delta;
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key          键
+     * @param defaultValue 键不存在时的返回值
+     * @return 原值
+     */
+    public int remove(int key, int defaultValue) {
+        if (key == 0) {
+            if (false == hasZeroKey) {
+                return defaultValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        final int i = indexOf(key);
+        if (i < 0) {
+            return defaultValue;
+        }
+        final int previous = values[i];
+        shift(i);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * 遍历所有键值,不装箱
+     *
+     * @param consumer 键值处理
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        final int[] keys = this.keys;
+        final int[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 所有键的副本
+     *
+     * @return 键数组
+     */
+    public int[] keys() {
+        final int[] result = new int[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    private int indexOf(int key) {
+        final int i = slot(key);
+        return keys[i] == key ? i : -1;
+    }
+
+    /**
+     * 键所在位置,不存在时为探测链末端的空位
+     */
+    private int slot(int key) {
+        final int[] keys = this.keys;
+        final int mask = this.mask;
+        int cur;
+        int i = Hashing.mix(key) & mask;
+        while ((cur = keys[i]) != 0 && cur != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void insert(int i, int key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void shift(int pos) {
+        final int[] keys = this.keys;
+        final int[] values = this.values;
+        final int mask = this.mask;
+        int last;
+        int slot;
+        int cur;
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+            while (true) {
+                if ((cur = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                slot = Hashing.mix(cur) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = cur;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeAt(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(capacity);
+        final int[] keys = this.keys;
+        final int[] values = this.values;
+        final int mask = this.mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            final int key = oldKeys[j];
+            if (key != 0) {
+                int i = Hashing.mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * 键值处理
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(int key, int value);
+
+    }
+
+}
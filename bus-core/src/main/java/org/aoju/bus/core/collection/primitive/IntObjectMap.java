@@ -0,0 +1,354 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * 以{@code int}为键的开放寻址哈希表,键不装箱
+ * 线性探测,删除时回移后续元素,不使用墓碑,键{@code 0}单独存放
+ * 非线程安全
+ *
+ * @param <V> 值类型
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class IntObjectMap<V> {
+
+    private final float loadFactor;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    /**
+     * 元素数量超过此值时扩容
+     */
+    private int resizeAt;
+    private int size;
+
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     */
+    public IntObjectMap(int expectedSize) {
+        this(expectedSize, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     * @param loadFactor   加载因子,(0, 1)
+     */
+    public IntObjectMap(int expectedSize, float loadFactor) {
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public V get(int key) {
+        return getOrDefault(key, null);
+    }
+
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int[] keys = this.keys;
+        final int mask = this.mask;
+        int cur;
+        int i = Hashing.mix(key) & mask;
+        while ((cur = keys[i]) != 0) {
+            if (cur == key) {
+                return valueAt(i);
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 放入键值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 原值, 不存在时为null
+     */
+    public V put(int key, V value) {
+        if (key == 0) {
+            final V previous = zeroValue;
+            if (false == hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        final int[] keys = this.keys;
+        final int mask = this.mask;
+        int cur;
+        int i = Hashing.mix(key) & mask;
+        while ((cur = keys[i]) != 0) {
+            if (cur == key) {
+                final V previous = valueAt(i);
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 键不存在时放入
+     *
+     * @param key   键
+     * @param value 值
+     * @return 已存在的值, 不存在时为null
+     */
+    public V putIfAbsent(int key, V value) {
+        final V current = get(key);
+        if (null == current && false == containsKey(key)) {
+            put(key, value);
+        }
+        return current;
+    }
+
+    /**
+     * 键不存在时通过函数生成值并放入
+     *
+     * @param key      键
+     * @param function 值生成函数
+     * @return 已存在或新生成的值
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> function) {
+        V value = get(key);
+        if (null == value) {
+            value = function.apply(key);
+            if (null != value) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     * @return 原值, 不存在时为null
+     */
+    public V remove(int key) {
+        if (key == 0) {
+            if (false == hasZeroKey) {
+                return null;
+            }
+            final V previous = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return previous;
+        }
+        final int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        final V previous = valueAt(i);
+        shift(i);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * 遍历所有键值,键不装箱
+     *
+     * @param consumer 键值处理
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        final int[] keys = this.keys;
+        final Object[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * 所有键的副本
+     *
+     * @return 键数组
+     */
+    public int[] keys() {
+        final int[] result = new int[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    private int indexOf(int key) {
+        final int[] keys = this.keys;
+        final int mask = this.mask;
+        int cur;
+        int i = Hashing.mix(key) & mask;
+        while ((cur = keys[i]) != 0) {
+            if (cur == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除位置{@code pos}的元素,并将其后同一探测链上的元素回移
+     */
+    private void shift(int pos) {
+        final int[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = this.mask;
+        int last;
+        int slot;
+        int cur;
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+            while (true) {
+                if ((cur = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                slot = Hashing.mix(cur) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = cur;
+            values[last] = values[pos];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeAt(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(capacity);
+        final int[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = this.mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            final int key = oldKeys[j];
+            if (key != 0) {
+                int i = Hashing.mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * 键值处理
+     *
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        void accept(int key, V value);
+
+    }
+
+}
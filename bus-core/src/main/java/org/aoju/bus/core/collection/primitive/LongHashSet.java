@@ -0,0 +1,238 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.collection.primitive;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * {@code long}元素的开放寻址哈希集合,不装箱
+ * 线性探测,删除时回移后续元素,元素{@code 0}单独存放
+ * 非线程安全
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class LongHashSet {
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private int mask;
+    private int resizeAt;
+    private int size;
+
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     */
+    public LongHashSet(int expectedSize) {
+        this(expectedSize, Hashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量
+     * @param loadFactor   加载因子,(0, 1)
+     */
+    public LongHashSet(int expectedSize, float loadFactor) {
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.capacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            return hasZero;
+        }
+        return keys[slot(key)] == key;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param key 元素
+     * @return 集合是否发生变化
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        final int i = slot(key);
+        if (keys[i] == key) {
+            return false;
+        }
+        keys[i] = key;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * 移除元素
+     *
+     * @param key 元素
+     * @return 集合是否发生变化
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (false == hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        final int i = slot(key);
+        if (keys[i] != key) {
+            return false;
+        }
+        shift(i);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * 遍历所有元素,不装箱
+     *
+     * @param consumer 元素处理
+     */
+    public void forEach(LongConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                consumer.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 所有元素的副本
+     *
+     * @return 元素数组
+     */
+    public long[] toArray() {
+        final long[] result = new long[size];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int slot(long key) {
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        long cur;
+        int i = Hashing.mix(key) & mask;
+        while ((cur = keys[i]) != 0 && cur != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void shift(int pos) {
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        int last;
+        int slot;
+        long cur;
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+            while (true) {
+                if ((cur = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                slot = Hashing.mix(cur) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = cur;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeAt(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        allocate(capacity);
+        final long[] keys = this.keys;
+        final int mask = this.mask;
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int i = Hashing.mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+}
@@ -250,6 +250,19 @@ public class Convert {
         return toInt(value, null);
     }
 
+    /**
+     * 转换为int,不产生装箱对象
+     * 如果给定的值为空,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static int convertToInt(Object value, int defaultValue) {
+        return ConverterRegistry.getInstance().convertToInt(value, defaultValue);
+    }
+
     /**
      * 转换为Integer数组
      *
@@ -285,6 +298,19 @@ public class Convert {
         return toLong(value, null);
     }
 
+    /**
+     * 转换为long,不产生装箱对象
+     * 如果给定的值为空,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static long convertToLong(Object value, long defaultValue) {
+        return ConverterRegistry.getInstance().convertToLong(value, defaultValue);
+    }
+
     /**
      * 转换为Long数组
      *
@@ -320,6 +346,19 @@ public class Convert {
         return toDouble(value, null);
     }
 
+    /**
+     * 转换为double,不产生装箱对象
+     * 如果给定的值为空,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static double convertToDouble(Object value, double defaultValue) {
+        return ConverterRegistry.getInstance().convertToDouble(value, defaultValue);
+    }
+
     /**
      * 转换为Double数组
      *
@@ -25,11 +25,14 @@
 package org.aoju.bus.core.convert;
 
 import org.aoju.bus.core.date.DateTime;
+import org.aoju.bus.core.lang.ClassValueCache;
 import org.aoju.bus.core.lang.Types;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.BeanKit;
+import org.aoju.bus.core.toolkit.MathKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.core.toolkit.ReflectKit;
+import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.core.toolkit.TypeKit;
 
 import java.lang.ref.SoftReference;
@@ -69,6 +72,19 @@ public class ConverterRegistry {
      * 用户自定义类型转换器
      */
     private volatile Map<Type, Converter<?>> customConverterMap;
+    /**
+     * 自定义转换器优先时的解析结果缓存,按目标类-被转换值类型缓存已确定的转换链
+     * 仅缓存目标类型为{@link Class}的转换,缓存项随类卸载而释放,登记自定义转换器时清空
+     */
+    private final ClassValueCache<ClassValueCache<Converter<Object>>> customFirstResolved = new ClassValueCache<>();
+    /**
+     * 默认转换器优先时的解析结果缓存
+     */
+    private final ClassValueCache<ClassValueCache<Converter<Object>>> defaultFirstResolved = new ClassValueCache<>();
+    /**
+     * 自定义转换器版本,用于丢弃登记期间解析出的过期转换链
+     */
+    private volatile int customVersion;
 
     public ConverterRegistry() {
         defaultConverter();
@@ -109,7 +125,12 @@ public class ConverterRegistry {
                 }
             }
         }
-        customConverterMap.put(type, converter);
+        synchronized (this) {
+            customConverterMap.put(type, converter);
+            customVersion++;
+            customFirstResolved.clear();
+            defaultFirstResolved.clear();
+        }
         return this;
     }
 
@@ -186,6 +207,12 @@ public class ConverterRegistry {
             type = ((Types<?>) type).getType();
         }
 
+        // 已解析过的转换链
+        final Converter<Object> resolved = getResolved(type, value.getClass(), isCustomFirst);
+        if (null != resolved) {
+            return (T) resolved.convert(value, defaultValue);
+        }
+
         // 标准转换器
         final Converter<T> converter = getConverter(type, isCustomFirst);
         if (null != converter) {
@@ -245,6 +272,227 @@ public class ConverterRegistry {
         return convert(type, value, null);
     }
 
+    /**
+     * 转换为int,数字、布尔和字符串直接计算,不产生装箱对象
+     * 转换规则与{@link #convert(Type, Object, Object)}转为{@link Integer}一致,转换失败返回默认值
+     *
+     * @param value        被转换值
+     * @param defaultValue 默认值
+     * @return 转换后的值
+     */
+    public int convertToInt(Object value, int defaultValue) {
+        if (null == value) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Integer.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).intValue();
+            } else if (value instanceof Boolean) {
+                return ((Boolean) value) ? 1 : 0;
+            } else if (value instanceof CharSequence) {
+                final String valueStr = StringKit.trim(value.toString());
+                if (StringKit.isBlank(valueStr)) {
+                    return defaultValue;
+                }
+                try {
+                    return isPlainInteger(valueStr) ? Integer.parseInt(valueStr) : MathKit.parseInt(valueStr);
+                } catch (RuntimeException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        final Integer result = convert(Integer.class, value, null);
+        return null == result ? defaultValue : result;
+    }
+
+    /**
+     * 转换为long,数字、布尔和字符串直接计算,不产生装箱对象
+     * 转换规则与{@link #convert(Type, Object, Object)}转为{@link Long}一致,转换失败返回默认值
+     *
+     * @param value        被转换值
+     * @param defaultValue 默认值
+     * @return 转换后的值
+     */
+    public long convertToLong(Object value, long defaultValue) {
+        if (null == value) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Long.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            } else if (value instanceof Boolean) {
+                return ((Boolean) value) ? 1L : 0L;
+            } else if (value instanceof CharSequence) {
+                final String valueStr = StringKit.trim(value.toString());
+                if (StringKit.isBlank(valueStr)) {
+                    return defaultValue;
+                }
+                try {
+                    return isPlainInteger(valueStr) ? Long.parseLong(valueStr) : MathKit.parseLong(valueStr);
+                } catch (RuntimeException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        final Long result = convert(Long.class, value, null);
+        return null == result ? defaultValue : result;
+    }
+
+    /**
+     * 转换为double,数字、布尔和字符串直接计算,不产生装箱对象
+     * 转换规则与{@link #convert(Type, Object, Object)}转为{@link Double}一致,转换失败返回默认值
+     *
+     * @param value        被转换值
+     * @param defaultValue 默认值
+     * @return 转换后的值
+     */
+    public double convertToDouble(Object value, double defaultValue) {
+        if (null == value) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Double.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            } else if (value instanceof Boolean) {
+                return ((Boolean) value) ? 1D : 0D;
+            } else if (value instanceof CharSequence) {
+                final String valueStr = StringKit.trim(value.toString());
+                if (StringKit.isBlank(valueStr)) {
+                    return defaultValue;
+                }
+                try {
+                    return Double.parseDouble(valueStr);
+                } catch (RuntimeException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        final Double result = convert(Double.class, value, null);
+        return null == result ? defaultValue : result;
+    }
+
+    /**
+     * 是否登记了指定类型的自定义转换器
+     *
+     * @param type 类型
+     * @return 是否登记
+     */
+    private boolean hasCustom(Type type) {
+        final Map<Type, Converter<?>> customMap = this.customConverterMap;
+        return null != customMap && customMap.containsKey(type);
+    }
+
+    /**
+     * 是否为仅含可选符号和十进制数字的字符串,此类字符串可直接交给JDK解析
+     *
+     * @param text 字符串
+     * @return 是否为普通整数
+     */
+    private static boolean isPlainInteger(String text) {
+        final int length = text.length();
+        int i = (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取已解析的转换链,未解析过时解析并缓存
+     * 参数化类型等非{@link Class}的目标类型每次重新解析,避免缓存无法回收
+     *
+     * @param type          目标类型
+     * @param valueClass    被转换值类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换链, 结果依赖默认值等无法缓存时返回{@code null}
+     */
+    private Converter<Object> getResolved(Type type, Class<?> valueClass, boolean isCustomFirst) {
+        if (false == type instanceof Class) {
+            return resolve(type, valueClass, isCustomFirst);
+        }
+        final ClassValueCache<Converter<Object>> byValue = (isCustomFirst ? customFirstResolved : defaultFirstResolved)
+                .get((Class<?>) type, ClassValueCache::new);
+        Converter<Object> resolved = byValue.get(valueClass);
+        if (null == resolved) {
+            final int version = this.customVersion;
+            resolved = resolve(type, valueClass, isCustomFirst);
+            if (null != resolved) {
+                final Converter<Object> candidate = resolved;
+                resolved = byValue.get(valueClass, () -> candidate);
+                if (version != this.customVersion) {
+                    byValue.remove(valueClass);
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 按{@link #convert(Type, Object, Object, boolean)}的查找顺序确定转换链
+     * 标准转换器、集合、Map、强转、枚举、数组、Bean
+     *
+     * @param type          目标类型
+     * @param valueClass    被转换值类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换链, 目标类型无法识别时返回{@code null}
+     */
+    private Converter<Object> resolve(Type type, Class<?> valueClass, boolean isCustomFirst) {
+        final Converter<Object> converter = getConverter(type, isCustomFirst);
+        if (null != converter) {
+            return converter;
+        }
+
+        final Class<Object> rowType = (Class<Object>) TypeKit.getClass(type);
+        if (null == rowType) {
+            // 依赖默认值类型,不缓存
+            return null;
+        }
+
+        final Converter<Object> fallback;
+        if (BeanKit.isBean(rowType)) {
+            fallback = new BeanConverter<>(type);
+        } else {
+            fallback = (value, defaultValue) -> {
+                throw new InstrumentException("No Converter for type [{}]", rowType.getName());
+            };
+        }
+
+        final Converter<Object> special;
+        if (Collection.class.isAssignableFrom(rowType)) {
+            final CollectionConverter collectionConverter = new CollectionConverter(type);
+            special = (value, defaultValue) -> collectionConverter.convert(value, (Collection<?>) defaultValue);
+        } else if (Map.class.isAssignableFrom(rowType)) {
+            final MapConverter mapConverter = new MapConverter(type);
+            special = (value, defaultValue) -> mapConverter.convert(value, (Map<?, ?>) defaultValue);
+        } else if (rowType.isAssignableFrom(valueClass)) {
+            return (value, defaultValue) -> value;
+        } else if (rowType.isEnum()) {
+            special = new EnumConverter(rowType);
+        } else if (rowType.isArray()) {
+            final ArrayConverter arrayConverter = new ArrayConverter(rowType);
+            special = (value, defaultValue) -> {
+                try {
+                    return arrayConverter.convert(value, defaultValue);
+                } catch (Exception e) {
+                    // 数组转换失败进行下一步
+                    return null;
+                }
+            };
+        } else {
+            return fallback;
+        }
+        return (value, defaultValue) -> {
+            final Object result = special.convert(value, defaultValue);
+            return null != result ? result : fallback.convert(value, defaultValue);
+        };
+    }
+
     /**
      * 特殊类型转换
      * 包括：
@@ -54,6 +54,10 @@ public class FastDatePrinter extends AbstractFormater implements DatePrinter {
      * 估算最大长度.
      */
     private transient int mMaxLengthEstimate;
+    /**
+     * 线程内复用的日历对象,避免每次格式化都创建{@link Calendar}
+     */
+    private transient ThreadLocal<Calendar> calendars;
 
     /**
      * 构造,内部使用
@@ -181,6 +185,7 @@ public class FastDatePrinter extends AbstractFormater implements DatePrinter {
         }
 
         mMaxLengthEstimate = len;
+        calendars = ThreadLocal.withInitial(() -> Calendar.getInstance(timeZone, locale));
     }
 
     /**
@@ -418,16 +423,12 @@ public class FastDatePrinter extends AbstractFormater implements DatePrinter {
 
     @Override
     public String format(final long millis) {
-        final Calendar c = Calendar.getInstance(timeZone, locale);
-        c.setTimeInMillis(millis);
-        return applyRulesToString(c);
+        return applyRulesToString(calendar(millis));
     }
 
     @Override
     public String format(final Date date) {
-        final Calendar c = Calendar.getInstance(timeZone, locale);
-        c.setTime(date);
-        return applyRulesToString(c);
+        return applyRulesToString(calendar(date.getTime()));
     }
 
     @Override
@@ -437,16 +438,12 @@ public class FastDatePrinter extends AbstractFormater implements DatePrinter {
 
     @Override
     public <B extends Appendable> B format(final long millis, final B buf) {
-        final Calendar c = Calendar.getInstance(timeZone, locale);
-        c.setTimeInMillis(millis);
-        return applyRules(c, buf);
+        return applyRules(calendar(millis), buf);
     }
 
     @Override
     public <B extends Appendable> B format(final Date date, final B buf) {
-        final Calendar c = Calendar.getInstance(timeZone, locale);
-        c.setTime(date);
-        return applyRules(c, buf);
+        return applyRules(calendar(date.getTime()), buf);
     }
 
     @Override
@@ -459,6 +456,19 @@ public class FastDatePrinter extends AbstractFormater implements DatePrinter {
         return applyRules(calendar, buf);
     }
 
+    /**
+     * 获取当前线程复用的日历并设置时间
+     * 规则仅读取日历字段,调用方可将结果追加到自行复用的缓冲区(如清空后的{@link StringBuilder})
+     *
+     * @param millis 毫秒数
+     * @return 日历
+     */
+    private Calendar calendar(final long millis) {
+        final Calendar c = calendars.get();
+        c.setTimeInMillis(millis);
+        return c;
+    }
+
     /**
      * 通过应用此打印机的规则创建给定日历的字符串表示形式
      *
@@ -0,0 +1,341 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.date.format;
+
+import org.aoju.bus.core.date.DateTime;
+import org.aoju.bus.core.lang.Fields;
+
+import java.util.TimeZone;
+
+/**
+ * 常用日期格式的快速扫描器
+ * 按下标逐字符扫描,不使用正则、不复制字符串,仅识别以下常见且严格的格式:
+ * <ol>
+ * <li>yyyyMMdd、yyyyMMddHHmmss、yyyyMMddHHmmssSSS、HHmmss</li>
+ * <li>yyyy-MM-dd、yyyy-MM-dd HH:mm、yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm:ss.SSS(日期分隔符可为-、/、.)</li>
+ * <li>yyyy-MM-dd'T'HH:mm:ss[.SSS],后缀可为空、Z、+hhmm、+hh:mm</li>
+ * </ol>
+ * 结果与{@link Fields}中对应格式化器的解析结果(含时区)一致;
+ * 无法识别、字段越界或处于夏令时切换附近时返回{@code null},由调用方回退到通用解析逻辑
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class FastDateScanner {
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    /**
+     * 0000-01-01至1970-01-01的天数
+     */
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    /**
+     * 格里高利历切换之前的日期{@link java.util.GregorianCalendar}按儒略历计算,不走快速路径
+     */
+    private static final int MIN_YEAR = 1600;
+
+    /**
+     * 扫描日期字符串
+     *
+     * @param text 日期字符串
+     * @return {@link DateTime},无法快速识别时返回{@code null}
+     */
+    public static DateTime scan(CharSequence text) {
+        if (null == text) {
+            return null;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        final int length = end - start;
+        if (length < 6) {
+            return null;
+        }
+        if (isDigits(text, start, end)) {
+            return scanPure(text, start, length);
+        }
+        return scanNorm(text, start, end);
+    }
+
+    /**
+     * 扫描纯数字格式
+     *
+     * @param text   日期字符串
+     * @param s      起始位置
+     * @param length 长度
+     * @return {@link DateTime}或{@code null}
+     */
+    private static DateTime scanPure(CharSequence text, int s, int length) {
+        switch (length) {
+            case 6:
+                // HHmmss
+                return local(1970, 1, 1, num2(text, s), num2(text, s + 2), num2(text, s + 4), 0,
+                        Fields.PURE_TIME_FORMAT.getTimeZone());
+            case 8:
+                // yyyyMMdd
+                return local(num4(text, s), num2(text, s + 4), num2(text, s + 6), 0, 0, 0, 0,
+                        Fields.PURE_DATE_FORMAT.getTimeZone());
+            case 14:
+                // yyyyMMddHHmmss
+                return local(num4(text, s), num2(text, s + 4), num2(text, s + 6),
+                        num2(text, s + 8), num2(text, s + 10), num2(text, s + 12), 0,
+                        Fields.PURE_DATETIME_FORMAT.getTimeZone());
+            case 17:
+                // yyyyMMddHHmmssSSS
+                return local(num4(text, s), num2(text, s + 4), num2(text, s + 6),
+                        num2(text, s + 8), num2(text, s + 10), num2(text, s + 12), num3(text, s + 14),
+                        Fields.PURE_DATETIME_MS_FORMAT.getTimeZone());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 扫描带分隔符的格式
+     *
+     * @param text 日期字符串
+     * @param s    起始位置
+     * @param end  结束位置(不含)
+     * @return {@link DateTime}或{@code null}
+     */
+    private static DateTime scanNorm(CharSequence text, int s, int end) {
+        final int length = end - s;
+        if (length < 10) {
+            return null;
+        }
+        final char sep = text.charAt(s + 4);
+        if ((sep != '-' && sep != '/' && sep != '.') || text.charAt(s + 7) != sep
+                || false == isDigits(text, s, s + 4) || false == isDigits(text, s + 5, s + 7)
+                || false == isDigits(text, s + 8, s + 10)) {
+            return null;
+        }
+        final int year = num4(text, s);
+        final int month = num2(text, s + 5);
+        final int day = num2(text, s + 8);
+        if (length == 10) {
+            return local(year, month, day, 0, 0, 0, 0, Fields.NORM_DATE_FORMAT.getTimeZone());
+        }
+
+        final char split = text.charAt(s + 10);
+        if (length < 16 || (split != ' ' && split != 'T')
+                || false == isDigits(text, s + 11, s + 13) || text.charAt(s + 13) != ':'
+                || false == isDigits(text, s + 14, s + 16)) {
+            return null;
+        }
+        final int hour = num2(text, s + 11);
+        final int minute = num2(text, s + 14);
+
+        if (split == ' ') {
+            if (length == 16) {
+                return local(year, month, day, hour, minute, 0, 0, Fields.NORM_DATETIME_MINUTE_FORMAT.getTimeZone());
+            }
+            if (length < 19 || text.charAt(s + 16) != ':' || false == isDigits(text, s + 17, s + 19)) {
+                return null;
+            }
+            final int second = num2(text, s + 17);
+            if (length == 19) {
+                return local(year, month, day, hour, minute, second, 0, Fields.NORM_DATETIME_FORMAT.getTimeZone());
+            }
+            final char dot = text.charAt(s + 19);
+            if (length == 23 && (dot == '.' || dot == ',') && isDigits(text, s + 20, s + 23)) {
+                return local(year, month, day, hour, minute, second, num3(text, s + 20),
+                        Fields.NORM_DATETIME_MS_FORMAT.getTimeZone());
+            }
+            return null;
+        }
+
+        // ISO8601,原逻辑仅接受-作为日期分隔符
+        if (sep != '-' || length < 19 || text.charAt(s + 16) != ':' || false == isDigits(text, s + 17, s + 19)) {
+            return null;
+        }
+        final int second = num2(text, s + 17);
+        int pos = s + 19;
+        int millis = 0;
+        boolean withMillis = false;
+        if (pos < end && text.charAt(pos) == '.') {
+            if (pos + 4 > end || false == isDigits(text, pos + 1, pos + 4)) {
+                return null;
+            }
+            millis = num3(text, pos + 1);
+            withMillis = true;
+            pos += 4;
+        }
+        if (pos == end) {
+            // 2020-07-07T15:31:20,按UTC解析
+            return withMillis ? null
+                    : local(year, month, day, hour, minute, second, 0, Fields.UTC_SIMPLE_FORMAT.getTimeZone());
+        }
+        final char zone = text.charAt(pos);
+        if (zone == 'Z') {
+            if (pos + 1 != end) {
+                return null;
+            }
+            return local(year, month, day, hour, minute, second, millis,
+                    (withMillis ? Fields.OUTPUT_MSEC_FORMAT : Fields.UTC_FORMAT).getTimeZone());
+        }
+        if (zone != '+' && zone != '-') {
+            return null;
+        }
+        // +hhmm 或 +hh:mm
+        final int offsetLength = end - pos - 1;
+        final int offsetMinute;
+        if (offsetLength == 4 && isDigits(text, pos + 1, end)) {
+            offsetMinute = num2(text, pos + 3);
+        } else if (offsetLength == 5 && text.charAt(pos + 3) == ':'
+                && isDigits(text, pos + 1, pos + 3) && isDigits(text, pos + 4, end)) {
+            offsetMinute = num2(text, pos + 4);
+        } else {
+            return null;
+        }
+        final int offsetHour = num2(text, pos + 1);
+        if (false == valid(year, month, day, hour, minute, second) || offsetHour > 23 || offsetMinute > 59) {
+            return null;
+        }
+        final long local = epochDay(year, month, day) * MILLIS_PER_DAY + timeOfDay(hour, minute, second, millis);
+        final long offset = (zone == '-' ? -1 : 1) * (offsetHour * MILLIS_PER_HOUR + offsetMinute * MILLIS_PER_MINUTE);
+        return new DateTime(local - offset,
+                (withMillis ? Fields.MSEC_FORMAT : Fields.WITH_ZONE_OFFSET_FORMAT).getTimeZone());
+    }
+
+    /**
+     * 按给定时区将本地日期时间转换为{@link DateTime}
+     *
+     * @param year     年
+     * @param month    月,1-12
+     * @param day      日
+     * @param hour     时
+     * @param minute   分
+     * @param second   秒
+     * @param millis   毫秒
+     * @param timeZone 时区
+     * @return {@link DateTime},字段越界或时区偏移不确定时返回{@code null}
+     */
+    private static DateTime local(int year, int month, int day, int hour, int minute, int second, int millis,
+                                  TimeZone timeZone) {
+        if (false == valid(year, month, day, hour, minute, second)) {
+            return null;
+        }
+        final long local = epochDay(year, month, day) * MILLIS_PER_DAY + timeOfDay(hour, minute, second, millis);
+        final long instant = local - timeZone.getOffset(local - timeZone.getRawOffset());
+        // 前后一天内偏移量有变化(夏令时或历史时区调整),交由通用逻辑处理
+        if (timeZone.getOffset(instant - MILLIS_PER_DAY) != timeZone.getOffset(instant + MILLIS_PER_DAY)) {
+            return null;
+        }
+        return new DateTime(instant, timeZone);
+    }
+
+    /**
+     * 校验各字段是否在合法范围内
+     *
+     * @param year   年
+     * @param month  月
+     * @param day    日
+     * @param hour   时
+     * @param minute 分
+     * @param second 秒
+     * @return 是否合法
+     */
+    private static boolean valid(int year, int month, int day, int hour, int minute, int second) {
+        return year >= MIN_YEAR && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+                && hour <= 23 && minute <= 59 && second <= 59;
+    }
+
+    /**
+     * 指定月份的天数
+     *
+     * @param year  年
+     * @param month 月
+     * @return 天数
+     */
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 计算距1970-01-01的天数(格里高利历)
+     *
+     * @param year  年
+     * @param month 月
+     * @param day   日
+     * @return 天数
+     */
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (lengthOfMonth(year, 2) == 28) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static long timeOfDay(int hour, int minute, int second, int millis) {
+        return hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND + millis;
+    }
+
+    private static boolean isDigits(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int num2(CharSequence text, int i) {
+        return (text.charAt(i) - '0') * 10 + (text.charAt(i + 1) - '0');
+    }
+
+    private static int num3(CharSequence text, int i) {
+        return (text.charAt(i) - '0') * 100 + num2(text, i + 1);
+    }
+
+    private static int num4(CharSequence text, int i) {
+        return num2(text, i) * 100 + num2(text, i + 2);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import org.aoju.bus.core.toolkit.IoKit;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 基于{@link FileChannel}的接收器
+ * 写入时直接以段的字节数组包装为{@link java.nio.ByteBuffer}交给通道,不经过输出流;
+ * 从其他通道接收数据时使用{@link FileChannel#transferFrom}由操作系统完成零拷贝
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public final class FileSink implements Sink {
+
+    private final FileChannel channel;
+    private final Timeout timeout = new Timeout();
+
+    /**
+     * 下一个要写入的字节在文件中的位置
+     */
+    private long position;
+    private boolean closed;
+
+    /**
+     * 构造,从通道当前位置开始写入
+     *
+     * @param channel 文件通道,关闭此接收器时一并关闭
+     * @throws IOException IO异常
+     */
+    public FileSink(FileChannel channel) throws IOException {
+        this(channel, channel.position());
+    }
+
+    /**
+     * 构造
+     *
+     * @param channel  文件通道,关闭此接收器时一并关闭
+     * @param position 起始写入位置
+     */
+    public FileSink(FileChannel channel, long position) {
+        if (channel == null) throw new IllegalArgumentException("channel == null");
+        if (position < 0) throw new IllegalArgumentException("position < 0: " + position);
+        this.channel = channel;
+        this.position = position;
+    }
+
+    @Override
+    public void write(Buffer source, long byteCount) throws IOException {
+        if (closed) throw new IllegalStateException("closed");
+        IoKit.checkOffsetAndCount(source.size, 0, byteCount);
+        while (byteCount > 0) {
+            timeout.throwIfReached();
+            Segment head = source.head;
+            int toCopy = (int) Math.min(byteCount, head.limit - head.pos);
+            java.nio.ByteBuffer data = java.nio.ByteBuffer.wrap(head.data, head.pos, toCopy);
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+
+            head.pos += toCopy;
+            byteCount -= toCopy;
+            source.size -= toCopy;
+
+            if (head.pos == head.limit) {
+                source.head = head.pop();
+                LifeCycle.recycle(head);
+            }
+        }
+    }
+
+    /**
+     * 从{@code source}读取最多{@code byteCount}字节写入文件,
+     * 由{@link FileChannel#transferFrom}完成,数据不经过JVM堆
+     * 数据源耗尽或非阻塞通道暂无数据时提前返回
+     *
+     * @param source    数据源通道,如文件或套接字通道
+     * @param byteCount 最大字节数
+     * @return 写入的字节数
+     * @throws IOException IO异常
+     */
+    public long transferFrom(ReadableByteChannel source, long byteCount) throws IOException {
+        if (source == null) throw new IllegalArgumentException("source == null");
+        if (byteCount < 0) throw new IllegalArgumentException("byteCount < 0: " + byteCount);
+        if (closed) throw new IllegalStateException("closed");
+        long total = 0;
+        while (total < byteCount) {
+            timeout.throwIfReached();
+            long transferred = channel.transferFrom(source, position, byteCount - total);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            total += transferred;
+        }
+        return total;
+    }
+
+    /**
+     * @return 下一个要写入的字节在文件中的位置
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 数据已直接写入通道,无需刷新;如需落盘使用{@link #force(boolean)}
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * 将写入的数据强制同步到存储设备
+     *
+     * @param metaData 是否同时同步文件元数据
+     * @throws IOException IO异常
+     */
+    public void force(boolean metaData) throws IOException {
+        channel.force(metaData);
+    }
+
+    @Override
+    public Timeout timeout() {
+        return timeout;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "sink(" + channel + ")";
+    }
+
+}
@@ -0,0 +1,212 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 基于{@link FileChannel}的数据源
+ * 按窗口将文件映射为{@link MappedByteBuffer},读取时直接从映射区域写入{@link Buffer}的段,
+ * 不经过输入流和中间缓冲;写往其他通道时使用{@link FileChannel#transferTo}由操作系统完成零拷贝
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public final class FileSource implements Source {
+
+    /**
+     * 默认映射窗口大小
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final int windowSize;
+    private final Timeout timeout = new Timeout();
+
+    /**
+     * 下一个要读取的字节在文件中的位置
+     */
+    private long position;
+    /**
+     * 当前映射窗口,其位置0对应文件中的{@code windowStart}
+     */
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean closed;
+
+    /**
+     * 构造,读取整个文件
+     *
+     * @param channel 文件通道,关闭此源时一并关闭
+     * @throws IOException IO异常
+     */
+    public FileSource(FileChannel channel) throws IOException {
+        this(channel, 0, channel.size(), DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * 构造
+     *
+     * @param channel    文件通道,关闭此源时一并关闭
+     * @param position   起始位置
+     * @param byteCount  读取的字节数,超出文件末尾的部分忽略
+     * @param windowSize 映射窗口大小
+     * @throws IOException IO异常
+     */
+    public FileSource(FileChannel channel, long position, long byteCount, int windowSize) throws IOException {
+        if (channel == null) throw new IllegalArgumentException("channel == null");
+        if (position < 0) throw new IllegalArgumentException("position < 0: " + position);
+        if (byteCount < 0) throw new IllegalArgumentException("byteCount < 0: " + byteCount);
+        if (windowSize < Segment.SIZE) throw new IllegalArgumentException("windowSize < " + Segment.SIZE + ": " + windowSize);
+        this.channel = channel;
+        this.position = position;
+        this.end = Math.min(channel.size(), position + byteCount);
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+        if (sink == null) throw new IllegalArgumentException("sink == null");
+        if (byteCount < 0) throw new IllegalArgumentException("byteCount < 0: " + byteCount);
+        if (closed) throw new IllegalStateException("closed");
+        if (position >= end) return -1;
+        if (byteCount == 0) return 0;
+        timeout.throwIfReached();
+
+        final MappedByteBuffer window = window();
+        window.position((int) (position - windowStart));
+        long remaining = Math.min(byteCount, Math.min(end - position, window.remaining()));
+        final long total = remaining;
+        while (remaining > 0) {
+            Segment tail = sink.writableSegment(1);
+            int toCopy = (int) Math.min(remaining, Segment.SIZE - tail.limit);
+            window.get(tail.data, tail.limit, toCopy);
+            tail.limit += toCopy;
+            remaining -= toCopy;
+        }
+        sink.size += total;
+        position += total;
+        return total;
+    }
+
+    /**
+     * 将剩余数据写往{@code target},由{@link FileChannel#transferTo}完成,数据不经过JVM堆
+     * 非阻塞通道暂时无法写入时提前返回,可再次调用继续写入
+     *
+     * @param target 目标通道,如文件或套接字通道
+     * @return 本次写入的字节数
+     * @throws IOException IO异常
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        if (target == null) throw new IllegalArgumentException("target == null");
+        if (closed) throw new IllegalStateException("closed");
+        long total = 0;
+        while (position < end) {
+            timeout.throwIfReached();
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            total += transferred;
+        }
+        return total;
+    }
+
+    /**
+     * 以只读映射的形式取出接下来的{@code byteCount}字节并跳过它们
+     * 返回的缓冲区直接引用文件映射,适合摘要计算或写入通道等不需要复制到堆上的场景
+     *
+     * @param byteCount 字节数,不超过剩余字节数和映射窗口大小
+     * @return 只读映射区域, 已读完时为null
+     * @throws IOException IO异常
+     */
+    public java.nio.ByteBuffer region(int byteCount) throws IOException {
+        if (byteCount < 0) throw new IllegalArgumentException("byteCount < 0: " + byteCount);
+        if (closed) throw new IllegalStateException("closed");
+        if (position >= end) return null;
+        final int length = (int) Math.min(Math.min(byteCount, windowSize), end - position);
+        final java.nio.ByteBuffer region;
+        if (window != null && position >= windowStart && position + length <= windowStart + window.capacity()) {
+            java.nio.ByteBuffer duplicate = window.duplicate();
+            duplicate.position((int) (position - windowStart));
+            duplicate.limit(duplicate.position() + length);
+            region = duplicate.slice();
+        } else {
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+        position += length;
+        return region;
+    }
+
+    /**
+     * @return 下一个要读取的字节在文件中的位置
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return 剩余未读取的字节数
+     */
+    public long remaining() {
+        return Math.max(0, end - position);
+    }
+
+    @Override
+    public Timeout timeout() {
+        return timeout;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        window = null;
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "source(" + channel + ")";
+    }
+
+    /**
+     * 返回包含{@link #position}的映射窗口,必要时重新映射
+     */
+    private MappedByteBuffer window() throws IOException {
+        if (window == null || position < windowStart || position >= windowStart + window.capacity()) {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, end - position));
+        }
+        return window;
+    }
+
+}
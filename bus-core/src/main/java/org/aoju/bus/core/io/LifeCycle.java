@@ -24,9 +24,14 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * 这是避免GC搅动和零填充所必需的
  * 这个池是一个线程安全的静态单例
+ * 池按线程哈希分为多个分片,每个分片通过原子交换加锁,
+ * 分片被其他线程占用时直接分配或丢弃段,不会阻塞
  *
  * @author Kimi Liu
  * @version 6.0.6
@@ -34,39 +39,140 @@ package org.aoju.bus.core.io;
  */
 public final class LifeCycle {
 
-    static final long MAX_SIZE = 64 * 1024;
+    /**
+     * 默认每个分片的最大字节数
+     */
+    static final long SHARD_SIZE = 64 * 1024;
+
+    /**
+     * 分片数量,为不小于CPU核数的2的幂
+     */
+    static final int SHARD_COUNT = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    /**
+     * 默认池的最大字节数,可通过系统属性 {@code bus.io.pool.size} 指定
+     */
+    static final long MAX_SIZE = Long.getLong("bus.io.pool.size", SHARD_SIZE * SHARD_COUNT);
+
+    /**
+     * 分片正在被使用的标记,其{@code limit}无意义
+     */
+    static final Segment LOCK = new Segment(new byte[0], 0, 0, false, false);
+
+    /**
+     * 每个分片的链表头,头部段的{@code limit}记录该分片缓存的字节数
+     */
+    static final AtomicReferenceArray<Segment> SHARDS = new AtomicReferenceArray<>(SHARD_COUNT);
+
+    static final LongAdder HITS = new LongAdder();
 
-    static Segment next;
+    static final LongAdder MISSES = new LongAdder();
 
-    static long byteCount;
+    /**
+     * 每个分片的最大字节数
+     */
+    static volatile long shardCapacity = MAX_SIZE / SHARD_COUNT;
 
     private LifeCycle() {
 
     }
 
     public static Segment take() {
-        synchronized (LifeCycle.class) {
-            if (next != null) {
-                Segment result = next;
-                next = result.next;
-                result.next = null;
-                byteCount -= Segment.SIZE;
-                return result;
-            }
+        int index = shard();
+        Segment first = SHARDS.getAndSet(index, LOCK);
+        if (first == LOCK) {
+            // 分片正被其他线程使用,直接分配
+            MISSES.increment();
+            return new Segment();
+        }
+        if (first == null) {
+            SHARDS.set(index, null);
+            MISSES.increment();
+            return new Segment();
         }
-        return new Segment();
+        SHARDS.set(index, first.next);
+        first.next = null;
+        first.limit = 0;
+        HITS.increment();
+        return first;
     }
 
     public static void recycle(Segment segment) {
         if (segment.next != null || segment.prev != null) throw new IllegalArgumentException();
         if (segment.shared) return;
-        synchronized (LifeCycle.class) {
-            if (byteCount + Segment.SIZE > MAX_SIZE) return;
-            byteCount += Segment.SIZE;
-            segment.next = next;
-            segment.pos = segment.limit = 0;
-            next = segment;
+        int index = shard();
+        Segment first = SHARDS.getAndSet(index, LOCK);
+        if (first == LOCK) {
+            // 分片正被其他线程使用,丢弃该段
+            return;
+        }
+        int firstLimit = first != null ? first.limit : 0;
+        if (firstLimit + Segment.SIZE > shardCapacity) {
+            SHARDS.set(index, first);
+            return;
         }
+        segment.next = first;
+        segment.pos = 0;
+        segment.limit = firstLimit + Segment.SIZE;
+        SHARDS.set(index, segment);
+    }
+
+    /**
+     * 设置池的最大字节数,平均分配到各个分片
+     * 已缓存的段在被取出前不受影响
+     *
+     * @param maxSize 最大字节数
+     */
+    public static void setMaxSize(long maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize < 0: " + maxSize);
+        shardCapacity = maxSize / SHARD_COUNT;
+    }
+
+    /**
+     * 池的最大字节数
+     *
+     * @return 最大字节数
+     */
+    public static long maxSize() {
+        return shardCapacity * SHARD_COUNT;
+    }
+
+    /**
+     * 当前池中缓存的字节数,正被使用的分片不计入
+     *
+     * @return 字节数
+     */
+    public static long byteCount() {
+        long result = 0;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            Segment first = SHARDS.get(i);
+            if (first != null && first != LOCK) {
+                result += first.limit;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从池中取到段的次数
+     *
+     * @return 命中次数
+     */
+    public static long hitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * 池中无可用段而新分配的次数
+     *
+     * @return 未命中次数
+     */
+    public static long missCount() {
+        return MISSES.sum();
+    }
+
+    private static int shard() {
+        return (int) (Thread.currentThread().getId() & (SHARD_COUNT - 1));
     }
 
 }
@@ -24,210 +24,226 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.BooleanSupplier;
 
 /**
+ * 基于序号的无锁环形缓冲区
+ * 生产者和消费者分别通过CAS递增各自的游标认领序号,
+ * 每个槽位以 {@code 序号 * 4 + 状态} 记录所处的轮次和读写状态,
+ * 容量向上取整为2的幂
+ *
  * @author Kimi Liu
  * @version 6.0.6
  * @since JDK 1.8+
  */
 public final class RingBuffer<T> {
 
-    private static final byte READABLE = 1, READING = 1 << 1, WRITEABLE = 1 << 2, WRITING = 1 << 3;
-    /**
-     * 排队的项目
-     */
-    private final Node<T>[] items;
+    private static final long WRITEABLE = 0, WRITING = 1, READABLE = 2, READING = 3;
+
+    private final int mask;
+
     /**
-     * 主锁保护所有入口
+     * 轮次步长,槽位读完后状态增加该值进入下一轮
      */
-    private final ReentrantLock lock;
+    private final long lap;
+
+    private final Object[] entries;
+
+    private final AtomicLongArray states;
+
     /**
-     * 等待条件
+     * 下一个待认领的写序号
      */
-    private final Condition notEmpty;
+    private final Cursor writeCursor = new Cursor();
+
     /**
-     * 等待权条件
+     * 下一个待认领的读序号
      */
-    private final Condition notFull;
+    private final Cursor readCursor = new Cursor();
+
+    private final Producer producer;
+
+    private final WaitStrategy waitStrategy;
+
+    private final EventFactory<T> eventFactory;
+
     /**
-     * 项目索引为下一次采取，投票删除
+     * 下一个写序号的槽位是否可写,供等待策略挂起前复查
      */
-    private int takeIndex;
+    private final BooleanSupplier writeable = this::isWriteable;
+
     /**
-     * 项目索引的下一个出售，出价，或增加
+     * 下一个读序号的槽位是否可读,供等待策略挂起前复查
      */
-    private int putIndex;
-    private volatile boolean needFullSingle = false;
-
-    private volatile boolean needEmptySingle = false;
-
-    private EventFactory<T> eventFactory;
+    private final BooleanSupplier readable = this::isReadable;
 
     public RingBuffer(int capacity, EventFactory<T> factory) {
-        if (capacity <= 0)
+        this(capacity, factory, Producer.MULTI, new WaitStrategy.Blocking());
+    }
+
+    /**
+     * @param capacity     容量,向上取整为2的幂
+     * @param factory      事件工厂
+     * @param producer     生产者模式
+     * @param waitStrategy 无可用槽位时的等待策略
+     */
+    public RingBuffer(int capacity, EventFactory<T> factory, Producer producer, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > 1 << 30)
             throw new IllegalArgumentException();
-        this.items = new Node[capacity];
-        lock = new ReentrantLock(false);
-        notEmpty = lock.newCondition();
-        notFull = lock.newCondition();
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.lap = (long) size << 2;
+        this.entries = new Object[size];
+        this.states = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.newInstance();
+            states.set(i, (long) i << 2);
+        }
+        this.producer = producer;
+        this.waitStrategy = waitStrategy;
         this.eventFactory = factory;
     }
 
     public int nextWriteIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node<T>[] items = this.items;
-            Node<T> node = items[putIndex];
-            if (node == null) {
-                node = new Node<>(eventFactory.newInstance());
-                node.status = WRITEABLE;
-                items[putIndex] = node;
-            }
-            while (node.status != WRITEABLE) {
-                notFull.await();
-                notFullSignal();
-                node = items[putIndex];
-            }
-
-            node.status = WRITING;
-            int index = putIndex;
-            if (++putIndex == items.length)
-                putIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
+        int counter = 0;
+        int index;
+        while ((index = tryNextWriteIndex()) < 0) {
+            counter = waitStrategy.idle(counter, writeable);
         }
+        return index;
     }
 
     public int tryNextWriteIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node<T>[] items = this.items;
-            Node<T> node = items[putIndex];
-            if (node == null) {
-                node = new Node<>(eventFactory.newInstance());
-                node.status = WRITEABLE;
-                items[putIndex] = node;
+        long sequence = writeCursor.value;
+        while (true) {
+            int index = (int) sequence & mask;
+            if (states.get(index) != sequence << 2) {
+                // 槽位仍未被读完,缓冲区已满
+                if (producer == Producer.SINGLE) {
+                    return -1;
+                }
+                long current = writeCursor.value;
+                if (current == sequence) {
+                    return -1;
+                }
+                sequence = current;
+                continue;
             }
-            if (node.status != WRITEABLE) {
-                return -1;
+            if (producer == Producer.SINGLE) {
+                writeCursor.lazySet(sequence + 1);
+            } else if (!writeCursor.compareAndSet(sequence, sequence + 1)) {
+                sequence = writeCursor.value;
+                continue;
             }
-
-            node.status = WRITING;
-            int index = putIndex;
-            if (++putIndex == items.length)
-                putIndex = 0;
+            states.lazySet(index, (sequence << 2) | WRITING);
             return index;
-        } finally {
-            lock.unlock();
         }
     }
 
     public void publishWriteIndex(int sequence) {
-        Node<T> node = items[sequence];
-        if (node.status != WRITING) {
-            throw new RuntimeException("invalid status");
-        }
-        node.status = READABLE;
-        final ReentrantLock lock = this.lock;
-        needEmptySingle = true;
-        if (lock.tryLock()) {
-            try {
-                notFullSignal();
-            } finally {
-                lock.unlock();
-            }
+        long state = states.get(sequence);
+        if ((state & 3) != WRITING) {
+            throw new IllegalStateException("invalid status");
         }
+        states.set(sequence, (state & ~3L) | READABLE);
+        waitStrategy.signalAll();
     }
 
     public T get(int sequence) {
-        return items[sequence].entity;
+        return (T) entries[sequence];
     }
 
     public int tryNextReadIndex() {
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            notFullSignal();
-            final Node[] items = this.items;
-            Node x = items[takeIndex];
-            if (x == null || x.status != READABLE) {
-                return -1;
+        long sequence = readCursor.value;
+        while (true) {
+            int index = (int) sequence & mask;
+            if (states.get(index) != ((sequence << 2) | READABLE)) {
+                // 槽位尚未发布,缓冲区为空
+                long current = readCursor.value;
+                if (current == sequence) {
+                    return -1;
+                }
+                sequence = current;
+                continue;
+            }
+            if (!readCursor.compareAndSet(sequence, sequence + 1)) {
+                sequence = readCursor.value;
+                continue;
             }
-            x.status = READING;
-            int index = takeIndex;
-            if (++takeIndex == items.length)
-                takeIndex = 0;
+            states.lazySet(index, (sequence << 2) | READING);
             return index;
-        } finally {
-            lock.unlock();
         }
     }
 
     public int nextReadIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node[] items = this.items;
-            Node x = items[takeIndex];
-            while (x == null || x.status != READABLE) {
-                notEmpty.await();
-                notFullSignal();
-                x = items[takeIndex];
-            }
-            x.status = READING;
-            int index = takeIndex;
-            if (++takeIndex == items.length)
-                takeIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
+        int counter = 0;
+        int index;
+        while ((index = tryNextReadIndex()) < 0) {
+            counter = waitStrategy.idle(counter, readable);
         }
+        return index;
     }
 
-    private void notFullSignal() {
-        if (needFullSingle) {
-            notFull.signal();
-            needFullSingle = false;
-        }
-        if (needEmptySingle) {
-            notEmpty.signal();
-            needEmptySingle = false;
+    public void publishReadIndex(int sequence) {
+        long state = states.get(sequence);
+        if ((state & 3) != READING) {
+            throw new IllegalStateException("invalid status");
         }
+        eventFactory.restEntity((T) entries[sequence]);
+        states.set(sequence, (state & ~3L) + lap);
+        waitStrategy.signalAll();
     }
 
-    public void publishReadIndex(int sequence) {
-        Node<T> node = items[sequence];
-        if (node.status != READING) {
-            throw new RuntimeException("invalid status");
-        }
-        eventFactory.restEntity(node.entity);
-        node.status = WRITEABLE;
-        final ReentrantLock lock = this.lock;
-        needFullSingle = true;
-        if (lock.tryLock()) {
-            try {
-                notFullSignal();
-            } finally {
-                lock.unlock();
-            }
-        }
+    private boolean isWriteable() {
+        long sequence = writeCursor.value;
+        return states.get((int) sequence & mask) == sequence << 2;
     }
 
-    class Node<T1> {
+    private boolean isReadable() {
+        long sequence = readCursor.value;
+        return states.get((int) sequence & mask) == ((sequence << 2) | READABLE);
+    }
 
-        byte status;
-        T1 entity;
+    /**
+     * 生产者模式
+     */
+    public enum Producer {
+        /**
+         * 只有一个线程写入,认领序号无需CAS
+         */
+        SINGLE,
+        /**
+         * 多个线程并发写入
+         */
+        MULTI
+    }
+
+    static class LeftPadding {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    static class CursorValue extends LeftPadding {
+        volatile long value;
+    }
+
+    /**
+     * 前后填充的游标,避免与相邻字段伪共享
+     */
+    static final class Cursor extends CursorValue {
+
+        private static final AtomicLongFieldUpdater<CursorValue> UPDATER =
+                AtomicLongFieldUpdater.newUpdater(CursorValue.class, "value");
+
+        long p9, p10, p11, p12, p13, p14, p15;
+
+        boolean compareAndSet(long expect, long update) {
+            return UPDATER.compareAndSet(this, expect, update);
+        }
 
-        Node(T1 entity) {
-            this.entity = entity;
+        void lazySet(long update) {
+            UPDATER.lazySet(this, update);
         }
     }
 
@@ -0,0 +1,189 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link RingBuffer} 无可用槽位时的等待策略
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待一次,随后调用方重新检查槽位
+     *
+     * @param counter 本次等待前已等待的次数
+     * @param ready   槽位是否已可用,挂起前据此复查,避免错过检查之后发生的唤醒
+     * @return 新的等待次数
+     * @throws InterruptedException 等待被中断
+     */
+    int idle(int counter, BooleanSupplier ready) throws InterruptedException;
+
+    /**
+     * 槽位状态变化后唤醒等待的线程
+     */
+    void signalAll();
+
+    /**
+     * 忙等,延迟最低但持续占用CPU
+     */
+    final class BusySpin implements WaitStrategy {
+
+        @Override
+        public int idle(int counter, BooleanSupplier ready) {
+            return counter + 1;
+        }
+
+        @Override
+        public void signalAll() {
+
+        }
+    }
+
+    /**
+     * 自旋一定次数后让出CPU
+     */
+    final class Yielding implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public int idle(int counter, BooleanSupplier ready) {
+            if (counter >= SPIN_TRIES) {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+
+        @Override
+        public void signalAll() {
+
+        }
+    }
+
+    /**
+     * 自旋、让出CPU后按固定间隔挂起
+     */
+    final class Parking implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        private static final int YIELD_TRIES = 200;
+
+        private final long parkNanos;
+
+        public Parking() {
+            this(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        /**
+         * @param parkNanos 每次挂起的纳秒数
+         */
+        public Parking(long parkNanos) {
+            this.parkNanos = parkNanos;
+        }
+
+        @Override
+        public int idle(int counter, BooleanSupplier ready) throws InterruptedException {
+            if (counter >= YIELD_TRIES) {
+                LockSupport.parkNanos(parkNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            } else if (counter >= SPIN_TRIES) {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+
+        @Override
+        public void signalAll() {
+
+        }
+    }
+
+    /**
+     * 基于锁和条件的等待,短暂让出CPU后挂起,空闲时不占用CPU
+     * 等待方先登记再于锁内复查槽位,唤醒方先发布槽位状态再读取登记数,两者均为volatile访问,
+     * 因此唤醒方要么看到登记而加锁唤醒,要么等待方在复查时看到已发布的状态,唤醒不会丢失
+     */
+    final class Blocking implements WaitStrategy {
+
+        /**
+         * 挂起前让出CPU的次数,短暂空闲时无需加锁挂起
+         */
+        private static final int YIELD_TRIES = 100;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition condition = lock.newCondition();
+
+        /**
+         * 等待中的线程数,为0时唤醒无需加锁,仅在锁内修改
+         */
+        private volatile int waiters;
+
+        @Override
+        public int idle(int counter, BooleanSupplier ready) throws InterruptedException {
+            if (counter < YIELD_TRIES) {
+                Thread.yield();
+                return counter + 1;
+            }
+            lock.lockInterruptibly();
+            try {
+                waiters++;
+                while (!ready.getAsBoolean()) {
+                    condition.await();
+                }
+            } finally {
+                waiters--;
+                lock.unlock();
+            }
+            return counter + 1;
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                condition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+}
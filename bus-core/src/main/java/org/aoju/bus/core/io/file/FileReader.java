@@ -24,6 +24,7 @@
  ********************************************************************************/
 package org.aoju.bus.core.io.file;
 
+import org.aoju.bus.core.io.FileSource;
 import org.aoju.bus.core.io.LineHandler;
 import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.exception.InstrumentException;
@@ -32,9 +33,12 @@ import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.core.toolkit.StringKit;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 文件读取器
@@ -222,6 +226,27 @@ public class FileReader extends FileWrapper {
         return readLines(new ArrayList<>());
     }
 
+    /**
+     * 按窗口映射文件并依次处理每个窗口,映射在回收前不会释放,注意事项见 {@link FileKit#readMapped(File, Consumer)}
+     * 适合超大文件的摘要计算、扫描或写往通道
+     * 处理器收到的缓冲区仅在回调期间有效,不应在回调之外保留
+     *
+     * @param windowSize 映射窗口大小
+     * @param handler    窗口处理器
+     * @throws InstrumentException 异常
+     */
+    public void readMapped(int windowSize, Consumer<java.nio.ByteBuffer> handler) throws InstrumentException {
+        try (FileSource source = new FileSource(FileChannel.open(this.file.toPath(), StandardOpenOption.READ),
+                0, Long.MAX_VALUE, windowSize)) {
+            java.nio.ByteBuffer region;
+            while (null != (region = source.region(windowSize))) {
+                handler.accept(region);
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
     /**
      * 按照给定的readerHandler读取文件中的数据
      *
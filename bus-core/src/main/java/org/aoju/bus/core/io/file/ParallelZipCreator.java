@@ -0,0 +1,619 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io.file;
+
+import org.aoju.bus.core.io.StreamProgress;
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 并行Zip压缩
+ * 条目按块在线程池中压缩,调用线程按添加顺序把结果拼接为标准Zip文件:
+ * <pre>
+ *    1. 小文件整个作为一个块,多个文件并行压缩
+ *    2. 大文件按{@code blockSize}切块,每块以前一块末尾32KB为预置字典独立压缩,
+ *       除最后一块外以SYNC_FLUSH结束,拼接后即为一个完整的deflate流(与pigz相同)
+ *    3. 各块CRC32在工作线程计算,写出时合并
+ *    4. 条目大小、偏移或数量超出限制时自动使用ZIP64格式
+ * </pre>
+ * 同时在途的块数量有上限,内存占用与文件总大小无关
+ * 非线程安全,应由单个线程添加条目
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class ParallelZipCreator implements Closeable {
+
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    /**
+     * 原始大小超过此值的条目在本地文件头中预留ZIP64大小字段
+     */
+    private static final long ZIP64_THRESHOLD = 0xF0000000L;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_UTF8 = 1 << 11;
+
+    private final FileChannel channel;
+    private final java.nio.charset.Charset charset;
+    private final ExecutorService executor;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+    private final StreamProgress progress;
+
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    private final List<Entry> written = new ArrayList<>();
+    private final ByteBuffer header = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * 已提交尚未写出的块数
+     */
+    private int pendingBlocks;
+    private long position;
+    private long progressSize;
+    private boolean finished;
+
+    /**
+     * 构造
+     *
+     * @param zipFile  生成的Zip文件,已存在时覆盖
+     * @param charset  条目名称编码
+     * @param executor 压缩使用的线程池,不会被关闭
+     * @param level    压缩级别,0~9
+     * @param progress 进度回调,报告已压缩的原始字节数,可为null
+     * @throws InstrumentException IO异常
+     */
+    public ParallelZipCreator(File zipFile, java.nio.charset.Charset charset, ExecutorService executor, int level, StreamProgress progress) throws InstrumentException {
+        this(zipFile, charset, executor, level, DEFAULT_BLOCK_SIZE, progress);
+    }
+
+    /**
+     * 构造
+     *
+     * @param zipFile   生成的Zip文件,已存在时覆盖
+     * @param charset   条目名称编码
+     * @param executor  压缩使用的线程池,不会被关闭
+     * @param level     压缩级别,0~9
+     * @param blockSize 块大小,不小于64KB
+     * @param progress  进度回调,报告已压缩的原始字节数,可为null
+     * @throws InstrumentException IO异常
+     */
+    public ParallelZipCreator(File zipFile, java.nio.charset.Charset charset, ExecutorService executor, int level, int blockSize, StreamProgress progress) throws InstrumentException {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        if (blockSize < 2 * DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Block size must not be less than " + 2 * DICTIONARY_SIZE);
+        }
+        this.charset = null == charset ? Charset.DEFAULT : charset;
+        this.executor = executor;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+        this.progress = progress;
+        try {
+            this.channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        if (null != progress) {
+            progress.start();
+        }
+    }
+
+    /**
+     * 添加目录条目
+     *
+     * @param path 在压缩文件中的路径
+     * @throws InstrumentException IO异常
+     */
+    public void addDirectory(String path) throws InstrumentException {
+        checkNotFinished();
+        final Entry entry = new Entry(StringKit.addSuffixIfNot(path, Symbol.SLASH), System.currentTimeMillis(), 0, null);
+        pending.add(entry);
+        drain(false);
+    }
+
+    /**
+     * 添加文件条目,文件内容在线程池中压缩
+     *
+     * @param path 在压缩文件中的路径
+     * @param file 文件
+     * @throws InstrumentException IO异常
+     */
+    public void addFile(String path, File file) throws InstrumentException {
+        checkNotFinished();
+        final FileChannel source;
+        final long length;
+        try {
+            source = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            length = source.size();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        final Entry entry = new Entry(path, file.lastModified(), length, source);
+        pending.add(entry);
+        final int count = (int) Math.max(1, (length + blockSize - 1) / blockSize);
+        for (int i = 0; i < count; i++) {
+            while (pendingBlocks >= maxPending) {
+                drain(true);
+            }
+            final long offset = (long) i * blockSize;
+            final int size = (int) Math.min(blockSize, length - offset);
+            final boolean last = i == count - 1;
+            entry.blocks.add(executor.submit(() -> compress(source, offset, size, last)));
+            pendingBlocks++;
+        }
+        entry.submitted = true;
+        drain(false);
+    }
+
+    /**
+     * 写出剩余条目和中央目录并关闭文件
+     *
+     * @throws InstrumentException IO异常
+     */
+    public void finish() throws InstrumentException {
+        if (finished) {
+            return;
+        }
+        while (false == pending.isEmpty()) {
+            drain(true);
+        }
+        try {
+            writeCentralDirectory();
+            channel.close();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        finished = true;
+        if (null != progress) {
+            progress.finish();
+        }
+    }
+
+    /**
+     * 放弃未写出的条目并关闭文件,未调用{@link #finish()}时生成的文件不完整
+     */
+    @Override
+    public void close() {
+        for (Entry entry : pending) {
+            for (Future<Block> block : entry.blocks) {
+                block.cancel(true);
+            }
+            IoKit.close(entry.source);
+        }
+        pending.clear();
+        IoKit.close(channel);
+    }
+
+    /**
+     * 按顺序写出队首条目中已完成的块
+     *
+     * @param wait 是否等待队首的块完成
+     */
+    private void drain(boolean wait) throws InstrumentException {
+        try {
+            while (false == pending.isEmpty()) {
+                final Entry entry = pending.peek();
+                if (false == entry.headerWritten) {
+                    writeLocalHeader(entry);
+                }
+                while (entry.nextBlock < entry.blocks.size()) {
+                    final Future<Block> future = entry.blocks.get(entry.nextBlock);
+                    if (false == wait && false == future.isDone()) {
+                        return;
+                    }
+                    writeBlock(entry, future.get());
+                    entry.blocks.set(entry.nextBlock++, null);
+                    pendingBlocks--;
+                    wait = false;
+                }
+                if (null != entry.source && false == entry.submitted) {
+                    // 当前正在添加的条目,后续块尚未提交
+                    return;
+                }
+                completeEntry(pending.poll());
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            throw new InstrumentException(e.getCause());
+        }
+    }
+
+    private void writeBlock(Entry entry, Block block) throws IOException {
+        writeFully(ByteBuffer.wrap(block.data, 0, block.length));
+        entry.crc = entry.nextBlock == 0 ? block.crc : combine(entry.crc, block.crc, block.rawLength);
+        entry.compressedSize += block.length;
+        progressSize += block.rawLength;
+        if (null != progress) {
+            progress.progress(progressSize);
+        }
+    }
+
+    private void writeLocalHeader(Entry entry) throws IOException {
+        entry.offset = position;
+        final boolean zip64 = entry.size >= ZIP64_THRESHOLD;
+        header.clear();
+        header.putInt(LOCAL_HEADER);
+        header.putShort((short) (zip64 ? 45 : 20));
+        header.putShort((short) entry.flags);
+        header.putShort((short) entry.method);
+        header.putInt(entry.dosTime);
+        // CRC和大小在条目写完后回填
+        header.putInt(0);
+        header.putInt(zip64 ? (int) ZIP64_MAGIC : 0);
+        header.putInt(zip64 ? (int) ZIP64_MAGIC : 0);
+        header.putShort((short) entry.name.length);
+        header.putShort((short) (zip64 ? 20 : 0));
+        writeHeader(entry.name);
+        if (zip64) {
+            header.putShort((short) 0x0001);
+            header.putShort((short) 16);
+            header.putLong(0);
+            header.putLong(0);
+        }
+        writeHeader(null);
+        entry.localZip64 = zip64;
+        entry.headerWritten = true;
+    }
+
+    private void completeEntry(Entry entry) throws IOException {
+        IoKit.close(entry.source);
+        entry.blocks = null;
+        if (null != entry.source) {
+            if (false == entry.localZip64 && entry.compressedSize >= ZIP64_MAGIC) {
+                throw new IOException("Compressed size overflow: " + entry.compressedSize);
+            }
+            header.clear();
+            header.putInt((int) entry.crc);
+            if (entry.localZip64) {
+                header.flip();
+                writeAt(header, entry.offset + 14);
+                header.clear();
+                header.putLong(entry.size);
+                header.putLong(entry.compressedSize);
+                header.flip();
+                writeAt(header, entry.offset + 30 + entry.name.length + 4);
+            } else {
+                header.putInt((int) entry.compressedSize);
+                header.putInt((int) entry.size);
+                header.flip();
+                writeAt(header, entry.offset + 14);
+            }
+        }
+        entry.source = null;
+        written.add(entry);
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        final long start = position;
+        for (Entry entry : written) {
+            final boolean sizes64 = entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+            final boolean offset64 = entry.offset >= ZIP64_MAGIC;
+            final int extra = (sizes64 ? 16 : 0) + (offset64 ? 8 : 0);
+            header.clear();
+            header.putInt(CENTRAL_HEADER);
+            header.putShort((short) (extra > 0 ? 45 : 20));
+            header.putShort((short) (extra > 0 ? 45 : 20));
+            header.putShort((short) entry.flags);
+            header.putShort((short) entry.method);
+            header.putInt(entry.dosTime);
+            header.putInt((int) entry.crc);
+            header.putInt((int) (sizes64 ? ZIP64_MAGIC : entry.compressedSize));
+            header.putInt((int) (sizes64 ? ZIP64_MAGIC : entry.size));
+            header.putShort((short) entry.name.length);
+            header.putShort((short) (extra > 0 ? extra + 4 : 0));
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putInt(0);
+            header.putInt((int) (offset64 ? ZIP64_MAGIC : entry.offset));
+            writeHeader(entry.name);
+            if (extra > 0) {
+                header.putShort((short) 0x0001);
+                header.putShort((short) extra);
+                if (sizes64) {
+                    header.putLong(entry.size);
+                    header.putLong(entry.compressedSize);
+                }
+                if (offset64) {
+                    header.putLong(entry.offset);
+                }
+            }
+            writeHeader(null);
+        }
+        final long end = position;
+        final long count = written.size();
+        final long size = end - start;
+        header.clear();
+        if (count >= 0xFFFF || size >= ZIP64_MAGIC || start >= ZIP64_MAGIC) {
+            header.putInt(ZIP64_END_HEADER);
+            header.putLong(44);
+            header.putShort((short) 45);
+            header.putShort((short) 45);
+            header.putInt(0);
+            header.putInt(0);
+            header.putLong(count);
+            header.putLong(count);
+            header.putLong(size);
+            header.putLong(start);
+            header.putInt(ZIP64_LOCATOR);
+            header.putInt(0);
+            header.putLong(end);
+            header.putInt(1);
+        }
+        header.putInt(END_HEADER);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) Math.min(count, 0xFFFF));
+        header.putShort((short) Math.min(count, 0xFFFF));
+        header.putInt((int) Math.min(size, ZIP64_MAGIC));
+        header.putInt((int) Math.min(start, ZIP64_MAGIC));
+        header.putShort((short) 0);
+        writeHeader(null);
+    }
+
+    /**
+     * 追加名称(可为null)后写出{@link #header}中的内容
+     */
+    private void writeHeader(byte[] name) throws IOException {
+        header.flip();
+        writeFully(header);
+        header.clear();
+        if (null != name) {
+            writeFully(ByteBuffer.wrap(name));
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void writeAt(ByteBuffer buffer, long at) throws IOException {
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("Zip file has been finished");
+        }
+    }
+
+    /**
+     * 压缩文件中的一块,非首块以前32KB原始数据作为预置字典
+     */
+    private Block compress(FileChannel source, long offset, int size, boolean last) throws IOException {
+        final int dictionary = (int) Math.min(DICTIONARY_SIZE, offset);
+        final byte[] raw = new byte[dictionary + size];
+        final ByteBuffer buffer = ByteBuffer.wrap(raw);
+        long at = offset - dictionary;
+        while (buffer.hasRemaining()) {
+            final int read = source.read(buffer, at);
+            if (read < 0) {
+                throw new EOFException("File changed during compression");
+            }
+            at += read;
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(raw, dictionary, size);
+
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary > 0) {
+                deflater.setDictionary(raw, 0, dictionary);
+            }
+            deflater.setInput(raw, dictionary, size);
+            byte[] out = new byte[size + (size >>> 12) + (size >>> 14) + 64];
+            int length = 0;
+            if (last) {
+                deflater.finish();
+                while (false == deflater.finished()) {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length << 1);
+                    }
+                    length += deflater.deflate(out, length, out.length - length);
+                }
+            } else {
+                int n;
+                do {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length << 1);
+                    }
+                    n = deflater.deflate(out, length, out.length - length, Deflater.SYNC_FLUSH);
+                    length += n;
+                } while (length == out.length);
+            }
+            return new Block(out, length, crc.getValue(), size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 合并两段数据的CRC32,算法同zlib的crc32_combine
+     *
+     * @param crc1   第一段的CRC
+     * @param crc2   第二段的CRC
+     * @param length 第二段的长度
+     * @return 两段拼接后的CRC
+     */
+    static long combine(long crc1, long crc2, long length) {
+        if (length <= 0) {
+            return crc1;
+        }
+        final long[] even = new long[32];
+        final long[] odd = new long[32];
+        odd[0] = 0xEDB88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        square(even, odd);
+        square(odd, even);
+        do {
+            square(even, odd);
+            if ((length & 1) != 0) {
+                crc1 = times(even, crc1);
+            }
+            length >>>= 1;
+            if (length == 0) {
+                break;
+            }
+            square(odd, even);
+            if ((length & 1) != 0) {
+                crc1 = times(odd, crc1);
+            }
+            length >>>= 1;
+        } while (length != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long times(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void square(long[] square, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = times(matrix, matrix[n]);
+        }
+    }
+
+    /**
+     * 转换为DOS格式的日期时间
+     */
+    private static int dosTime(long time) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        final int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (year - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21
+                | calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11
+                | calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+    }
+
+    /**
+     * 压缩后的块
+     */
+    private static final class Block {
+
+        final byte[] data;
+        final int length;
+        final long crc;
+        final int rawLength;
+
+        Block(byte[] data, int length, long crc, int rawLength) {
+            this.data = data;
+            this.length = length;
+            this.crc = crc;
+            this.rawLength = rawLength;
+        }
+
+    }
+
+    /**
+     * 条目,目录条目没有数据源和块
+     */
+    private final class Entry {
+
+        final byte[] name;
+        final int dosTime;
+        final long size;
+        final int method;
+        final int flags;
+        FileChannel source;
+        List<Future<Block>> blocks = new ArrayList<>();
+        boolean submitted;
+        int nextBlock;
+        boolean headerWritten;
+        boolean localZip64;
+        long offset;
+        long crc;
+        long compressedSize;
+
+        Entry(String name, long lastModified, long size, FileChannel source) {
+            this.name = name.getBytes(charset);
+            this.dosTime = dosTime(lastModified);
+            this.size = size;
+            this.source = source;
+            this.method = null == source ? METHOD_STORED : METHOD_DEFLATED;
+            this.flags = Charset.UTF_8.equals(charset) ? FLAG_UTF8 : 0;
+        }
+
+    }
+
+}
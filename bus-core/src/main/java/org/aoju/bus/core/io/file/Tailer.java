@@ -24,23 +24,40 @@
  ********************************************************************************/
 package org.aoju.bus.core.io.file;
 
+import org.aoju.bus.core.io.BatchLineHandler;
 import org.aoju.bus.core.io.LineHandler;
 import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.Console;
 import org.aoju.bus.core.lang.Fields;
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.lang.exception.InstrumentException;
-import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.ThreadKit;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.io.Serializable;
-import java.util.Stack;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.*;
 
 /**
  * 文件内容跟随器，实现类似Linux下"tail -f"命令功能
+ * <pre>
+ *    1. 由{@link WatchService}的文件变更事件唤醒,同时以{@code period}为间隔兜底检查,
+ *       兼容不产生事件的文件系统
+ *    2. 通过{@link FileChannel}按块读取并批量切分行,每次唤醒读到的所有行一次交给{@link BatchLineHandler}
+ *    3. 文件被替换(如按日期滚动)时读完旧文件剩余内容后从头跟随新文件,
+ *       文件被截断时从头读取
+ *    4. 末尾不完整的行会保留到换行符写入后再输出
+ * </pre>
+ * 行以LF分隔,行尾的CR会被去除,编码须兼容ASCII(如UTF-8、GBK)
  *
  * @author Kimi Liu
  * @version 6.0.6
@@ -50,6 +67,19 @@ public class Tailer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 每次读取的块大小
+     */
+    private static final int BLOCK_SIZE = 64 * 1024;
+    /**
+     * 单批最多行数,积压较多时分批交付以限制内存占用
+     */
+    private static final int MAX_BATCH_LINES = 8192;
+
+    /**
+     * 文件路径
+     */
+    private final Path path;
     /**
      * 编码
      */
@@ -57,18 +87,32 @@ public class Tailer implements Serializable {
     /**
      * 行处理器
      */
-    private final LineHandler lineHandler;
+    private final BatchLineHandler lineHandler;
     /**
      * 初始读取的行数
      */
     private final int initReadLine;
     /**
-     * 定时任务检查间隔时长
+     * 无变更事件时的检查间隔
      */
     private final long period;
 
-    private final RandomAccessFile randomAccessFile;
-    private final ScheduledExecutorService executorService;
+    private final ExecutorService executorService;
+
+    private transient FileChannel channel;
+    private transient Object fileKey;
+    private transient ByteBuffer block;
+    /**
+     * 下一个要读取的字节在文件中的位置
+     */
+    private long position;
+    /**
+     * 上次读取剩下的不完整行
+     */
+    private byte[] carry = new byte[0];
+    private int carryLength;
+    private volatile boolean stopped;
+    private transient WatchService watchService;
 
     /**
      * 构造，默认UTF-8编码
@@ -109,16 +153,29 @@ public class Tailer implements Serializable {
      * @param charset      编码
      * @param lineHandler  行处理器
      * @param initReadLine 启动时预读取的行数
-     * @param period       检查间隔
+     * @param period       无变更事件时的检查间隔
      */
     public Tailer(File file, java.nio.charset.Charset charset, LineHandler lineHandler, int initReadLine, long period) {
+        this(file, charset, initReadLine, period, lines -> lines.forEach(lineHandler::handle));
+    }
+
+    /**
+     * 构造
+     *
+     * @param file         文件
+     * @param charset      编码
+     * @param initReadLine 启动时预读取的行数
+     * @param period       无变更事件时的检查间隔
+     * @param lineHandler  批量行处理器,每次唤醒读到的行一次交付
+     */
+    public Tailer(File file, java.nio.charset.Charset charset, int initReadLine, long period, BatchLineHandler lineHandler) {
         checkFile(file);
+        this.path = file.toPath().toAbsolutePath();
         this.charset = charset;
         this.lineHandler = lineHandler;
         this.period = period;
         this.initReadLine = initReadLine;
-        this.randomAccessFile = FileKit.createRandomAccessFile(file, FileMode.r);
-        this.executorService = Executors.newSingleThreadScheduledExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadKit.newNamedThreadFactory("tailer-", true));
     }
 
     /**
@@ -148,23 +205,23 @@ public class Tailer implements Serializable {
      * @param async 是否异步执行
      */
     public void start(boolean async) {
-        // 初始读取
         try {
+            this.block = ByteBuffer.allocate(BLOCK_SIZE);
+            open();
+            this.watchService = this.path.getFileSystem().newWatchService();
+            this.path.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            // 初始读取
             this.readTail();
         } catch (IOException e) {
+            stop();
             throw new InstrumentException(e);
         }
 
-        final LineReadWatcher lineReadWatcher = new LineReadWatcher(this.randomAccessFile, this.charset, this.lineHandler);
-        final ScheduledFuture<?> scheduledFuture = this.executorService.scheduleAtFixedRate(//
-                lineReadWatcher,
-                0,
-                this.period, TimeUnit.MILLISECONDS
-        );
-
+        final Future<?> future = this.executorService.submit(this::watch);
         if (false == async) {
             try {
-                scheduledFuture.get();
+                future.get();
             } catch (ExecutionException | InterruptedException e) {
                 throw new InstrumentException(e);
             }
@@ -172,60 +229,198 @@ public class Tailer implements Serializable {
     }
 
     /**
-     * 预读取行
-     *
-     * @throws IOException IO异常
+     * 停止监听并释放文件
      */
-    private void readTail() throws IOException {
-        final long len = this.randomAccessFile.length();
-
-        if (initReadLine > 0) {
-            Stack<String> stack = new Stack<>();
-
-            long start = this.randomAccessFile.getFilePointer();
-            long nextEnd = len - 1;
-            this.randomAccessFile.seek(nextEnd);
-            int c;
-            int currentLine = 0;
-            while (nextEnd > start) {
-                // 满
-                if (currentLine > initReadLine) {
-                    break;
-                }
+    public void stop() {
+        this.stopped = true;
+        IoKit.close(this.watchService);
+        this.executorService.shutdownNow();
+        IoKit.close(this.channel);
+    }
 
-                c = this.randomAccessFile.read();
-                if (c == Symbol.C_LF || c == Symbol.C_CR) {
-                    final String line = FileKit.readLine(this.randomAccessFile, this.charset);
-                    if (null != line) {
-                        stack.push(line);
+    /**
+     * 等待变更事件或检查间隔到达,然后读取新增内容
+     */
+    private void watch() {
+        final Path fileName = this.path.getFileName();
+        try {
+            while (false == this.stopped) {
+                WatchKey key = this.watchService.poll(this.period, TimeUnit.MILLISECONDS);
+                boolean changed = null == key;
+                // 合并已积压的事件,一次唤醒只读取一次
+                while (null != key) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
                     }
-                    currentLine++;
-                    nextEnd--;
+                    key.reset();
+                    key = this.watchService.poll();
                 }
-                nextEnd--;
-                this.randomAccessFile.seek(nextEnd);
-                if (nextEnd == 0) {
-                    // 当文件指针退至文件开始处，输出第一行
-                    final String line = FileKit.readLine(this.randomAccessFile, this.charset);
-                    if (null != line) {
-                        stack.push(line);
-                    }
-                    break;
+                if (changed) {
+                    check();
                 }
             }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 停止监听
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
 
-            // 输出缓存栈中的内容
-            while (false == stack.isEmpty()) {
-                this.lineHandler.handle(stack.pop());
+    /**
+     * 检查文件替换和截断并读取新增内容
+     *
+     * @throws IOException IO异常
+     */
+    private void check() throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // 滚动过程中文件暂时不存在,读完旧文件剩余内容后等待新文件
+            readNew();
+            return;
+        }
+        if (null != attributes.fileKey() && false == attributes.fileKey().equals(this.fileKey)) {
+            // 文件被替换:读完旧文件,然后从头跟随新文件
+            readNew();
+            flushCarry();
+            IoKit.close(this.channel);
+            open();
+            this.position = 0;
+        } else if (attributes.size() < this.position) {
+            // 文件被截断
+            this.carryLength = 0;
+            this.position = 0;
+        }
+        readNew();
+    }
+
+    /**
+     * 从{@link #position}读取到文件末尾,按批交付完整的行
+     *
+     * @throws IOException IO异常
+     */
+    private void readNew() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        final ByteBuffer block = this.block;
+        int read;
+        while ((read = this.channel.read((ByteBuffer) block.clear(), this.position)) > 0) {
+            this.position += read;
+            split(block.array(), read, lines);
+            if (lines.size() >= MAX_BATCH_LINES) {
+                this.lineHandler.handle(new ArrayList<>(lines));
+                lines.clear();
             }
         }
+        if (false == lines.isEmpty()) {
+            this.lineHandler.handle(lines);
+        }
+    }
 
-        // 将指针置于末尾
-        try {
-            this.randomAccessFile.seek(len);
-        } catch (IOException e) {
-            throw new InstrumentException(e);
+    /**
+     * 切分块中的行,不完整的末尾部分保存到{@link #carry}
+     */
+    private void split(byte[] data, int length, List<String> lines) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (data[i] != Symbol.C_LF) {
+                continue;
+            }
+            if (this.carryLength > 0) {
+                append(data, start, i - start);
+                lines.add(decode(this.carry, 0, this.carryLength));
+                this.carryLength = 0;
+            } else {
+                lines.add(decode(data, start, i - start));
+            }
+            start = i + 1;
+        }
+        if (start < length) {
+            append(data, start, length - start);
+        }
+    }
+
+    /**
+     * 输出保留的不完整行,用于旧文件被替换时
+     */
+    private void flushCarry() {
+        if (this.carryLength > 0) {
+            final List<String> lines = new ArrayList<>(1);
+            lines.add(decode(this.carry, 0, this.carryLength));
+            this.carryLength = 0;
+            this.lineHandler.handle(lines);
+        }
+    }
+
+    private void append(byte[] data, int offset, int length) {
+        if (this.carryLength + length > this.carry.length) {
+            this.carry = Arrays.copyOf(this.carry, Math.max(this.carryLength + length, this.carry.length << 1));
+        }
+        System.arraycopy(data, offset, this.carry, this.carryLength, length);
+        this.carryLength += length;
+    }
+
+    private String decode(byte[] data, int offset, int length) {
+        if (length > 0 && data[offset + length - 1] == Symbol.C_CR) {
+            length--;
+        }
+        return new String(data, offset, length, this.charset);
+    }
+
+    /**
+     * 预读取行,从文件末尾按块向前查找换行符,定位最后{@link #initReadLine}行的起始位置
+     *
+     * @throws IOException IO异常
+     */
+    private void readTail() throws IOException {
+        final long length = this.channel.size();
+        if (this.initReadLine <= 0) {
+            this.position = length;
+            return;
         }
+
+        final ByteBuffer block = this.block;
+        final byte[] data = block.array();
+        long start = 0;
+        // 最后一个换行符之后是不完整的行,不计入行数
+        boolean lastFound = false;
+        int count = 0;
+        long end = length;
+        scan:
+        while (end > 0) {
+            final int size = (int) Math.min(BLOCK_SIZE, end);
+            final long from = end - size;
+            block.clear().limit(size);
+            while (block.hasRemaining()) {
+                if (this.channel.read(block, from + block.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (data[i] != Symbol.C_LF) {
+                    continue;
+                }
+                if (false == lastFound) {
+                    lastFound = true;
+                } else if (++count == this.initReadLine) {
+                    start = from + i + 1;
+                    break scan;
+                }
+            }
+            end = from;
+        }
+        this.position = start;
+        readNew();
+    }
+
+    /**
+     * 打开文件通道并记录文件标识
+     *
+     * @throws IOException IO异常
+     */
+    private void open() throws IOException {
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+        this.fileKey = Files.readAttributes(this.path, BasicFileAttributes.class).fileKey();
     }
 
     /**
@@ -0,0 +1,133 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.key;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 基于数据库表的号段存储,依赖行锁保证多实例间互斥
+ * 表结构示例:
+ * <pre>
+ * CREATE TABLE id_segment (
+ *     biz_tag VARCHAR(128) NOT NULL PRIMARY KEY,
+ *     max_id  BIGINT       NOT NULL
+ * );
+ * </pre>
+ * 业务标识不存在时自动插入
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class JdbcSegmentStore implements SegmentStore {
+
+    private final DataSource dataSource;
+    private final String updateSql;
+    private final String selectSql;
+    private final String insertSql;
+
+    /**
+     * 构造,使用默认表名 id_segment
+     *
+     * @param dataSource 数据源
+     */
+    public JdbcSegmentStore(DataSource dataSource) {
+        this(dataSource, "id_segment");
+    }
+
+    /**
+     * 构造
+     *
+     * @param dataSource 数据源
+     * @param table      表名
+     */
+    public JdbcSegmentStore(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.updateSql = "UPDATE " + table + " SET max_id = max_id + ? WHERE biz_tag = ?";
+        this.selectSql = "SELECT max_id FROM " + table + " WHERE biz_tag = ?";
+        this.insertSql = "INSERT INTO " + table + " (biz_tag, max_id) VALUES (?, ?)";
+    }
+
+    @Override
+    public long allocate(String tag, int step) {
+        try (Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                final long maxId = allocate(conn, tag, step);
+                conn.commit();
+                return maxId;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    private long allocate(Connection conn, String tag, int step) throws SQLException {
+        if (0 == update(conn, tag, step)) {
+            try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                ps.setString(1, tag);
+                ps.setLong(2, step);
+                ps.executeUpdate();
+                return step;
+            } catch (SQLException e) {
+                // 其他实例已插入,重新更新
+                conn.rollback();
+                if (0 == update(conn, tag, step)) {
+                    throw e;
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+            ps.setString(1, tag);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (false == rs.next()) {
+                    throw new InstrumentException("No segment for tag: {}", tag);
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private int update(Connection conn, String tag, int step) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
+            ps.setLong(1, step);
+            ps.setString(2, tag);
+            return ps.executeUpdate();
+        }
+    }
+
+}
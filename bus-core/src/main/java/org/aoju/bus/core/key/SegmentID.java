@@ -0,0 +1,187 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.key;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.core.toolkit.ThreadKit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段ID生成器
+ * 从{@link SegmentStore}按号段批量获取ID,在内存中递增分配,
+ * 当前号段消耗超过{@code 10%}时异步预取下一号段(双缓冲),
+ * 号段用尽时直接切换,正常情况下分配不会等待存储
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class SegmentID {
+
+    /**
+     * 号段消耗到此比例时预取下一号段
+     */
+    private static final double PREFETCH_RATIO = 0.1;
+
+    private static final ExecutorService LOADER = Executors.newCachedThreadPool(
+            ThreadKit.newNamedThreadFactory("segment-id-", true));
+
+    private final SegmentStore store;
+    private final String tag;
+    private final int step;
+
+    private volatile Segment current;
+    /**
+     * 预取中或已预取的下一号段,仅在持有this锁时修改
+     */
+    private CompletableFuture<Segment> next;
+
+    /**
+     * 构造
+     *
+     * @param store 号段存储
+     * @param tag   业务标识
+     * @param step  号段长度
+     */
+    public SegmentID(SegmentStore store, String tag, int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException(StringKit.format("step must be positive: {}", step));
+        }
+        this.store = store;
+        this.tag = tag;
+        this.step = step;
+        this.current = load();
+    }
+
+    /**
+     * 下一个ID
+     *
+     * @return ID
+     */
+    public long nextId() {
+        while (true) {
+            final Segment segment = current;
+            final long id = segment.cursor.getAndIncrement();
+            if (id <= segment.max) {
+                if (id == segment.prefetchAt) {
+                    prefetch();
+                }
+                return id;
+            }
+            switchSegment(segment);
+        }
+    }
+
+    /**
+     * 一次获取多个ID,尽量从当前号段中连续分配
+     *
+     * @param count 数量
+     * @return ID数组
+     */
+    public long[] nextIds(int count) {
+        final long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            final Segment segment = current;
+            final long start = segment.cursor.getAndAdd(count - filled);
+            final long end = Math.min(start + count - filled - 1, segment.max);
+            for (long id = start; id <= end; id++) {
+                ids[filled++] = id;
+            }
+            if (start <= segment.prefetchAt && segment.prefetchAt <= end) {
+                prefetch();
+            }
+            if (filled < count) {
+                switchSegment(segment);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 异步预取下一号段
+     */
+    private synchronized void prefetch() {
+        if (null == next) {
+            next = CompletableFuture.supplyAsync(this::load, LOADER);
+        }
+    }
+
+    /**
+     * 当前号段用尽时切换到下一号段,下一号段未就绪时等待
+     *
+     * @param exhausted 已用尽的号段
+     */
+    private synchronized void switchSegment(Segment exhausted) {
+        if (current != exhausted) {
+            // 其他线程已切换
+            return;
+        }
+        if (null == next) {
+            next = CompletableFuture.completedFuture(load());
+        }
+        try {
+            current = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            throw new InstrumentException(e.getCause());
+        } finally {
+            next = null;
+        }
+    }
+
+    private Segment load() {
+        final long max = store.allocate(tag, step);
+        return new Segment(max - step + 1, max, (long) (step * PREFETCH_RATIO));
+    }
+
+    /**
+     * 号段 [start, max]
+     */
+    private static final class Segment {
+
+        final AtomicLong cursor;
+        final long max;
+        /**
+         * 分配到此ID时触发预取
+         */
+        final long prefetchAt;
+
+        Segment(long start, long max, long prefetchOffset) {
+            this.cursor = new AtomicLong(start);
+            this.max = max;
+            this.prefetchAt = start + prefetchOffset;
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 0 - 0000000000 0000000000 0000000000 0000000000 0 - 00000 - 00000 - 000000000000
@@ -68,8 +69,10 @@ public class Snowflake implements Serializable {
 
     private long workerId;
     private long dataCenterId;
-    private long sequence = 0L;
-    private long lastTimestamp = -1L;
+    /**
+     * 最后分配的时间差值和序列号,高位为相对{@code twepoch}的毫秒数,低12位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
     private boolean useSystemClock;
 
     /**
@@ -151,30 +154,70 @@ public class Snowflake implements Serializable {
      *
      * @return ID
      */
-    public synchronized long nextId() {
-        long timestamp = genTime();
-        if (timestamp < lastTimestamp) {
-            if (lastTimestamp - timestamp < 2000) {
-                // 容忍2秒内的回拨，避免NTP校时造成的异常
-                timestamp = lastTimestamp;
-            } else {
-                // 如果服务器时间有问题(时钟后退) 报错。
-                throw new IllegalStateException(StringKit.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
-            }
+    public long nextId() {
+        return toId(reserve(1));
+    }
+
+    /**
+     * 一次获取多个ID,同一毫秒内的一段连续序列号只需一次CAS
+     *
+     * @param count 数量,不超过每毫秒的序列号数量4096
+     * @return ID数组, 按生成顺序递增
+     */
+    public long[] nextIds(int count) {
+        if (count < 1 || count > sequenceMask + 1) {
+            throw new IllegalArgumentException(StringKit.format("count must be between 1 and {}", sequenceMask + 1));
         }
+        final long start = reserve(count);
+        final long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(start + i);
+        }
+        return ids;
+    }
 
-        if (timestamp == lastTimestamp) {
-            sequence = (sequence + 1) & sequenceMask;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+    /**
+     * 通过CAS预留同一毫秒内的连续序列号
+     *
+     * @param count 数量
+     * @return 第一个序列号对应的状态值
+     */
+    private long reserve(int count) {
+        while (true) {
+            final long timestamp = genTime() - twepoch;
+            final long prev = state.get();
+            final long lastTimestamp = prev >>> sequenceBits;
+            long start;
+            if (timestamp > lastTimestamp) {
+                start = timestamp << sequenceBits;
+            } else {
+                if (lastTimestamp - timestamp >= 2000) {
+                    // 如果服务器时间有问题(时钟后退) 报错。
+                    throw new IllegalStateException(StringKit.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+                }
+                // 容忍2秒内的回拨，避免NTP校时造成的异常
+                start = prev + 1;
+            }
+            final long end = start + count - 1;
+            if ((end >>> sequenceBits) > Math.max(timestamp, lastTimestamp)) {
+                // 当前毫秒的序列号不足,等待下一毫秒
+                tilNextMillis(lastTimestamp + twepoch);
+                continue;
+            }
+            if (state.compareAndSet(prev, end)) {
+                return start;
             }
-        } else {
-            sequence = 0L;
         }
+    }
 
-        lastTimestamp = timestamp;
-
-        return ((timestamp - twepoch) << timestampLeftShift) | (dataCenterId << dataCenterIdShift) | (workerId << workerIdShift) | sequence;
+    /**
+     * 状态值转为ID
+     *
+     * @param state 时间差值和序列号
+     * @return ID
+     */
+    private long toId(long state) {
+        return ((state >>> sequenceBits) << timestampLeftShift) | (dataCenterId << dataCenterIdShift) | (workerId << workerIdShift) | (state & sequenceMask);
     }
 
     /**
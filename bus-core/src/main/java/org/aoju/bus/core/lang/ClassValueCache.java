@@ -0,0 +1,298 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 以类为键的缓存,读取无锁
+ * 由本类的类加载器或其子加载器加载的类,值保存在{@link ClassValue}中,随键所在的类一起回收;
+ * 其它类(如JDK自带的类)若也存入{@link ClassValue},值会经由这些长期存活的类持有本类加载器,
+ * 导致重新部署后无法卸载,因此改存于随缓存实例一起回收的Map中:
+ * 启动类加载器及系统类加载器体系内的类永不卸载,使用{@link ConcurrentHashMap};
+ * 其余加载器的类使用弱引用键,不阻止其卸载
+ *
+ * @param <V> 值类型
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class ClassValueCache<V> {
+
+    /**
+     * 本类的类加载器
+     */
+    private static final ClassLoader LOADER = ClassValueCache.class.getClassLoader();
+    /**
+     * 系统类加载器及其父加载器,其加载的类在虚拟机运行期间不会卸载
+     */
+    private static final List<ClassLoader> PERMANENT = permanentLoaders();
+
+    /**
+     * 每个类对应一个值的持有者,清空缓存时整体替换
+     */
+    private volatile ClassValue<AtomicReference<V>> values = create();
+    /**
+     * 不会卸载的类使用的缓存
+     */
+    private volatile ConcurrentMap<Class<?>, V> permanent = new ConcurrentHashMap<>();
+    /**
+     * 其它加载器的类使用的缓存
+     */
+    private volatile WeakStore<V> foreign = new WeakStore<>();
+
+    private static <V> ClassValue<AtomicReference<V>> create() {
+        return new ClassValue<AtomicReference<V>>() {
+            @Override
+            protected AtomicReference<V> computeValue(Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+    }
+
+    private static List<ClassLoader> permanentLoaders() {
+        final List<ClassLoader> loaders = new ArrayList<>();
+        try {
+            ClassLoader loader = ClassLoader.getSystemClassLoader();
+            while (null != loader) {
+                loaders.add(loader);
+                loader = loader.getParent();
+            }
+        } catch (SecurityException e) {
+            // 无权限时仅启动类加载器的类视为不会卸载
+        }
+        return loaders;
+    }
+
+    /**
+     * 类是否由本类的类加载器或其子加载器加载
+     *
+     * @param type 类
+     * @return 是否可以保存到{@link ClassValue}
+     */
+    private static boolean isLocal(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        try {
+            while (null != loader) {
+                if (loader == LOADER) {
+                    return true;
+                }
+                loader = loader.getParent();
+            }
+        } catch (SecurityException e) {
+            return false;
+        }
+        return null == LOADER;
+    }
+
+    /**
+     * 类是否由启动类加载器或系统类加载器体系加载
+     *
+     * @param type 类
+     * @return 是否不会卸载
+     */
+    private static boolean isPermanent(Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        if (null == loader) {
+            return true;
+        }
+        for (ClassLoader permanent : PERMANENT) {
+            if (permanent == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从缓存池中查找值
+     *
+     * @param key 键
+     * @return 值
+     */
+    public V get(Class<?> key) {
+        if (isLocal(key)) {
+            return values.get(key).get();
+        }
+        if (isPermanent(key)) {
+            return permanent.get(key);
+        }
+        return foreign.get(key);
+    }
+
+    /**
+     * 从缓存中获得对象,当对象不在缓存中时返回Func0回调产生的对象
+     * 并发时回调可能被执行多次,但只有一个结果被缓存并返回
+     *
+     * @param key      键
+     * @param supplier 如果不存在回调方法,用于生产值对象
+     * @return 值对象
+     */
+    public V get(Class<?> key, Func.Func0<V> supplier) {
+        final boolean local = isLocal(key);
+        final AtomicReference<V> holder = local ? values.get(key) : null;
+        V v = local ? holder.get() : get(key);
+        if (null == v && null != supplier) {
+            try {
+                v = supplier.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            if (local) {
+                if (false == holder.compareAndSet(null, v)) {
+                    v = holder.get();
+                }
+            } else {
+                final V prior = isPermanent(key) ? permanent.putIfAbsent(key, v) : foreign.putIfAbsent(key, v);
+                if (null != prior) {
+                    v = prior;
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * 放入缓存
+     *
+     * @param key   键
+     * @param value 值
+     * @return 值
+     */
+    public V put(Class<?> key, V value) {
+        if (isLocal(key)) {
+            values.get(key).set(value);
+        } else if (isPermanent(key)) {
+            permanent.put(key, value);
+        } else {
+            foreign.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 移除缓存
+     * 仅清空值而保留持有者,与并发的{@link #put(Class, Object)}之间是原子的:
+     * 结果要么是移除后放入的值,要么是被移除
+     *
+     * @param key 键
+     * @return 移除的值
+     */
+    public V remove(Class<?> key) {
+        if (isLocal(key)) {
+            return values.get(key).getAndSet(null);
+        }
+        if (isPermanent(key)) {
+            return permanent.remove(key);
+        }
+        return foreign.remove(key);
+    }
+
+    /**
+     * 清空缓存池
+     * 与清空同时进行的{@link #put(Class, Object)}可能写入旧的缓存池而丢失,调用方应在必要时重新放入
+     */
+    public void clear() {
+        this.values = create();
+        this.permanent = new ConcurrentHashMap<>();
+        this.foreign = new WeakStore<>();
+    }
+
+    /**
+     * 弱引用键的并发Map,键所在的类被回收后,其条目在下次写入时清除
+     *
+     * @param <V> 值类型
+     */
+    private static final class WeakStore<V> {
+
+        private final ConcurrentMap<WeakKey, V> map = new ConcurrentHashMap<>();
+
+        private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<>();
+
+        V get(Class<?> key) {
+            return map.get(new WeakKey(key, null));
+        }
+
+        V put(Class<?> key, V value) {
+            expunge();
+            return map.put(new WeakKey(key, queue), value);
+        }
+
+        V putIfAbsent(Class<?> key, V value) {
+            expunge();
+            return map.putIfAbsent(new WeakKey(key, queue), value);
+        }
+
+        V remove(Class<?> key) {
+            expunge();
+            return map.remove(new WeakKey(key, null));
+        }
+
+        private void expunge() {
+            for (Object stale; null != (stale = queue.poll()); ) {
+                map.remove(stale);
+            }
+        }
+
+    }
+
+    /**
+     * 按类的同一性比较的弱引用键
+     */
+    private static final class WeakKey extends WeakReference<Class<?>> {
+
+        private final int hash;
+
+        WeakKey(Class<?> type, ReferenceQueue<Class<?>> queue) {
+            super(type, queue);
+            this.hash = java.lang.System.identityHashCode(type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (false == obj instanceof WeakKey) {
+                return false;
+            }
+            final Class<?> type = get();
+            return null != type && type == ((WeakKey) obj).get();
+        }
+
+    }
+
+}
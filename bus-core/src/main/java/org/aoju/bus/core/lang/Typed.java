@@ -30,6 +30,8 @@ import org.aoju.bus.core.toolkit.StringKit;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * {@link ParameterizedType} 接口实现，用于重新定义泛型类型
@@ -105,6 +107,31 @@ public class Typed implements ParameterizedType, Serializable {
         return rawType;
     }
 
+    /**
+     * 与JDK的{@link ParameterizedType}实现一致,拥有者、原始类型及泛型参数均相等时相等
+     *
+     * @param o 比较对象
+     * @return 是否相等
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (false == o instanceof ParameterizedType) {
+            return false;
+        }
+        final ParameterizedType that = (ParameterizedType) o;
+        return Objects.equals(ownerType, that.getOwnerType())
+                && Objects.equals(rawType, that.getRawType())
+                && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+    }
+
     @Override
     public String toString() {
         final StringBuilder buf = new StringBuilder();
@@ -0,0 +1,233 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.lang.tree;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.lang.tree.parser.NodeParser;
+import org.aoju.bus.core.toolkit.ObjectKit;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 树构建器
+ * 添加节点时按父ID建立索引,构建时从顶层节点出发逐层挂接子节点,每个子节点列表只排序一次,
+ * 整体为线性时间(不计排序);节点可逐个或通过{@link Iterator}流式添加,无需先收集为列表
+ * <pre>
+ *    1. 子节点按权重排序,权重相同时保持添加顺序
+ *    2. 超过{@link TreeEntity#getDeep()}深度的节点不会挂接
+ *    3. 父节点不存在的节点不会出现在结果中
+ * </pre>
+ * 添加节点非线程安全
+ *
+ * @param <E> ID类型
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class TreeBuilder<E> {
+
+    /**
+     * 最顶层父id值
+     */
+    private final E rootId;
+    /**
+     * 配置
+     */
+    private final TreeEntity treeEntity;
+    /**
+     * 父ID到子节点的索引,子节点按添加顺序排列
+     */
+    private final Map<E, List<TreeMap<E>>> childrenIndex = new HashMap<>();
+
+    /**
+     * 构造
+     *
+     * @param rootId     最顶层父id值 一般为 0 之类
+     * @param treeEntity 配置
+     */
+    public TreeBuilder(E rootId, TreeEntity treeEntity) {
+        this.rootId = rootId;
+        this.treeEntity = ObjectKit.defaultIfNull(treeEntity, TreeEntity.DEFAULT);
+    }
+
+    /**
+     * 创建树构建器
+     *
+     * @param <E>        ID类型
+     * @param rootId     最顶层父id值 一般为 0 之类
+     * @param treeEntity 配置
+     * @return TreeBuilder
+     */
+    public static <E> TreeBuilder<E> of(E rootId, TreeEntity treeEntity) {
+        return new TreeBuilder<>(rootId, treeEntity);
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param node 节点
+     * @return this
+     */
+    public TreeBuilder<E> append(TreeMap<E> node) {
+        childrenIndex.computeIfAbsent(node.getParentId(), key -> new ArrayList<>()).add(node);
+        return this;
+    }
+
+    /**
+     * 转换并添加节点
+     *
+     * @param <T>        源数据类型
+     * @param object     源数据
+     * @param nodeParser 转换器
+     * @return this
+     */
+    public <T> TreeBuilder<E> append(T object, NodeParser<T, E> nodeParser) {
+        return append(parse(object, nodeParser));
+    }
+
+    /**
+     * 逐个转换并添加迭代器中的节点,不会缓存源数据
+     *
+     * @param <T>        源数据类型
+     * @param iterator   源数据迭代器
+     * @param nodeParser 转换器
+     * @return this
+     */
+    public <T> TreeBuilder<E> append(Iterator<T> iterator, NodeParser<T, E> nodeParser) {
+        while (iterator.hasNext()) {
+            append(iterator.next(), nodeParser);
+        }
+        return this;
+    }
+
+    /**
+     * 并行转换源数据后按原顺序添加
+     *
+     * @param <T>        源数据类型
+     * @param list       源数据集合
+     * @param nodeParser 转换器
+     * @param pool       执行转换的线程池
+     * @return this
+     */
+    public <T> TreeBuilder<E> appendParallel(List<T> list, NodeParser<T, E> nodeParser, ForkJoinPool pool) {
+        final TreeMap<E>[] nodes = new TreeMap[list.size()];
+        invoke(pool, () -> Arrays.parallelSetAll(nodes, i -> parse(list.get(i), nodeParser)));
+        for (TreeMap<E> node : nodes) {
+            append(node);
+        }
+        return this;
+    }
+
+    /**
+     * 构建树
+     *
+     * @return 排序后的顶层节点
+     */
+    public List<TreeMap<E>> build() {
+        final List<TreeMap<E>> roots = roots();
+        for (TreeMap<E> root : roots) {
+            attach(root);
+        }
+        return roots;
+    }
+
+    /**
+     * 并行构建树,各顶层节点的子树在线程池中独立挂接,适合大型森林
+     * 要求节点ID唯一
+     *
+     * @param pool 线程池
+     * @return 排序后的顶层节点
+     */
+    public List<TreeMap<E>> build(ForkJoinPool pool) {
+        final List<TreeMap<E>> roots = roots();
+        invoke(pool, () -> roots.parallelStream().forEach(this::attach));
+        return roots;
+    }
+
+    private List<TreeMap<E>> roots() {
+        final List<TreeMap<E>> roots = childrenIndex.get(rootId);
+        if (null == roots) {
+            return new ArrayList<>();
+        }
+        final List<TreeMap<E>> sorted = new ArrayList<>(roots);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    /**
+     * 从{@code root}开始逐层挂接子节点,使用显式栈以支持很深的树,已展开的节点不再重复展开以避免环
+     */
+    private void attach(TreeMap<E> root) {
+        final Integer maxDeep = treeEntity.getDeep();
+        final Set<TreeMap<E>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<TreeMap<E>> nodes = new ArrayDeque<>();
+        final Deque<Integer> deeps = new ArrayDeque<>();
+        nodes.push(root);
+        deeps.push(0);
+        while (false == nodes.isEmpty()) {
+            final TreeMap<E> parent = nodes.pop();
+            final int deep = deeps.pop();
+            if ((null != maxDeep && deep >= maxDeep) || false == visited.add(parent)) {
+                continue;
+            }
+            final List<TreeMap<E>> indexed = childrenIndex.get(parent.getId());
+            if (null == indexed) {
+                continue;
+            }
+            final List<TreeMap<E>> children = new ArrayList<>(indexed);
+            children.sort(null);
+            parent.setChildren(children);
+            for (TreeMap<E> child : children) {
+                child.setParent(parent);
+                nodes.push(child);
+                deeps.push(deep + 1);
+            }
+        }
+    }
+
+    private <T> TreeMap<E> parse(T object, NodeParser<T, E> nodeParser) {
+        final TreeMap<E> node = new TreeMap<>(treeEntity);
+        nodeParser.parse(object, node);
+        return node;
+    }
+
+    private static void invoke(ForkJoinPool pool, Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new InstrumentException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,319 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.text;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 预编译的 {} 占位符模板
+ * 模板只解析一次,拆分为字面量片段和占位符位置,转义规则与{@link StringKit#format(String, Object...)}一致
+ * 格式化时复用线程内的{@link StringBuilder},除结果字符串外不再产生额外对象
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+public class StrTemplate {
+
+    /**
+     * 缓存的模板数量上限,超出后淘汰最近未使用的模板
+     */
+    private static final int MAX_CACHE_SIZE = 4096;
+    /**
+     * 可缓存模板的最大长度,更长的模板多为动态拼接,仅编译不缓存
+     */
+    private static final int MAX_TEMPLATE_LENGTH = 512;
+    /**
+     * 线程内缓冲区保留的最大容量,超出后丢弃,避免长消息长期占用内存
+     */
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+    /**
+     * 模板缓存,读取无锁,超出上限时按二次机会(CLOCK)近似LRU淘汰
+     */
+    private static final Map<String, StrTemplate> CACHE = new ConcurrentHashMap<>();
+    /**
+     * 淘汰锁,同一时间只有一个线程执行淘汰
+     */
+    private static final ReentrantLock EVICTION = new ReentrantLock();
+    /**
+     * 线程内复用的缓冲区,使用期间移出,重入时使用独立的缓冲区
+     * 只保存JDK类型,不会经由线程池中的线程持有本类的类加载器
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+    /**
+     * 原始模板
+     */
+    private final String template;
+    /**
+     * 每个占位符之前的字面量(已处理转义)
+     */
+    private final String[] literals;
+    /**
+     * 每个占位符结束后在原始模板中的位置,参数不足时从此位置原样输出剩余模板
+     */
+    private final int[] ends;
+    /**
+     * 最后一个占位符之后的字面量(已处理转义)
+     */
+    private final String tail;
+    /**
+     * 自上次淘汰以来是否被使用过,仅用于淘汰的近似判断,无需严格可见
+     */
+    private boolean referenced;
+
+    /**
+     * 构造
+     *
+     * @param template 模板
+     */
+    private StrTemplate(String template) {
+        final List<String> literalList = new ArrayList<>();
+        final List<Integer> endList = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        final int length = template.length();
+        int handledPosition = 0;
+        int delimIndex;
+        while (-1 != (delimIndex = template.indexOf(Symbol.DELIM, handledPosition))) {
+            if (delimIndex > 0 && template.charAt(delimIndex - 1) == Symbol.C_BACKSLASH) {
+                if (delimIndex > 1 && template.charAt(delimIndex - 2) == Symbol.C_BACKSLASH) {
+                    // 双转义符,占位符依旧有效
+                    literal.append(template, handledPosition, delimIndex - 1);
+                    handledPosition = delimIndex + 2;
+                } else {
+                    // 占位符被转义
+                    literal.append(template, handledPosition, delimIndex - 1).append(Symbol.C_BRACE_LEFT);
+                    handledPosition = delimIndex + 1;
+                    continue;
+                }
+            } else {
+                literal.append(template, handledPosition, delimIndex);
+                handledPosition = delimIndex + 2;
+            }
+            literalList.add(literal.toString());
+            endList.add(handledPosition);
+            literal.setLength(0);
+        }
+        literal.append(template, handledPosition, length);
+
+        this.template = template;
+        this.literals = literalList.toArray(new String[0]);
+        this.ends = new int[endList.size()];
+        for (int i = 0; i < this.ends.length; i++) {
+            this.ends[i] = endList.get(i);
+        }
+        this.tail = literal.toString();
+    }
+
+    /**
+     * 编译模板,不使用缓存
+     *
+     * @param template 模板
+     * @return {@link StrTemplate}
+     */
+    public static StrTemplate compile(String template) {
+        return new StrTemplate(template);
+    }
+
+    /**
+     * 获取编译后的模板,优先从缓存获取
+     * 模板过长时仅编译不缓存
+     *
+     * @param template 模板
+     * @return {@link StrTemplate}
+     */
+    public static StrTemplate of(String template) {
+        final StrTemplate cached = lookup(template);
+        return null != cached ? cached : new StrTemplate(template);
+    }
+
+    /**
+     * 从缓存获取编译后的模板,未缓存时编译并缓存
+     *
+     * @param template 模板
+     * @return {@link StrTemplate},模板过长无法缓存时返回{@code null}
+     */
+    public static StrTemplate lookup(String template) {
+        if (template.length() > MAX_TEMPLATE_LENGTH) {
+            return null;
+        }
+        StrTemplate compiled = CACHE.get(template);
+        if (null == compiled) {
+            compiled = new StrTemplate(template);
+            final StrTemplate prior = CACHE.putIfAbsent(template, compiled);
+            if (null != prior) {
+                compiled = prior;
+            } else if (CACHE.size() > MAX_CACHE_SIZE) {
+                evict();
+            }
+        } else if (false == compiled.referenced) {
+            compiled.referenced = true;
+        }
+        return compiled;
+    }
+
+    /**
+     * 淘汰至上限的3/4,被使用过的模板清除标记后保留一轮
+     */
+    private static void evict() {
+        if (false == EVICTION.tryLock()) {
+            return;
+        }
+        try {
+            int excess = CACHE.size() - MAX_CACHE_SIZE / 4 * 3;
+            for (int pass = 0; pass < 2 && excess > 0; pass++) {
+                final Iterator<StrTemplate> iterator = CACHE.values().iterator();
+                while (excess > 0 && iterator.hasNext()) {
+                    final StrTemplate compiled = iterator.next();
+                    if (compiled.referenced) {
+                        compiled.referenced = false;
+                    } else {
+                        iterator.remove();
+                        excess--;
+                    }
+                }
+            }
+        } finally {
+            EVICTION.unlock();
+        }
+    }
+
+    /**
+     * 占位符数量
+     *
+     * @return 占位符数量
+     */
+    public int size() {
+        return this.literals.length;
+    }
+
+    /**
+     * 原始模板
+     *
+     * @return 模板
+     */
+    public String getTemplate() {
+        return this.template;
+    }
+
+    /**
+     * 格式化
+     *
+     * @param params 参数
+     * @return 格式化后的文本
+     */
+    public String format(Object... params) {
+        if (null == params || params.length == 0) {
+            return this.template;
+        }
+        if (this.literals.length == 0) {
+            return this.tail;
+        }
+
+        final StringBuilder cached = BUFFER.get();
+        final StringBuilder builder;
+        if (null == cached) {
+            // 首次使用,或参数的toString中再次格式化
+            builder = new StringBuilder(Math.max(256, this.template.length() + 50));
+        } else {
+            builder = cached;
+            builder.setLength(0);
+            BUFFER.set(null);
+        }
+        final String result = appendTo(builder, params).toString();
+        if (builder.capacity() <= MAX_BUFFER_CAPACITY) {
+            BUFFER.set(builder);
+        }
+        return result;
+    }
+
+    /**
+     * 格式化并追加到给定的{@link Appendable}
+     *
+     * @param <A>        {@link Appendable}类型
+     * @param appendable 追加目标
+     * @param params     参数
+     * @return 追加目标
+     * @throws InstrumentException IO异常
+     */
+    public <A extends Appendable> A formatTo(A appendable, Object... params) throws InstrumentException {
+        try {
+            if (null == params || params.length == 0) {
+                appendable.append(this.template);
+            } else if (appendable instanceof StringBuilder) {
+                appendTo((StringBuilder) appendable, params);
+            } else {
+                final int count = Math.min(params.length, this.literals.length);
+                for (int i = 0; i < count; i++) {
+                    appendable.append(this.literals[i]).append(StringKit.toString(params[i]));
+                }
+                if (params.length > this.literals.length) {
+                    appendable.append(this.tail);
+                } else {
+                    appendable.append(this.template, this.ends[count - 1], this.template.length());
+                }
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return appendable;
+    }
+
+    /**
+     * 追加到{@link StringBuilder},参数不为空
+     *
+     * @param builder {@link StringBuilder}
+     * @param params  参数
+     * @return {@link StringBuilder}
+     */
+    private StringBuilder appendTo(StringBuilder builder, Object[] params) {
+        final int count = Math.min(params.length, this.literals.length);
+        for (int i = 0; i < count; i++) {
+            builder.append(this.literals[i]).append(StringKit.toString(params[i]));
+        }
+        if (params.length > this.literals.length) {
+            builder.append(this.tail);
+        } else {
+            builder.append(this.template, this.ends[count - 1], this.template.length());
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return this.template;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * CSV一行的字段列表
+ * 保存整行字符和各字段的结束位置,字段在首次访问时才转换为字符串,
+ * 修改列表时转为普通列表
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+final class CsvFields extends AbstractList<String> implements RandomAccess {
+
+    private final char[] chars;
+    private final int[] ends;
+    private final char textDelimiter;
+    /**
+     * 已转换的字段
+     */
+    private String[] values;
+    /**
+     * 修改后的字段列表
+     */
+    private List<String> modified;
+
+    /**
+     * 构造
+     *
+     * @param chars         整行字符
+     * @param ends          每个字段在整行中的结束位置(不包括)
+     * @param textDelimiter 文本包装符
+     */
+    CsvFields(char[] chars, int[] ends, char textDelimiter) {
+        this.chars = chars;
+        this.ends = ends;
+        this.textDelimiter = textDelimiter;
+    }
+
+    @Override
+    public String get(int index) {
+        if (null != modified) {
+            return modified.get(index);
+        }
+        if (index < 0 || index >= ends.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ends.length);
+        }
+        if (null == values) {
+            values = new String[ends.length];
+        }
+        String value = values[index];
+        if (null == value) {
+            final int start = index == 0 ? 0 : ends[index - 1];
+            value = StringKit.unWrap(new String(chars, start, ends[index] - start), textDelimiter);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return null != modified ? modified.size() : ends.length;
+    }
+
+    @Override
+    public String set(int index, String element) {
+        return modifiable().set(index, element);
+    }
+
+    @Override
+    public void add(int index, String element) {
+        modifiable().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public String remove(int index) {
+        final String result = modifiable().remove(index);
+        modCount++;
+        return result;
+    }
+
+    private List<String> modifiable() {
+        if (null == modified) {
+            final List<String> list = new ArrayList<>(ends.length);
+            for (int i = 0; i < ends.length; i++) {
+                list.add(get(i));
+            }
+            modified = list;
+        }
+        return modified;
+    }
+
+}
@@ -0,0 +1,247 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 基于内存映射的CSV分块并行读取
+ * 按引号外的换行符将文件切分为若干块,每块独立解码和解析,
+ * 块内行号为近似值(按此前的换行符计算),字段数一致性只在块内检查
+ *
+ * @author Kimi Liu
+ * @version 6.0.6
+ * @since JDK 1.8+
+ */
+final class CsvMappedReader {
+
+    /**
+     * 每块的目标字节数
+     */
+    static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 扫描分块位置时每次映射的最大字节数
+     */
+    private static final int SCAN_WINDOW = 64 * 1024 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+    private final CsvReadConfig config;
+    private final ForkJoinPool pool;
+
+    /**
+     * 构造
+     *
+     * @param path    CSV文件
+     * @param charset 文件编码
+     * @param config  配置项
+     * @param pool    解析使用的线程池
+     */
+    CsvMappedReader(Path path, Charset charset, CsvReadConfig config, ForkJoinPool pool) {
+        this.path = path;
+        this.charset = charset;
+        this.config = config;
+        this.pool = pool;
+    }
+
+    /**
+     * 并行解析所有块
+     *
+     * @param rowHandler 行处理器
+     * @param ordered    是否按文件顺序处理,false时处理器会被多个线程并发调用
+     */
+    void read(CsvHandler rowHandler, boolean ordered) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final List<long[]> chunks = split(channel);
+            if (chunks.isEmpty()) {
+                return;
+            }
+            final CsvRow header = config.containsHeader ? readHeader(channel, chunks.get(0)) : null;
+            if (ordered) {
+                readOrdered(channel, chunks, header, rowHandler);
+            } else {
+                readUnordered(channel, chunks, header, rowHandler);
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InstrumentException(e.getCause());
+        }
+    }
+
+    /**
+     * 按顺序处理,最多同时解析与并行度相同数量的块
+     */
+    private void readOrdered(FileChannel channel, List<long[]> chunks, CsvRow header, CsvHandler rowHandler) {
+        final int window = Math.max(1, pool.getParallelism());
+        final Deque<CompletableFuture<List<CsvRow>>> pending = new ArrayDeque<>(window);
+        int next = 0;
+        while (next < chunks.size() || false == pending.isEmpty()) {
+            while (next < chunks.size() && pending.size() < window) {
+                final int index = next++;
+                pending.add(CompletableFuture.supplyAsync(() -> {
+                    final List<CsvRow> rows = new ArrayList<>();
+                    parse(channel, chunks.get(index), index == 0 ? null : header, rows::add);
+                    return rows;
+                }, pool));
+            }
+            for (CsvRow row : pending.poll().join()) {
+                rowHandler.handle(row);
+            }
+        }
+    }
+
+    /**
+     * 不保证顺序,每块解析出的行直接交给处理器
+     */
+    private void readUnordered(FileChannel channel, List<long[]> chunks, CsvRow header, CsvHandler rowHandler) {
+        final CompletableFuture<?>[] futures = new CompletableFuture[chunks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            final int index = i;
+            futures[i] = CompletableFuture.runAsync(() ->
+                    parse(channel, chunks.get(index), index == 0 ? null : header, rowHandler), pool);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    /**
+     * 解析首块中的标题行
+     */
+    private CsvRow readHeader(FileChannel channel, long[] chunk) {
+        final CsvParser parser = new CsvParser(decode(channel, chunk), config);
+        try {
+            parser.nextRow();
+            return parser.getHeaderRow();
+        } finally {
+            IoKit.close(parser);
+        }
+    }
+
+    private void parse(FileChannel channel, long[] chunk, CsvRow header, CsvHandler rowHandler) {
+        final CsvParser parser = new CsvParser(decode(channel, chunk), config, chunk[2], header);
+        try {
+            CsvRow row;
+            while ((row = parser.nextRow()) != null) {
+                rowHandler.handle(row);
+            }
+        } finally {
+            IoKit.close(parser);
+        }
+    }
+
+    /**
+     * 映射并解码一块数据
+     *
+     * @param channel 文件通道
+     * @param chunk   块信息:起始位置、结束位置、之前的行数
+     * @return Reader
+     */
+    private CharArrayReader decode(FileChannel channel, long[] chunk) {
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        final CharBuffer chars = charset.decode(buffer);
+        return new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+    }
+
+    /**
+     * 在引号外的换行处将文件切分为块
+     * 字符集无法按单字节识别分隔符时(如UTF-16)整个文件作为一块
+     *
+     * @param channel 文件通道
+     * @return 每块的起始位置、结束位置和之前的行数
+     * @throws IOException IO异常
+     */
+    private List<long[]> split(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final List<long[]> chunks = new ArrayList<>();
+        if (size == 0) {
+            return chunks;
+        }
+        final byte quote = (byte) config.textDelimiter;
+        if (false == Arrays.equals(new byte[]{quote, Symbol.C_LF},
+                new String(new char[]{config.textDelimiter, Symbol.C_LF}).getBytes(charset))) {
+            if (size > Integer.MAX_VALUE) {
+                throw new InstrumentException("Charset {} is not supported for files larger than 2GB", charset);
+            }
+            chunks.add(new long[]{0, size, 0});
+            return chunks;
+        }
+
+        boolean inQuotes = false;
+        long chunkStart = 0;
+        long lines = 0;
+        long chunkLines = 0;
+        for (long offset = 0; offset < size; offset += SCAN_WINDOW) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SCAN_WINDOW, size - offset));
+            final int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                final byte b = buffer.get(i);
+                if (b == quote) {
+                    inQuotes = !inQuotes;
+                } else if (b == Symbol.C_LF) {
+                    lines++;
+                    final long end = offset + i + 1;
+                    if (false == inQuotes && end - chunkStart >= CHUNK_SIZE) {
+                        chunks.add(new long[]{chunkStart, end, chunkLines});
+                        chunkStart = end;
+                        chunkLines = lines;
+                    }
+                }
+            }
+        }
+        if (chunkStart < size) {
+            chunks.add(new long[]{chunkStart, size, chunkLines});
+        }
+        return chunks;
+    }
+
+}
@@ -43,7 +43,7 @@ import java.util.*;
  * @version 6.0.6
  * @since JDK 1.8+
  */
-public final class CsvParser implements Closeable {
+public final class CsvParser implements Closeable, Iterable<CsvRow> {
 
     private static final int DEFAULT_ROW_CAPACITY = 10;
 
@@ -52,9 +52,17 @@ public final class CsvParser implements Closeable {
 
     private final char[] buf = new char[IoKit.DEFAULT_LARGE_BUFFER_SIZE];
     /**
-     * 当前读取字段
+     * 当前读取行,所有字段连续存放
      */
-    private final TextKit currentField = new TextKit(512);
+    private final TextKit currentLine = new TextKit(512);
+    /**
+     * 当前行每个字段的结束位置
+     */
+    private int[] fieldEnds = new int[DEFAULT_ROW_CAPACITY];
+    /**
+     * 当前行已读取的字段数
+     */
+    private int currentFieldCount;
     /**
      * 当前位置
      */
@@ -107,6 +115,20 @@ public final class CsvParser implements Closeable {
         this.config = ObjectKit.defaultIfNull(config, CsvReadConfig.defaultConfig());
     }
 
+    /**
+     * CSV解析器,用于从文件中间的某一行开始解析
+     *
+     * @param reader Reader
+     * @param config 配置,null则为默认配置
+     * @param lineNo 起始位置之前的行数
+     * @param header 已解析的标题行,null表示按配置解析标题
+     */
+    CsvParser(final Reader reader, CsvReadConfig config, long lineNo, CsvRow header) {
+        this(reader, config);
+        this.lineNo = lineNo;
+        this.header = header;
+    }
+
     /**
      * 获取头部字段列表,如果containsHeader设置为false则抛出异常
      *
@@ -123,6 +145,15 @@ public final class CsvParser implements Closeable {
         return header.fields;
     }
 
+    /**
+     * 获取标题行,未解析到标题时为null
+     *
+     * @return 标题行
+     */
+    CsvRow getHeaderRow() {
+        return header;
+    }
+
     /**
      * 读取下一行数据
      *
@@ -177,6 +208,36 @@ public final class CsvParser implements Closeable {
         return null;
     }
 
+    /**
+     * 逐行读取的迭代器,数据在迭代时才被解析,只能迭代一次
+     *
+     * @return 行迭代器
+     */
+    @Override
+    public Iterator<CsvRow> iterator() {
+        return new Iterator<CsvRow>() {
+            private CsvRow next;
+
+            @Override
+            public boolean hasNext() {
+                if (null == next) {
+                    next = nextRow();
+                }
+                return null != next;
+            }
+
+            @Override
+            public CsvRow next() {
+                if (false == hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final CsvRow result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
     /**
      * 当前行做为标题行
      *
@@ -201,9 +262,7 @@ public final class CsvParser implements Closeable {
      * @throws InstrumentException IO异常
      */
     private List<String> readLine() throws InstrumentException {
-        final List<String> currentFields = new ArrayList<>(maxFieldCount > 0 ? maxFieldCount : DEFAULT_ROW_CAPACITY);
-
-        final TextKit localCurrentField = currentField;
+        final TextKit localCurrentLine = currentLine;
         final char[] localBuf = this.buf;
         int localBufPos = bufPos;//当前位置
         int localPreChar = preChar;//前一个特殊分界字符
@@ -215,7 +274,7 @@ public final class CsvParser implements Closeable {
                 // 此Buffer读取结束,开始读取下一段
 
                 if (copyLen > 0) {
-                    localCurrentField.append(localBuf, localCopyStart, copyLen);
+                    localCurrentLine.append(localBuf, localCopyStart, copyLen);
                 }
                 try {
                     bufLen = reader.read(localBuf);
@@ -227,9 +286,10 @@ public final class CsvParser implements Closeable {
                     // CSV读取结束
                     finished = true;
 
-                    if (localPreChar == config.fieldSeparator || localCurrentField.hasContent()) {
+                    final int fieldStart = currentFieldCount == 0 ? 0 : fieldEnds[currentFieldCount - 1];
+                    if (localPreChar == config.fieldSeparator || localCurrentLine.length() > fieldStart) {
                         //剩余部分作为一个字段
-                        currentFields.add(localCurrentField.toStringAndReset());
+                        endField();
                     }
                     break;
                 }
@@ -255,10 +315,10 @@ public final class CsvParser implements Closeable {
                 if (c == config.fieldSeparator) {
                     //一个字段结束
                     if (copyLen > 0) {
-                        localCurrentField.append(localBuf, localCopyStart, copyLen);
+                        localCurrentLine.append(localBuf, localCopyStart, copyLen);
                         copyLen = 0;
                     }
-                    currentFields.add(StringKit.unWrap(localCurrentField.toStringAndReset(), config.textDelimiter));
+                    endField();
                     localCopyStart = localBufPos;
                 } else if (c == config.textDelimiter) {
                     // 引号开始
@@ -266,18 +326,18 @@ public final class CsvParser implements Closeable {
                     copyLen++;
                 } else if (c == Symbol.C_CR) {
                     if (copyLen > 0) {
-                        localCurrentField.append(localBuf, localCopyStart, copyLen);
+                        localCurrentLine.append(localBuf, localCopyStart, copyLen);
                     }
-                    currentFields.add(StringKit.unWrap(localCurrentField.toStringAndReset(), config.textDelimiter));
+                    endField();
                     localPreChar = c;
                     localCopyStart = localBufPos;
                     break;
                 } else if (c == Symbol.C_LF) {
                     if (localPreChar != Symbol.C_CR) {
                         if (copyLen > 0) {
-                            localCurrentField.append(localBuf, localCopyStart, copyLen);
+                            localCurrentLine.append(localBuf, localCopyStart, copyLen);
                         }
-                        currentFields.add(StringKit.unWrap(localCurrentField.toStringAndReset(), config.textDelimiter));
+                        endField();
                         localPreChar = c;
                         localCopyStart = localBufPos;
                         break;
@@ -296,7 +356,31 @@ public final class CsvParser implements Closeable {
         preChar = localPreChar;
         copyStart = localCopyStart;
 
-        return currentFields;
+        return endLine();
+    }
+
+    /**
+     * 记录当前字段在行中的结束位置
+     */
+    private void endField() {
+        if (currentFieldCount == fieldEnds.length) {
+            fieldEnds = Arrays.copyOf(fieldEnds, currentFieldCount << 1);
+        }
+        fieldEnds[currentFieldCount++] = currentLine.length();
+    }
+
+    /**
+     * 结束当前行,字段延迟到访问时再转换为字符串
+     *
+     * @return 一行数据
+     */
+    private List<String> endLine() {
+        final char[] chars = new char[currentLine.length()];
+        currentLine.getChars(0, chars.length, chars, 0);
+        final List<String> fields = new CsvFields(chars, Arrays.copyOf(fieldEnds, currentFieldCount), config.textDelimiter);
+        currentLine.reset();
+        currentFieldCount = 0;
+        return fields;
     }
 
     @Override
@@ -36,10 +36,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CSV文件读取器,参考：FastCSV
@@ -207,6 +207,79 @@ public final class CsvReader {
         }
     }
 
+    /**
+     * 读取CSV文件为行迭代器,数据在迭代时才被解析,不会一次读入内存
+     * 返回的流需要关闭以释放文件
+     *
+     * @param path    CSV文件
+     * @param charset 文件编码
+     * @return 行数据流
+     * @throws InstrumentException IO异常
+     */
+    public Stream<CsvRow> stream(Path path, java.nio.charset.Charset charset) throws InstrumentException {
+        Assert.notNull(path, "path must not be null");
+        return stream(FileKit.getReader(path, charset));
+    }
+
+    /**
+     * 从Reader中逐行读取CSV数据,数据在迭代时才被解析,不会一次读入内存
+     * 流关闭时关闭Reader
+     *
+     * @param reader Reader
+     * @return 行数据流
+     */
+    public Stream<CsvRow> stream(Reader reader) {
+        final CsvParser csvParser = parse(reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(csvParser.iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> IoKit.close(csvParser));
+    }
+
+    /**
+     * 从Reader中逐行读取CSV数据并转换为Bean,流关闭时关闭Reader
+     * 此方法默认识别首行为标题行
+     *
+     * @param <T>    Bean类型
+     * @param reader Reader
+     * @param clazz  Bean类型
+     * @return Bean数据流
+     */
+    public <T> Stream<T> stream(Reader reader, Class<T> clazz) {
+        // 此方法必须包含标题
+        this.config.setContainsHeader(true);
+
+        return stream(reader).map(row -> row.toBean(clazz));
+    }
+
+    /**
+     * 内存映射CSV文件,按记录边界分块后在{@link ForkJoinPool#commonPool()}中并行解析
+     *
+     * @param path       CSV文件
+     * @param charset    文件编码,分隔符须为单字节(如UTF-8、GBK),否则不分块
+     * @param rowHandler 行处理器
+     * @param ordered    是否按文件顺序处理,false时处理器会被多个线程并发调用
+     * @throws InstrumentException IO异常
+     */
+    public void readParallel(Path path, java.nio.charset.Charset charset, CsvHandler rowHandler, boolean ordered) throws InstrumentException {
+        readParallel(path, charset, rowHandler, ordered, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 内存映射CSV文件,按记录边界分块后在指定线程池中并行解析
+     * 行号按此前的换行符计算,字段数一致性只在块内检查
+     *
+     * @param path       CSV文件
+     * @param charset    文件编码,分隔符须为单字节(如UTF-8、GBK),否则不分块
+     * @param rowHandler 行处理器
+     * @param ordered    是否按文件顺序处理,false时处理器会被多个线程并发调用
+     * @param pool       解析使用的线程池
+     * @throws InstrumentException IO异常
+     */
+    public void readParallel(Path path, java.nio.charset.Charset charset, CsvHandler rowHandler, boolean ordered, ForkJoinPool pool) throws InstrumentException {
+        Assert.notNull(path, "path must not be null");
+        new CsvMappedReader(path, charset, config, pool).read(rowHandler, ordered);
+    }
+
     /**
      * 从Reader中读取CSV数据，结果为Map，读取后关闭Reader
      * 此方法默认识别首行为标题行
@@ -40,12 +40,14 @@ import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.lang.System;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
 import java.net.URI;
 import java.net.URL;
 import java.time.temporal.TemporalAccessor;
 import java.util.Locale;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class工具类
@@ -70,7 +72,10 @@ public class ClassKit {
             Byte.TYPE, Short.TYPE, Character.TYPE, Integer.TYPE,
             Long.TYPE, Float.TYPE, Double.TYPE
     };
-    private static SimpleCache<String, Class<?>> CLASS_CACHE = new SimpleCache<>();
+    /**
+     * 类名和类的缓存,弱引用持有类,类加载器卸载后自动失效
+     */
+    private static final Map<String, WeakReference<Class<?>>> CLASS_CACHE = new ConcurrentHashMap<>();
 
     static {
         List<Class<?>> primitiveTypes = new ArrayList<>(32);
@@ -1158,7 +1163,13 @@ public class ClassKit {
         // 加载原始类型和缓存中的类
         Class<?> clazz = loadPrimitiveClass(name);
         if (clazz == null) {
-            clazz = CLASS_CACHE.get(name);
+            final WeakReference<Class<?>> ref = CLASS_CACHE.get(name);
+            if (null != ref) {
+                clazz = ref.get();
+                if (null == clazz) {
+                    CLASS_CACHE.remove(name, ref);
+                }
+            }
         }
         if (clazz != null) {
             return clazz;
@@ -1196,7 +1207,8 @@ public class ClassKit {
         }
 
         // 加入缓存并返回
-        return CLASS_CACHE.put(name, clazz);
+        CLASS_CACHE.put(name, new WeakReference<>(clazz));
+        return clazz;
     }
 
     /**
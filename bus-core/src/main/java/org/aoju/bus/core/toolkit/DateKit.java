@@ -919,6 +919,11 @@ public class DateKit {
         if (StringKit.isBlank(dateCharSequence)) {
             return null;
         }
+        // 常用格式直接扫描,无法识别时走下面的通用逻辑
+        final DateTime scanned = FastDateScanner.scan(dateCharSequence);
+        if (null != scanned) {
+            return scanned;
+        }
         String dateStr = dateCharSequence.toString();
         // 去掉两边空格并去掉中文日期中的“日”和“秒”，以规范长度
         dateStr = StringKit.removeAll(dateStr.trim(), '日', '秒');
@@ -25,6 +25,7 @@
 package org.aoju.bus.core.toolkit;
 
 import org.aoju.bus.core.collection.EnumerationIter;
+import org.aoju.bus.core.io.FileSource;
 import org.aoju.bus.core.io.LineHandler;
 import org.aoju.bus.core.io.file.FileReader;
 import org.aoju.bus.core.io.file.FileWriter;
@@ -45,6 +46,7 @@ import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 import java.util.zip.CRC32;
@@ -2503,6 +2505,32 @@ public class FileKit {
         return readLines(file, charset, new ArrayList<>());
     }
 
+    /**
+     * 按窗口映射文件并依次处理,窗口大小见 {@link FileSource#DEFAULT_WINDOW_SIZE}
+     * 映射本身不复制数据,但处理器读取直接缓冲区时仍可能复制(如{@link java.security.MessageDigest#update(java.nio.ByteBuffer)});
+     * 映射在回收前不会释放,Windows下期间文件无法删除或重命名,处理期间文件被截断时JVM抛出{@link InternalError}
+     *
+     * @param file    文件
+     * @param handler 窗口处理器,收到的缓冲区仅在回调期间有效
+     * @throws InstrumentException 异常
+     */
+    public static void readMapped(File file, Consumer<java.nio.ByteBuffer> handler) throws InstrumentException {
+        readMapped(file, FileSource.DEFAULT_WINDOW_SIZE, handler);
+    }
+
+    /**
+     * 按窗口映射文件并依次处理
+     * 映射在回收前不会释放,注意事项见 {@link #readMapped(File, Consumer)}
+     *
+     * @param file       文件
+     * @param windowSize 映射窗口大小
+     * @param handler    窗口处理器,收到的缓冲区仅在回调期间有效
+     * @throws InstrumentException 异常
+     */
+    public static void readMapped(File file, int windowSize, Consumer<java.nio.ByteBuffer> handler) throws InstrumentException {
+        FileReader.create(file).readMapped(windowSize, handler);
+    }
+
     /**
      * 按行处理文件内容,编码为UTF-8
      *
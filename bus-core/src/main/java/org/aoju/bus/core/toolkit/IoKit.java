@@ -296,7 +296,7 @@ public class IoKit {
         final FileChannel outChannel = out.getChannel();
 
         try {
-            return inChannel.transferTo(0, inChannel.size(), outChannel);
+            return transferTo(inChannel, 0, inChannel.size(), outChannel);
         } catch (IOException e) {
             throw new InstrumentException(e);
         }
@@ -1374,6 +1374,90 @@ public class IoKit {
         return sink(Files.newOutputStream(path, options));
     }
 
+    /**
+     * 返回从{@code channel}读取的数据源
+     * 按窗口映射文件,读取时直接从映射区域写入缓冲区,写往其他通道时可使用{@link FileSource#transferTo}
+     *
+     * @param channel 文件通道
+     * @return 数据源
+     * @throws IOException IO异常
+     */
+    public static FileSource source(FileChannel channel) throws IOException {
+        if (channel == null) throw new IllegalArgumentException("channel == null");
+        return new FileSource(channel);
+    }
+
+    /**
+     * 返回一个向{@code channel}写入的接收器
+     * 缓冲区的段直接写入通道,从其他通道接收数据时可使用{@link FileSink#transferFrom}
+     *
+     * @param channel 文件通道
+     * @return 接收器
+     * @throws IOException IO异常
+     */
+    public static FileSink sink(FileChannel channel) throws IOException {
+        if (channel == null) throw new IllegalArgumentException("channel == null");
+        return new FileSink(channel);
+    }
+
+    /**
+     * 将文件通道中的一段数据写往目标通道,数据不经过JVM堆,不会关闭通道
+     * 目标为非阻塞通道且暂时无法写入时提前返回
+     *
+     * @param in       文件通道
+     * @param position 起始位置
+     * @param count    字节数
+     * @param out      目标通道,如文件或套接字通道
+     * @return 写入的字节数
+     * @throws InstrumentException IO异常
+     */
+    public static long transferTo(FileChannel in, long position, long count, WritableByteChannel out) throws InstrumentException {
+        Assert.notNull(in, "In channel is null!");
+        Assert.notNull(out, "Out channel is null!");
+        long total = 0;
+        try {
+            while (total < count) {
+                final long transferred = in.transferTo(position + total, count - total, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                total += transferred;
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return total;
+    }
+
+    /**
+     * 从源通道读取数据写入文件通道的指定位置,数据不经过JVM堆,不会关闭通道
+     * 源通道耗尽或非阻塞通道暂无数据时提前返回
+     *
+     * @param in       源通道,如文件或套接字通道
+     * @param out      文件通道
+     * @param position 写入位置
+     * @param count    最大字节数
+     * @return 写入的字节数
+     * @throws InstrumentException IO异常
+     */
+    public static long transferFrom(ReadableByteChannel in, FileChannel out, long position, long count) throws InstrumentException {
+        Assert.notNull(in, "In channel is null!");
+        Assert.notNull(out, "Out channel is null!");
+        long total = 0;
+        try {
+            while (total < count) {
+                final long transferred = out.transferFrom(in, position + total, count - total);
+                if (transferred <= 0) {
+                    break;
+                }
+                total += transferred;
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        return total;
+    }
+
     /**
      * 返回一个都不写的接收器
      *
@@ -47,15 +47,15 @@ public class ReflectKit {
     /**
      * 构造对象缓存
      */
-    private static final SimpleCache<Class<?>, Constructor<?>[]> CONSTRUCTORS_CACHE = new SimpleCache<>();
+    private static final ClassValueCache<Constructor<?>[]> CONSTRUCTORS_CACHE = new ClassValueCache<>();
     /**
      * 字段缓存
      */
-    private static final SimpleCache<Class<?>, Field[]> FIELDS_CACHE = new SimpleCache<>();
+    private static final ClassValueCache<Field[]> FIELDS_CACHE = new ClassValueCache<>();
     /**
      * 方法缓存
      */
-    private static final SimpleCache<Class<?>, Method[]> METHODS_CACHE = new SimpleCache<>();
+    private static final ClassValueCache<Method[]> METHODS_CACHE = new ClassValueCache<>();
 
     /**
      * 调用Getter方法.
@@ -28,7 +28,9 @@ import org.aoju.bus.core.convert.Convert;
 import org.aoju.bus.core.lang.*;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.text.StrBuilder;
+import org.aoju.bus.core.text.StrTemplate;
 
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.System;
@@ -1203,6 +1205,11 @@ public class StringKit {
         if (isBlank(val) || ArrayKit.isEmpty(argArray)) {
             return val;
         }
+        // 常用模板预编译缓存
+        final StrTemplate compiled = StrTemplate.lookup(val);
+        if (null != compiled) {
+            return compiled.format(argArray);
+        }
         final int strPatternLength = val.length();
 
         //初始化定义好的长度以获得更好的性能
@@ -1247,6 +1254,32 @@ public class StringKit {
         return sbuf.toString();
     }
 
+    /**
+     * 格式化文本并追加到给定的{@link Appendable}, {} 表示占位符,规则同{@link #format(CharSequence, Object...)}
+     * 例：
+     * formatTo(builder, "this is {} for {}", "a", "b") =  builder追加this is a for b
+     *
+     * @param <A>        {@link Appendable}类型
+     * @param appendable 追加目标
+     * @param template   文本模板，被替换的部分用 {} 表示
+     * @param params     参数值
+     * @return 追加目标
+     */
+    public static <A extends Appendable> A formatTo(A appendable, CharSequence template, Object... params) {
+        if (null == template) {
+            return appendable;
+        }
+        if (ArrayKit.isEmpty(params) || isBlank(template)) {
+            try {
+                appendable.append(template);
+            } catch (IOException e) {
+                throw new InstrumentException(e);
+            }
+            return appendable;
+        }
+        return StrTemplate.of(template.toString()).formatTo(appendable, params);
+    }
+
     /**
      * 改进JDK subString
      * index从0开始计算,最后一个字符为-1
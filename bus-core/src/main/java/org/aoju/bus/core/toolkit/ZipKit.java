@@ -24,17 +24,21 @@
  ********************************************************************************/
 package org.aoju.bus.core.toolkit;
 
+import org.aoju.bus.core.io.StreamProgress;
+import org.aoju.bus.core.io.file.ParallelZipCreator;
 import org.aoju.bus.core.io.streams.ByteArrayOutputStream;
 import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.Console;
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.thread.ExecutorBuilder;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.*;
 import java.util.zip.*;
 
 /**
@@ -193,6 +197,44 @@ public class ZipKit {
         return zipFile;
     }
 
+    /**
+     * 并行压缩文件或文件目录
+     * 条目及大文件的数据块在线程池中压缩,再按顺序拼接为标准Zip文件,见 {@link ParallelZipCreator}
+     *
+     * @param zipFile    生成的Zip文件,包括文件名 注意：zipPath不能是srcPath路径下的子文件夹
+     * @param charset    编码
+     * @param withSrcDir 是否包含被打包目录,只针对压缩目录有效 若为false,则只压缩目录下的文件或目录,为true则将本目录也压缩
+     * @param threads    压缩线程数,小于1时使用CPU核数
+     * @param progress   进度回调,报告已压缩的原始字节数,可为null
+     * @param srcFiles   要压缩的源文件或目录
+     * @return 压缩文件
+     * @throws InstrumentException IO异常
+     */
+    public static File zip(File zipFile, java.nio.charset.Charset charset, boolean withSrcDir, int threads, StreamProgress progress, File... srcFiles) throws InstrumentException {
+        validateFiles(zipFile, srcFiles);
+
+        final ExecutorService executor = newExecutor(threads);
+        try (ParallelZipCreator creator = new ParallelZipCreator(zipFile, charset, executor, Deflater.DEFAULT_COMPRESSION, progress)) {
+            String srcRootDir;
+            for (File srcFile : srcFiles) {
+                if (null == srcFile) {
+                    continue;
+                }
+                srcRootDir = srcFile.getCanonicalPath();
+                if (srcFile.isFile() || withSrcDir) {
+                    srcRootDir = srcFile.getCanonicalFile().getParentFile().getCanonicalPath();
+                }
+                zip(srcFile, srcRootDir, creator);
+            }
+            creator.finish();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return zipFile;
+    }
+
     /**
      * 对文件或文件目录进行压缩
      *
@@ -486,6 +528,77 @@ public class ZipKit {
         return outFile;
     }
 
+    /**
+     * 并行解压,各条目由线程池独立解压写出
+     *
+     * @param zipFile  zip文件
+     * @param outFile  解压到的目录
+     * @param charset  编码
+     * @param threads  解压线程数,小于1时使用CPU核数
+     * @param progress 进度回调,报告已解压的字节数,可为null
+     * @return 解压的目录
+     * @throws InstrumentException IO异常
+     */
+    public static File unzip(File zipFile, File outFile, java.nio.charset.Charset charset, int threads, StreamProgress progress) throws InstrumentException {
+        charset = (null == charset) ? DEFAULT_CHARSET : charset;
+        threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+
+        final ExecutorService executor = newExecutor(threads);
+        final Semaphore permits = new Semaphore(threads * 2);
+        final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        int pending = 0;
+        final long[] total = {0};
+        if (null != progress) {
+            progress.start();
+        }
+        try (ZipFile zipFileObj = new ZipFile(zipFile, charset)) {
+            final Enumeration<? extends ZipEntry> em = zipFileObj.entries();
+            while (em.hasMoreElements()) {
+                final ZipEntry zipEntry = em.nextElement();
+                final File outItemFile = buildFile(outFile, zipEntry.getName());
+                if (zipEntry.isDirectory()) {
+                    outItemFile.mkdirs();
+                    continue;
+                }
+                permits.acquire();
+                completion.submit(() -> {
+                    try {
+                        write(zipFileObj, zipEntry, outItemFile);
+                        if (null != progress) {
+                            synchronized (total) {
+                                total[0] += outItemFile.length();
+                                progress.progress(total[0]);
+                            }
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }, null);
+                pending++;
+                // 取走已完成的条目,尽早暴露失败
+                for (Future<Object> done; null != (done = completion.poll()); pending--) {
+                    done.get();
+                }
+            }
+            for (; pending > 0; pending--) {
+                completion.take().get();
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof InstrumentException ? (InstrumentException) e.getCause() : new InstrumentException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        if (null != progress) {
+            progress.finish();
+        }
+        return outFile;
+    }
+
     /**
      * 解压
      *
@@ -949,6 +1062,49 @@ public class ZipKit {
         }
     }
 
+    /**
+     * 递归添加文件夹到并行压缩
+     *
+     * @param file       当前递归压缩的文件或目录对象
+     * @param srcRootDir 被压缩的文件夹根目录
+     * @param creator    并行压缩
+     * @throws InstrumentException IO异常
+     */
+    private static void zip(File file, String srcRootDir, ParallelZipCreator creator) throws InstrumentException {
+        if (file == null) {
+            return;
+        }
+
+        final String subPath = FileKit.subPath(srcRootDir, file);
+        if (file.isDirectory()) {
+            final File[] files = file.listFiles();
+            if (ArrayKit.isEmpty(files) && StringKit.isNotEmpty(subPath)) {
+                creator.addDirectory(subPath);
+            }
+            for (File childFile : files) {
+                zip(childFile, srcRootDir, creator);
+            }
+        } else {
+            creator.addFile(subPath, file);
+        }
+    }
+
+    /**
+     * 创建压缩和解压使用的线程池
+     *
+     * @param threads 线程数,小于1时使用CPU核数
+     * @return 线程池
+     */
+    private static ExecutorService newExecutor(int threads) {
+        threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+        return ExecutorBuilder.create()
+                .setCorePoolSize(threads)
+                .setMaxPoolSize(threads)
+                .setWorkQueue(new LinkedBlockingQueue<>())
+                .setThreadFactory(ThreadKit.newNamedThreadFactory("zip-", true))
+                .build();
+    }
+
     /**
      * 添加文件到压缩包
      *
@@ -189,8 +189,9 @@ public class UdpBootstrap<Request> implements Runnable {
             serverThread.start();
 
             readRingBuffers = new RingBuffer[config.getThreadNum()];
+            // 读事件只由Selector线程写入
             for (int i = 0; i < config.getThreadNum(); i++) {
-                final RingBuffer<UdpReadEvent<Request>> ringBuffer = readRingBuffers[i] = new RingBuffer<>(1024, factory);
+                final RingBuffer<UdpReadEvent<Request>> ringBuffer = readRingBuffers[i] = new RingBuffer<>(1024, factory, RingBuffer.Producer.SINGLE, new WaitStrategy.Blocking());
                 new Thread(() -> {
                     while (STATUS_RUNNING == status) {
                         try {